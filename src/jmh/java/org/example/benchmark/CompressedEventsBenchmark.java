@@ -0,0 +1,69 @@
+package org.example.benchmark;
+
+import org.example.BatteryMonitor;
+import org.example.compress.CompressedEvents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Compara {@link BatteryMonitor#getBattery(int[])} com a avaliação direta de {@link CompressedEvents},
+ * em fluxos redundantes ({@code TICK_RUNS}) e sem repetições ({@code ALTERNATING}).
+ */
+
+/**
+ *
+ * English
+ *
+ * Compares {@link BatteryMonitor#getBattery(int[])} with direct evaluation of {@link CompressedEvents},
+ * on redundant ({@code TICK_RUNS}) and non-repeating ({@code ALTERNATING}) streams.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CompressedEventsBenchmark {
+
+    @Param({"100000", "10000000"})
+    public int size;
+
+    @Param({"TICK_RUNS", "ALTERNATING"})
+    public EventDistribution distribution;
+
+    private BatteryMonitor monitor;
+    private int[] events;
+    private CompressedEvents compressed;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        monitor = new BatteryMonitor();
+        events = distribution.generate(size);
+        compressed = CompressedEvents.encode(events);
+    }
+
+    @Benchmark
+    public int uncompressed() {
+        return monitor.getBattery(events);
+    }
+
+    @Benchmark
+    public int compressed() {
+        return monitor.getBattery(compressed);
+    }
+}
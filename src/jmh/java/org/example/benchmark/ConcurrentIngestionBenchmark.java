@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.fleet.ConcurrentBatteryLevelStore;
+import org.example.fleet.FleetBatteryEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Compara a vazão do {@link ConcurrentBatteryLevelStore} com um {@link FleetBatteryEngine} protegido por um
+ * único lock. Varie a quantidade de produtores com {@code -t 1}, {@code -t 4}, {@code -t 8}...
+ */
+
+/**
+ *
+ * English
+ *
+ * Compares the throughput of {@link ConcurrentBatteryLevelStore} with a {@link FleetBatteryEngine} guarded
+ * by a single lock. Vary the number of producers with {@code -t 1}, {@code -t 4}, {@code -t 8}...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentIngestionBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int devices;
+
+    @Param({"true", "false"})
+    public boolean padded;
+
+    private ConcurrentBatteryLevelStore store;
+    private FleetBatteryEngine lockedEngine;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        store = new ConcurrentBatteryLevelStore(devices, padded);
+        lockedEngine = new FleetBatteryEngine(devices);
+    }
+
+    @Benchmark
+    public int lockFreeStore() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return store.apply(1 + random.nextInt(devices), random.nextInt(-5, 6));
+    }
+
+    @Benchmark
+    public int singleLockEngine() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long deviceId = 1 + random.nextInt(devices);
+        final int event = random.nextInt(-5, 6);
+        synchronized (lockedEngine) {
+            return lockedEngine.apply(deviceId, event);
+        }
+    }
+}
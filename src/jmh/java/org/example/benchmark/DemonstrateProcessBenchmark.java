@@ -0,0 +1,82 @@
+package org.example.benchmark;
+
+import org.example.BatteryMonitor;
+import org.example.utills.TraceSink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Mede {@link BatteryMonitor#demonstrateProcess(int[])} com {@code System.out} redirecionado para um
+ * destino nulo, e a variante com {@link TraceSink}. Execute com {@code -prof gc} para obter o perfil de alocação por operação.
+ */
+
+/**
+ *
+ * English
+ *
+ * Measures {@link BatteryMonitor#demonstrateProcess(int[])} with {@code System.out} redirected to a
+ * null sink, and the {@link TraceSink} variant. Run with {@code -prof gc} to get the per-operation allocation profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DemonstrateProcessBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    @Param({"ALTERNATING", "SATURATING"})
+    public EventDistribution distribution;
+
+    private BatteryMonitor monitor;
+    private int[] events;
+    private PrintStream originalOut;
+    private TraceSink traceSink;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        monitor = new BatteryMonitor();
+        events = distribution.generate(size);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        traceSink = new TraceSink(Channels.newChannel(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void demonstrateProcess() {
+        monitor.demonstrateProcess(events);
+    }
+
+    @Benchmark
+    public void demonstrateProcessTraceSink() throws IOException {
+        monitor.demonstrateProcess(events, traceSink);
+    }
+}
@@ -0,0 +1,98 @@
+package org.example.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ *
+ * Português
+ *
+ * Distribuições de eventos usadas nos benchmarks.
+ */
+
+/**
+ *
+ * English
+ *
+ * Event distributions used by the benchmarks.
+ */
+public enum EventDistribution {
+
+    /**
+     * Português: apenas carregamento curto (1 a 5 minutos). English: short charging only (1 to 5 minutes). */
+    CHARGING {
+        @Override
+        int next(final SplittableRandom random, final int index) {
+            return 1 + random.nextInt(5);
+        }
+    },
+
+    /**
+     * Português: apenas jogos curtos (1 a 5 minutos). English: short gaming only (1 to 5 minutes). */
+    GAMING {
+        @Override
+        int next(final SplittableRandom random, final int index) {
+            return -1 - random.nextInt(5);
+        }
+    },
+
+    /**
+     * Português: carregamento e jogos alternados. English: alternating charging and gaming. */
+    ALTERNATING {
+        @Override
+        int next(final SplittableRandom random, final int index) {
+            final int minutes = 1 + random.nextInt(30);
+            return (index & 1) == 0 ? minutes : -minutes;
+        }
+    },
+
+    /**
+     * Português: eventos longos que batem nos limites quase sempre. English: long events that almost always hit the limits. */
+    SATURATING {
+        @Override
+        int next(final SplittableRandom random, final int index) {
+            final int minutes = 100 + random.nextInt(200);
+            return random.nextBoolean() ? minutes : -minutes;
+        }
+    },
+
+    /**
+     * Português: blocos de 128 ticks idênticos de -1, 0 ou +1 minuto. English: blocks of 128 identical -1, 0 or +1 minute ticks. */
+    TICK_RUNS {
+        @Override
+        int next(final SplittableRandom random, final int index) {
+            return (int) (Long.remainderUnsigned((index >>> 7) * 0x9E3779B97F4A7C15L, 3)) - 1;
+        }
+    };
+
+    private static final long SEED = 0x5EEDL;
+
+    abstract int next(SplittableRandom random, int index);
+
+    /**
+     *
+     * Português
+     *
+     * Gera um array de eventos determinístico com esta distribuição.
+     *
+     * @param size quantidade de eventos
+     * @return array de eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Generates a deterministic events array with this distribution.
+     *
+     * @param size number of events
+     * @return events array
+     */
+    public int[] generate(final int size) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final int[] events = new int[size];
+        for (int i = 0; i < size; i++) {
+            events[i] = next(random, i);
+        }
+        return events;
+    }
+}
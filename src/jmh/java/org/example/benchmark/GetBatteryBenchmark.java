@@ -0,0 +1,61 @@
+package org.example.benchmark;
+
+import org.example.BatteryMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Mede {@link BatteryMonitor#getBattery(int[])} para tamanhos de 10 a 10^8 eventos e várias distribuições.
+ * O tamanho 10^8 ocupa cerca de 400 MB de heap; use {@code -jvmArgs -Xmx2g} se necessário.
+ */
+
+/**
+ *
+ * English
+ *
+ * Measures {@link BatteryMonitor#getBattery(int[])} for sizes from 10 to 10^8 events and several distributions.
+ * Size 10^8 takes about 400 MB of heap; use {@code -jvmArgs -Xmx2g} if needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GetBatteryBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"CHARGING", "GAMING", "ALTERNATING", "SATURATING"})
+    public EventDistribution distribution;
+
+    private BatteryMonitor monitor;
+    private int[] events;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        monitor = new BatteryMonitor();
+        events = distribution.generate(size);
+    }
+
+    @Benchmark
+    public int getBattery() {
+        return monitor.getBattery(events);
+    }
+}
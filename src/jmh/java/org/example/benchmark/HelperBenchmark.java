@@ -0,0 +1,80 @@
+package org.example.benchmark;
+
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Micro-benchmarks de {@link BatteryChangeCalculator#calculateBatteryChange(int)} e
+ * {@link BatteryLimitsApplier#applyBatteryLimits(int)} sobre entradas aleatórias, evitando constant folding.
+ */
+
+/**
+ *
+ * English
+ *
+ * Micro-benchmarks of {@link BatteryChangeCalculator#calculateBatteryChange(int)} and
+ * {@link BatteryLimitsApplier#applyBatteryLimits(int)} over random inputs, avoiding constant folding.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HelperBenchmark {
+
+    private static final int INPUTS = 1024;
+
+    private BatteryChangeCalculator changeCalculator;
+    private BatteryLimitsApplier limitsApplier;
+    private int[] events;
+    private int[] uncappedLevels;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        changeCalculator = new BatteryChangeCalculator();
+        limitsApplier = new BatteryLimitsApplier();
+        events = EventDistribution.ALTERNATING.generate(INPUTS);
+
+        final SplittableRandom random = new SplittableRandom(INPUTS);
+        uncappedLevels = new int[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            uncappedLevels[i] = random.nextInt(-100, 201);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void calculateBatteryChange(final Blackhole blackhole) {
+        for (int event : events) {
+            blackhole.consume(changeCalculator.calculateBatteryChange(event));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(INPUTS)
+    public void applyBatteryLimits(final Blackhole blackhole) {
+        for (int level : uncappedLevels) {
+            blackhole.consume(limitsApplier.applyBatteryLimits(level));
+        }
+    }
+}
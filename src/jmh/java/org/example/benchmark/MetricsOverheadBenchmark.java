@@ -0,0 +1,67 @@
+package org.example.benchmark;
+
+import org.example.BatteryMonitor;
+import org.example.functions.rate.LinearRateModel;
+import org.example.metrics.BatteryMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Mede o custo de {@link BatteryMetrics} em {@link BatteryMonitor#getBattery(int[])}, com a
+ * instrumentação desligada e ligada.
+ */
+
+/**
+ *
+ * English
+ *
+ * Measures the cost of {@link BatteryMetrics} on {@link BatteryMonitor#getBattery(int[])}, with
+ * instrumentation switched off and on.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricsOverheadBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private BatteryMonitor plain;
+    private BatteryMonitor instrumented;
+    private int[] events;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        plain = new BatteryMonitor();
+        instrumented = new BatteryMonitor(new LinearRateModel(), new BatteryMetrics());
+        events = EventDistribution.ALTERNATING.generate(size);
+    }
+
+    @Benchmark
+    public int metricsOff() {
+        return plain.getBattery(events);
+    }
+
+    @Benchmark
+    public int metricsOn() {
+        return instrumented.getBattery(events);
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.benchmark;
+
+import org.example.metrics.LatencySnapshot;
+import org.example.pipeline.BatteryPipeline;
+import org.example.pipeline.WaitStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Mede o tempo para {@code batch} eventos atravessarem o {@link BatteryPipeline} com cada
+ * {@link WaitStrategy} e imprime os percentis de latência ponta a ponta ao final de cada execução.
+ */
+
+/**
+ *
+ * English
+ *
+ * Measures the time for {@code batch} events to cross the {@link BatteryPipeline} with each
+ * {@link WaitStrategy} and prints the end-to-end latency percentiles at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PipelineBenchmark {
+
+    @Param({"BUSY_SPIN", "YIELD", "PARK"})
+    public WaitStrategy waitStrategy;
+
+    @Param({"100000"})
+    public int batch;
+
+    private BatteryPipeline pipeline;
+    private int[] events;
+    private long published;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        pipeline = new BatteryPipeline(BatteryPipeline.DEFAULT_BUFFER_SIZE, waitStrategy,
+                (deviceId, event, level, clamped, endOfBatch) -> { });
+        events = EventDistribution.ALTERNATING.generate(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pipeline.close();
+        LatencySnapshot latency = pipeline.latency();
+        System.out.println();
+        System.out.println(waitStrategy + " latency (ns): p50=" + latency.valueAtPercentile(50.0)
+                + " p99=" + latency.valueAtPercentile(99.0)
+                + " p99.9=" + latency.valueAtPercentile(99.9)
+                + " max=" + latency.max());
+    }
+
+    @Benchmark
+    public long publishAndDrain() {
+        for (int i = 0; i < events.length; i++) {
+            pipeline.publish(i & 1023, events[i]);
+        }
+        published += events.length;
+        while (pipeline.processedEvents() < published) {
+            Thread.onSpinWait();
+        }
+        return published;
+    }
+}
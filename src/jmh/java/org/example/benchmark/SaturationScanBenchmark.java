@@ -0,0 +1,68 @@
+package org.example.benchmark;
+
+import org.example.BatteryMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Compara o laço sequencial com a varredura de trás para frente de
+ * {@link BatteryMonitor#getBatteryBackward(int[])} em traços longos com saturação ({@code SATURATING},
+ * {@code CHARGING}) e sem saturação frequente ({@code ALTERNATING}).
+ */
+
+/**
+ *
+ * English
+ *
+ * Compares the sequential loop with the backward scan of {@link BatteryMonitor#getBatteryBackward(int[])}
+ * on long traces with saturation ({@code SATURATING}, {@code CHARGING}) and without frequent saturation
+ * ({@code ALTERNATING}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SaturationScanBenchmark {
+
+    @Param({"1000000", "100000000"})
+    public int size;
+
+    @Param({"SATURATING", "CHARGING", "ALTERNATING"})
+    public EventDistribution distribution;
+
+    private BatteryMonitor monitor;
+    private int[] events;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        monitor = new BatteryMonitor();
+        events = distribution.generate(size);
+    }
+
+    @Benchmark
+    public int forward() {
+        return monitor.getBattery(events);
+    }
+
+    @Benchmark
+    public int backward() {
+        return monitor.getBatteryBackward(events);
+    }
+}
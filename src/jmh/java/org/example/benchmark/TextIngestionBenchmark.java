@@ -0,0 +1,99 @@
+package org.example.benchmark;
+
+import org.example.io.BatteryTextFileReader;
+import org.example.io.BatteryTextFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Mede a interpretação de arquivos CSV e NDJSON por {@link BatteryTextFileReader}, com uma thread e com
+ * o paralelismo padrão. O consumidor apenas soma os eventos, isolando o custo do parser.
+ */
+
+/**
+ *
+ * English
+ *
+ * Measures CSV and NDJSON parsing by {@link BatteryTextFileReader}, with one thread and with the default
+ * parallelism. The consumer only sums the events, isolating the parser cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TextIngestionBenchmark {
+
+    @Param({"5000000"})
+    public int lines;
+
+    @Param({"CSV", "NDJSON"})
+    public BatteryTextFormat format;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private Path file;
+    private ForkJoinPool pool;
+    private long sum;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("battery-ingestion", "." + format);
+        SplittableRandom random = new SplittableRandom(20);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < lines; i++) {
+                long deviceId = random.nextInt(100_000);
+                int minutes = random.nextInt(-60, 61);
+                if (format == BatteryTextFormat.CSV) {
+                    writer.write(deviceId + "," + (1_700_000_000L + i) + "," + minutes + "\n");
+                } else {
+                    writer.write("{\"deviceId\":" + deviceId + ",\"timestamp\":" + (1_700_000_000L + i)
+                            + ",\"minutes\":" + minutes + "}\n");
+                }
+            }
+        }
+        pool = parallelism == 0 ? ForkJoinPool.commonPool() : new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (pool != ForkJoinPool.commonPool()) {
+            pool.shutdown();
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long parse() throws IOException {
+        sum = 0L;
+        try (BatteryTextFileReader reader = BatteryTextFileReader.open(file, format)) {
+            reader.forEachRecord((deviceId, event) -> sum += deviceId + event, pool);
+        }
+        return sum;
+    }
+}
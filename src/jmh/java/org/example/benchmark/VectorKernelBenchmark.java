@@ -0,0 +1,78 @@
+package org.example.benchmark;
+
+import org.example.BatteryMonitor;
+import org.example.functions.vector.BatteryVectorKernel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Compara o kernel SIMD com uma chamada de {@link BatteryMonitor#getBattery(int[])} por dispositivo.
+ */
+
+/**
+ *
+ * English
+ *
+ * Compares the SIMD kernel with one {@link BatteryMonitor#getBattery(int[])} call per device.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VectorKernelBenchmark {
+
+    @Param({"1024", "65536"})
+    public int devices;
+
+    @Param({"64"})
+    public int eventsPerDevice;
+
+    private BatteryMonitor monitor;
+    private BatteryVectorKernel kernel;
+    private int[][] perDevice;
+    private int[] interleaved;
+    private int[] levels;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        monitor = new BatteryMonitor();
+        kernel = new BatteryVectorKernel();
+        perDevice = new int[devices][];
+        for (int d = 0; d < devices; d++) {
+            perDevice[d] = EventDistribution.ALTERNATING.generate(eventsPerDevice);
+        }
+        interleaved = BatteryVectorKernel.interleave(perDevice);
+        levels = new int[devices];
+    }
+
+    @Benchmark
+    public int[] scalarPerDevice() {
+        for (int d = 0; d < devices; d++) {
+            levels[d] = monitor.getBattery(perDevice[d]);
+        }
+        return levels;
+    }
+
+    @Benchmark
+    public int[] vectorKernel() {
+        kernel.evaluate(interleaved, devices, levels);
+        return levels;
+    }
+}
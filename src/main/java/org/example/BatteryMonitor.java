@@ -1,9 +1,31 @@
 package org.example;
 
+import org.example.cache.BatteryResultCache;
+import org.example.compress.CompressedEvents;
 import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.curve.BatteryResponseCurveBuilder;
+import org.example.functions.parallel.BatteryBatchTask;
+import org.example.functions.parallel.BatteryTransformTask;
+import org.example.functions.parallel.OffHeapTransformTask;
+import org.example.functions.rate.BatteryRateModel;
+import org.example.functions.rate.LinearRateModel;
+import org.example.functions.saturation.BatterySaturationScanner;
+import org.example.functions.timeline.BatteryTimelineScanner;
+import org.example.functions.transform.BatteryTransformComposer;
 import org.example.functions.updater.BatteryLevelUpdater;
 import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.jfr.BatteryBatchEvent;
+import org.example.jfr.BatteryLimitHitEvent;
+import org.example.metrics.BatteryMetrics;
+import org.example.offheap.OffHeapEventBuffer;
+import org.example.stream.BatterySession;
+import org.example.timeline.BatteryTimeline;
 import org.example.utills.PrintUtils;
+import org.example.utills.TraceSink;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Português
@@ -83,15 +105,74 @@ import org.example.utills.PrintUtils;
 public class BatteryMonitor {
 
     private final BatteryChangeCalculator changeCalculator;
+    private final BatteryRateModel rateModel;
     private final BatteryLevelUpdater levelUpdater;
     private final BatteryLimitsApplier limitsApplier;
+    private final BatteryTransformComposer transformComposer;
+    private final BatterySaturationScanner saturationScanner;
+    private final BatteryTimelineScanner timelineScanner;
+    private final BatteryResponseCurveBuilder responseCurveBuilder;
+    private final BatteryMetrics metrics;
 
-    private static final int INITIAL_BATTERY_LEVEL = 50;
+    public static final int INITIAL_BATTERY_LEVEL = 50;
 
     public BatteryMonitor() {
+        this(new LinearRateModel());
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um monitor que calcula as variações com o modelo de taxa informado.
+     *
+     * @param rateModel modelo de taxa de carga/consumo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a monitor that calculates changes with the given rate model.
+     *
+     * @param rateModel charge/drain rate model
+     */
+    public BatteryMonitor(BatteryRateModel rateModel) {
+        this(rateModel, null);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um monitor instrumentado: {@link #getBattery(int[])} e {@code demonstrateProcess} registram
+     * contadores e latências em {@code metrics}.
+     *
+     * @param rateModel modelo de taxa de carga/consumo
+     * @param metrics   métricas a alimentar, ou {@code null} para desligar a instrumentação
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates an instrumented monitor: {@link #getBattery(int[])} and {@code demonstrateProcess} record
+     * counters and latencies into {@code metrics}.
+     *
+     * @param rateModel charge/drain rate model
+     * @param metrics   metrics to feed, or {@code null} to switch instrumentation off
+     */
+    public BatteryMonitor(BatteryRateModel rateModel, BatteryMetrics metrics) {
+        this.metrics = metrics;
         this.changeCalculator = new BatteryChangeCalculator();
+        this.rateModel = rateModel;
         this.levelUpdater = new BatteryLevelUpdater();
         this.limitsApplier = new BatteryLimitsApplier();
+        this.transformComposer = new BatteryTransformComposer(changeCalculator, levelUpdater, limitsApplier);
+        this.saturationScanner = new BatterySaturationScanner(changeCalculator, levelUpdater, limitsApplier);
+        this.timelineScanner = new BatteryTimelineScanner(rateModel, levelUpdater, limitsApplier, transformComposer);
+        this.responseCurveBuilder = new BatteryResponseCurveBuilder(
+                rateModel, changeCalculator, levelUpdater, limitsApplier, transformComposer);
     }
 
     /**
@@ -114,10 +195,48 @@ public class BatteryMonitor {
      * @return final battery percentage (0-100)
      */
     public int getBattery(int[] events) {
-        int currentBatteryLevel = INITIAL_BATTERY_LEVEL;
+        return getBattery(INITIAL_BATTERY_LEVEL, events);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Processa os eventos a partir de um nível inicial qualquer, com as mesmas regras de
+     * {@link #getBattery(int[])}.
+     *
+     * @param initialLevel nível inicial da bateria (0-100)
+     * @param events       array de eventos de carregamento/uso
+     * @return porcentagem final da bateria (0-100)
+     * @throws IllegalArgumentException se o nível inicial estiver fora dos limites
+     */
+
+    /**
+     *
+     * English
+     *
+     * Processes the events from any initial level, with the same rules as {@link #getBattery(int[])}.
+     *
+     * @param initialLevel initial battery level (0-100)
+     * @param events       array of charging/usage events
+     * @return final battery percentage (0-100)
+     * @throws IllegalArgumentException if the initial level is outside the limits
+     */
+    public int getBattery(int initialLevel, int[] events) {
+        if (initialLevel < BatteryLimitsApplier.MIN_BATTERY || initialLevel > BatteryLimitsApplier.MAX_BATTERY) {
+            throw new IllegalArgumentException("Initial level must be between " + BatteryLimitsApplier.MIN_BATTERY
+                    + " and " + BatteryLimitsApplier.MAX_BATTERY + ": " + initialLevel);
+        }
+        boolean recording = BatteryBatchEvent.isRecording();
+        boolean sampling = BatteryLimitHitEvent.isSampling();
+        if (metrics != null || recording || sampling) {
+            return getBatteryInstrumented(initialLevel, events, recording ? new BatteryBatchEvent() : null, sampling);
+        }
+
+        int currentBatteryLevel = initialLevel;
 
         for (int event : events) {
-            int batteryChange = changeCalculator.calculateBatteryChange(event);
+            int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, event);
             currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
             currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
         }
@@ -125,6 +244,593 @@ public class BatteryMonitor {
         return currentBatteryLevel;
     }
 
+    private int getBatteryInstrumented(int initialLevel, int[] events, BatteryBatchEvent batchEvent, boolean sampling) {
+        if (batchEvent != null) {
+            batchEvent.begin();
+        }
+        long start = System.nanoTime();
+        int currentBatteryLevel = initialLevel;
+        int charging = 0;
+        int gaming = 0;
+        int upperClamps = 0;
+        int lowerClamps = 0;
+
+        for (int event : events) {
+            if (changeCalculator.isChargingEvent(event)) {
+                charging++;
+            } else if (changeCalculator.isGamingEvent(event)) {
+                gaming++;
+            }
+            int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, event);
+            int uncappedBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+            currentBatteryLevel = limitsApplier.applyBatteryLimits(uncappedBatteryLevel);
+            if (uncappedBatteryLevel > currentBatteryLevel) {
+                upperClamps++;
+            } else if (uncappedBatteryLevel < currentBatteryLevel) {
+                lowerClamps++;
+            }
+            if (sampling && uncappedBatteryLevel != currentBatteryLevel) {
+                BatteryLimitHitEvent.sample(uncappedBatteryLevel, currentBatteryLevel);
+            }
+        }
+
+        if (metrics != null) {
+            metrics.recordCall(System.nanoTime() - start, events.length, charging, gaming, upperClamps, lowerClamps);
+        }
+        if (batchEvent != null) {
+            batchEvent.finish(events.length, initialLevel, currentBatteryLevel, upperClamps, lowerClamps);
+        }
+        return currentBatteryLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Versão de {@link #getBattery(int[])} que varre os eventos de trás para frente e para no último
+     * ponto em que o nível foi fixado em 0% ou 100%, avaliando apenas o sufixo posterior a ele. Em
+     * traços longos com muita saturação lê apenas uma pequena parte do array; sem saturação, percorre
+     * o array inteiro. Com modelos de taxa não lineares, usa o laço sequencial.
+     *
+     * @param events array de eventos de carregamento/uso
+     * @return porcentagem final da bateria (0-100), idêntica à versão sequencial
+     */
+
+    /**
+     *
+     * English
+     *
+     * Version of {@link #getBattery(int[])} that scans the events backwards and stops at the last point
+     * where the level was pinned to 0% or 100%, evaluating only the suffix after it. On long,
+     * saturation-heavy traces it reads only a small part of the array; without saturation, it walks the
+     * whole array. With non-linear rate models, it uses the sequential loop.
+     *
+     * @param events array of charging/usage events
+     * @return final battery percentage (0-100), identical to the sequential version
+     */
+    public int getBatteryBackward(int[] events) {
+        if (!rateModel.isLinear()) {
+            return getBattery(events);
+        }
+        return saturationScanner.evaluate(events, INITIAL_BATTERY_LEVEL);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Avalia eventos comprimidos diretamente, sem descomprimi-los. Com o modelo linear, uma sequência de
+     * k eventos idênticos é reduzida em O(1): após o primeiro passo o nível já está entre 0 e 100, e as
+     * k-1 somas seguintes, todas com o mesmo sinal, equivalem a uma única soma seguida de um único limite.
+     * Com outros modelos, a sequência é percorrida até atingir um ponto fixo (por exemplo, a saturação).
+     *
+     * @param events eventos comprimidos
+     * @return porcentagem final da bateria (0-100), idêntica a {@link #getBattery(int[])}
+     */
+
+    /**
+     *
+     * English
+     *
+     * Evaluates compressed events directly, without decompressing them. With the linear model, a run of
+     * k identical events is folded in O(1): after the first step the level is already between 0 and 100,
+     * and the following k-1 additions, all with the same sign, equal a single addition followed by a
+     * single clamp. With other models, the run is walked until it reaches a fixed point (e.g. saturation).
+     *
+     * @param events compressed events
+     * @return final battery percentage (0-100), identical to {@link #getBattery(int[])}
+     */
+    public int getBattery(CompressedEvents events) {
+        int currentBatteryLevel = INITIAL_BATTERY_LEVEL;
+        boolean linear = rateModel.isLinear();
+        CompressedEvents.Reader runs = events.reader();
+
+        while (runs.next()) {
+            int event = runs.event();
+            int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, event);
+            currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+            currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+            int remaining = runs.runLength() - 1;
+
+            if (linear && batteryChange <= Integer.MAX_VALUE - 100) {
+                long folded = currentBatteryLevel + (long) remaining * batteryChange;
+                currentBatteryLevel = limitsApplier.applyBatteryLimits(
+                        (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, folded)));
+                continue;
+            }
+            for (; remaining > 0; remaining--) {
+                int previousBatteryLevel = currentBatteryLevel;
+                batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, event);
+                currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+                currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+                if (currentBatteryLevel == previousBatteryLevel) {
+                    break;
+                }
+            }
+        }
+
+        return currentBatteryLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Versão paralela de {@link #getBattery(int[])} executada no pool comum do fork/join.
+     *
+     * @param events array de eventos de carregamento/uso
+     * @return porcentagem final da bateria (0-100), idêntica à versão sequencial
+     */
+
+    /**
+     *
+     * English
+     *
+     * Parallel version of {@link #getBattery(int[])} running on the common fork/join pool.
+     *
+     * @param events array of charging/usage events
+     * @return final battery percentage (0-100), identical to the sequential version
+     */
+    public int getBatteryParallel(int[] events) {
+        return getBatteryParallel(events, ForkJoinPool.commonPool());
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Versão paralela de {@link #getBattery(int[])}: cada bloco de eventos é reduzido a uma
+     * transformação "somar e limitar" composta, e as transformações são combinadas em ordem
+     * antes de serem aplicadas à carga inicial. Arrays com um evento cuja variação poderia causar
+     * overflow do nível são avaliados em sequência.
+     *
+     * @param events array de eventos de carregamento/uso
+     * @param pool   pool fork/join que executa a redução
+     * @return porcentagem final da bateria (0-100), idêntica à versão sequencial
+     */
+
+    /**
+     *
+     * English
+     *
+     * Parallel version of {@link #getBattery(int[])}: each chunk of events is reduced to a composed
+     * "add then clamp" transform, and transforms are combined in order before being applied to the
+     * initial charge. Arrays with an event whose change could overflow the level are evaluated
+     * sequentially.
+     *
+     * @param events array of charging/usage events
+     * @param pool   fork/join pool running the reduction
+     * @return final battery percentage (0-100), identical to the sequential version
+     */
+    public int getBatteryParallel(int[] events, ForkJoinPool pool) {
+        if (!rateModel.isLinear() || events.length <= BatteryTransformTask.SEQUENTIAL_THRESHOLD) {
+            return getBattery(events);
+        }
+
+        int transform = pool.invoke(new BatteryTransformTask(transformComposer, events, 0, events.length));
+        if (transform == BatteryTransformComposer.NOT_COMPOSABLE) {
+            return getBattery(events);
+        }
+        return transformComposer.apply(transform, INITIAL_BATTERY_LEVEL);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Processa eventos armazenados fora do heap, com as mesmas regras de {@link #getBattery(int[])}. Aceita
+     * históricos com mais de {@code Integer.MAX_VALUE} eventos, percorrendo uma página por vez.
+     *
+     * @param events buffer de eventos
+     * @return porcentagem final da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Processes events stored off-heap, with the same rules as {@link #getBattery(int[])}. Accepts
+     * histories with more than {@code Integer.MAX_VALUE} events, walking one page at a time.
+     *
+     * @param events events buffer
+     * @return final battery percentage (0-100)
+     */
+    public int getBattery(OffHeapEventBuffer events) {
+        int currentBatteryLevel = INITIAL_BATTERY_LEVEL;
+
+        for (int pageIndex = 0; pageIndex < events.pageCount(); pageIndex++) {
+            IntBuffer page = events.page(pageIndex);
+            int length = events.pageLength(pageIndex);
+            for (int i = 0; i < length; i++) {
+                int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, page.get(i));
+                currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+                currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+            }
+        }
+
+        return currentBatteryLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Versão paralela de {@link #getBattery(OffHeapEventBuffer)}, no pool comum do fork/join.
+     *
+     * @param events buffer de eventos
+     * @return porcentagem final da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Parallel version of {@link #getBattery(OffHeapEventBuffer)}, on the common fork/join pool.
+     *
+     * @param events events buffer
+     * @return final battery percentage (0-100)
+     */
+    public int getBatteryParallel(OffHeapEventBuffer events) {
+        return getBatteryParallel(events, ForkJoinPool.commonPool());
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Versão paralela de {@link #getBattery(OffHeapEventBuffer)}: o intervalo {@code long} de eventos é
+     * dividido em blocos compostos em transformações "somar e limitar", como em
+     * {@link #getBatteryParallel(int[], ForkJoinPool)}. Com modelos de taxa não lineares ou buffers
+     * pequenos, usa a versão sequencial.
+     *
+     * @param events buffer de eventos
+     * @param pool   pool fork/join que executa a composição
+     * @return porcentagem final da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Parallel version of {@link #getBattery(OffHeapEventBuffer)}: the {@code long} range of events is
+     * split into blocks composed into "add then clamp" transforms, as in
+     * {@link #getBatteryParallel(int[], ForkJoinPool)}. With non-linear rate models or small buffers, it
+     * uses the sequential version.
+     *
+     * @param events events buffer
+     * @param pool   fork/join pool running the composition
+     * @return final battery percentage (0-100)
+     */
+    public int getBatteryParallel(OffHeapEventBuffer events, ForkJoinPool pool) {
+        if (!rateModel.isLinear() || events.size() <= BatteryTransformTask.SEQUENTIAL_THRESHOLD) {
+            return getBattery(events);
+        }
+
+        int transform = pool.invoke(new OffHeapTransformTask(transformComposer, events, 0L, events.size()));
+        if (transform == BatteryTransformComposer.NOT_COMPOSABLE) {
+            return getBattery(events);
+        }
+        return transformComposer.apply(transform, INITIAL_BATTERY_LEVEL);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Avalia muitos arrays de eventos de uma vez, no pool comum do fork/join. Veja
+     * {@link #getBatteryBatch(int[], int[], ForkJoinPool)}.
+     *
+     * @param events  eventos de todos os dispositivos, concatenados
+     * @param offsets início dos eventos de cada dispositivo, seguido do fim do último
+     * @return nível final de cada dispositivo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Evaluates many event arrays at once, on the common fork/join pool. See
+     * {@link #getBatteryBatch(int[], int[], ForkJoinPool)}.
+     *
+     * @param events  events of every device, concatenated
+     * @param offsets start of each device's events, followed by the end of the last one
+     * @return final level of each device
+     */
+    public int[] getBatteryBatch(int[] events, int[] offsets) {
+        return getBatteryBatch(events, offsets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Avalia muitos arrays de eventos em formato CSR: os eventos do dispositivo {@code d} são
+     * {@code events[offsets[d]]} até {@code events[offsets[d + 1] - 1]}. Evita uma chamada e um array por
+     * dispositivo e divide o trabalho entre as threads de {@code pool} balanceando a quantidade de
+     * eventos, não de dispositivos. O paralelismo é o do pool informado.
+     *
+     * @param events  eventos de todos os dispositivos, concatenados
+     * @param offsets início dos eventos de cada dispositivo, seguido do fim do último
+     * @param pool    pool fork/join que executa a avaliação
+     * @return nível final de cada dispositivo, idêntico a {@link #getBattery(int[])} em cada trecho
+     */
+
+    /**
+     *
+     * English
+     *
+     * Evaluates many event arrays in CSR form: the events of device {@code d} are
+     * {@code events[offsets[d]]} through {@code events[offsets[d + 1] - 1]}. It avoids one call and one
+     * array per device and splits the work among the threads of {@code pool}, balancing the number of
+     * events rather than devices. Parallelism is that of the given pool.
+     *
+     * @param events  events of every device, concatenated
+     * @param offsets start of each device's events, followed by the end of the last one
+     * @param pool    fork/join pool running the evaluation
+     * @return final level of each device, identical to {@link #getBattery(int[])} on each slice
+     */
+    public int[] getBatteryBatch(int[] events, int[] offsets, ForkJoinPool pool) {
+        checkOffsets(events, offsets);
+
+        int deviceCount = offsets.length - 1;
+        int[] levels = new int[deviceCount];
+        BatteryBatchTask task = new BatteryBatchTask(rateModel, levelUpdater, limitsApplier,
+                INITIAL_BATTERY_LEVEL, events, offsets, levels, 0, deviceCount);
+        if (deviceCount == 0) {
+            return levels;
+        }
+        if (offsets[deviceCount] - offsets[0] <= BatteryBatchTask.SEQUENTIAL_THRESHOLD) {
+            task.evaluateRange(0, deviceCount);
+        } else {
+            pool.invoke(task);
+        }
+        return levels;
+    }
+
+    private static void checkOffsets(int[] events, int[] offsets) {
+        if (offsets.length == 0) {
+            throw new IllegalArgumentException("Offsets must hold at least the end of the last device");
+        }
+        if (offsets[0] < 0 || offsets[offsets.length - 1] > events.length) {
+            throw new IllegalArgumentException("Offsets out of the events range [0, " + events.length + "]");
+        }
+        for (int device = 1; device < offsets.length; device++) {
+            if (offsets[device] < offsets[device - 1]) {
+                throw new IllegalArgumentException("Offsets must be non-decreasing at device " + (device - 1));
+            }
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Calcula a curva de resposta dos eventos: {@code curve[n]} é o nível final partindo de {@code n}%,
+     * para os 101 níveis iniciais. Faz uma única passagem pelos eventos em vez de 101; com o modelo linear
+     * os eventos são compostos em uma única transformação "somar e limitar".
+     *
+     * @param events array de eventos de carregamento/uso
+     * @return nível final para cada nível inicial de 0 a 100
+     */
+
+    /**
+     *
+     * English
+     *
+     * Computes the response curve of the events: {@code curve[n]} is the final level starting from
+     * {@code n}%, for the 101 initial levels. It makes a single pass over the events instead of 101; with
+     * the linear model, events are composed into a single "add then clamp" transform.
+     *
+     * @param events array of charging/usage events
+     * @return final level for each initial level from 0 to 100
+     */
+    public int[] getResponseCurve(int[] events) {
+        int[] curve = new int[responseCurveBuilder.curveLength()];
+        responseCurveBuilder.fill(events, 0, events.length, curve, 0);
+        return curve;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Calcula a curva de resposta de muitos históricos em formato CSR (veja
+     * {@link #getBatteryBatch(int[], int[], ForkJoinPool)}). A curva do dispositivo {@code d} ocupa
+     * {@code curves[d * 101]} até {@code curves[d * 101 + 100]}.
+     *
+     * @param events  eventos de todos os dispositivos, concatenados
+     * @param offsets início dos eventos de cada dispositivo, seguido do fim do último
+     * @return curvas de todos os dispositivos, concatenadas
+     */
+
+    /**
+     *
+     * English
+     *
+     * Computes the response curve of many histories in CSR form (see
+     * {@link #getBatteryBatch(int[], int[], ForkJoinPool)}). The curve of device {@code d} takes
+     * {@code curves[d * 101]} through {@code curves[d * 101 + 100]}.
+     *
+     * @param events  events of every device, concatenated
+     * @param offsets start of each device's events, followed by the end of the last one
+     * @return curves of every device, concatenated
+     */
+    public int[] getResponseCurves(int[] events, int[] offsets) {
+        checkOffsets(events, offsets);
+
+        int curveLength = responseCurveBuilder.curveLength();
+        int[] curves = new int[(offsets.length - 1) * curveLength];
+        for (int device = 0; device < offsets.length - 1; device++) {
+            responseCurveBuilder.fill(events, offsets[device], offsets[device + 1], curves, device * curveLength);
+        }
+        return curves;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Processa os eventos como {@link #getBattery(int[])}, gravando também o nível após cada evento em
+     * {@code levels[i]} e marcando no bit {@code i % 64} de {@code clampHits[i / 64]} os eventos em que o
+     * limite de 0% ou 100% alterou o nível. Os mesmos dados que {@code demonstrateProcess} imprime, sem
+     * texto nem alocação.
+     *
+     * @param events    array de eventos de carregamento/uso
+     * @param levels    saída: nível após cada evento (pelo menos {@code events.length} posições)
+     * @param clampHits saída: bitset dos eventos limitados (veja {@link BatteryTimeline#wordCount(int)})
+     * @return porcentagem final da bateria (0-100)
+     * @throws IllegalArgumentException se algum array de saída for pequeno demais
+     */
+
+    /**
+     *
+     * English
+     *
+     * Processes the events like {@link #getBattery(int[])}, also writing the level after every event into
+     * {@code levels[i]} and setting bit {@code i % 64} of {@code clampHits[i / 64]} for the events where
+     * the 0% or 100% limit changed the level. The same data {@code demonstrateProcess} prints, without
+     * text or allocation.
+     *
+     * @param events    array of charging/usage events
+     * @param levels    output: level after every event (at least {@code events.length} slots)
+     * @param clampHits output: bitset of clamped events (see {@link BatteryTimeline#wordCount(int)})
+     * @return final battery percentage (0-100)
+     * @throws IllegalArgumentException if an output array is too small
+     */
+    public int getBatteryTimeline(int[] events, int[] levels, long[] clampHits) {
+        return timelineScanner.fill(events, INITIAL_BATTERY_LEVEL, levels, clampHits);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Versão de {@link #getBatteryTimeline(int[], int[], long[])} que grava em um buffer reutilizável,
+     * crescendo-o se necessário.
+     *
+     * @param events   array de eventos de carregamento/uso
+     * @param timeline buffer a preencher
+     * @return o próprio {@code timeline}
+     */
+
+    /**
+     *
+     * English
+     *
+     * Version of {@link #getBatteryTimeline(int[], int[], long[])} that writes into a reusable buffer,
+     * growing it if needed.
+     *
+     * @param events   array of charging/usage events
+     * @param timeline buffer to fill
+     * @return {@code timeline} itself
+     */
+    public BatteryTimeline getBatteryTimeline(int[] events, BatteryTimeline timeline) {
+        timeline.reset(events.length, INITIAL_BATTERY_LEVEL);
+        timelineScanner.fill(events, INITIAL_BATTERY_LEVEL, timeline.levels(), timeline.clampHits());
+        return timeline;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Versão paralela de {@link #getBatteryTimeline(int[], int[], long[])}: uma primeira passagem reduz
+     * cada bloco de eventos a uma transformação "somar e limitar", um prefixo sequencial dá o nível de
+     * entrada de cada bloco e uma segunda passagem grava os níveis de todos os blocos em paralelo. Com
+     * modelos de taxa não lineares ou arrays pequenos, usa a versão sequencial.
+     *
+     * @param events    array de eventos de carregamento/uso
+     * @param levels    saída: nível após cada evento
+     * @param clampHits saída: bitset dos eventos limitados
+     * @param pool      pool fork/join que executa as passagens
+     * @return porcentagem final da bateria (0-100)
+     * @throws IllegalArgumentException se algum array de saída for pequeno demais
+     */
+
+    /**
+     *
+     * English
+     *
+     * Parallel version of {@link #getBatteryTimeline(int[], int[], long[])}: a first pass reduces each
+     * block of events to an "add then clamp" transform, a sequential prefix gives the entry level of each
+     * block and a second pass writes the levels of every block in parallel. With non-linear rate models or
+     * small arrays, it uses the sequential version.
+     *
+     * @param events    array of charging/usage events
+     * @param levels    output: level after every event
+     * @param clampHits output: bitset of clamped events
+     * @param pool      fork/join pool running the passes
+     * @return final battery percentage (0-100)
+     * @throws IllegalArgumentException if an output array is too small
+     */
+    public int getBatteryTimelineParallel(int[] events, int[] levels, long[] clampHits, ForkJoinPool pool) {
+        return timelineScanner.fillParallel(events, INITIAL_BATTERY_LEVEL, levels, clampHits, pool);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre uma sessão incremental que compartilha as regras deste monitor.
+     *
+     * @return nova sessão iniciando na carga inicial
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens an incremental session sharing this monitor's rules.
+     *
+     * @return new session starting at the initial charge
+     */
+    public BatterySession openSession() {
+        return new BatterySession(rateModel, levelUpdater, limitsApplier);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um cache de resultados opcional que compartilha o modelo de taxa deste monitor.
+     *
+     * @param maxEntries quantidade máxima de entradas (resultados e checkpoints)
+     * @return novo cache vazio
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates an opt-in result cache sharing this monitor's rate model.
+     *
+     * @param maxEntries maximum number of entries (results and checkpoints)
+     * @return new empty cache
+     */
+    public BatteryResultCache newResultCache(int maxEntries) {
+        return new BatteryResultCache(rateModel, maxEntries);
+    }
+
     /**
      *
      * Português
@@ -143,17 +849,19 @@ public class BatteryMonitor {
      * @param events Array of events to be demonstrated.
      */
     public void demonstrateProcess(int[] events) {
+        long start = metrics != null ? System.nanoTime() : 0L;
         int currentBatteryLevel = INITIAL_BATTERY_LEVEL;
         PrintUtils.printInitialBatteryStatus(currentBatteryLevel);
 
         for (int eventIndex = 0; eventIndex < events.length; eventIndex++) {
             int evento = events[eventIndex];
             int previousBatteryLevel = currentBatteryLevel;
-            int change = changeCalculator.calculateBatteryChange(evento);
+            int change = rateModel.calculateBatteryChange(currentBatteryLevel, evento);
 
             currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, change);
             int newBatteryLevelUncapped = currentBatteryLevel;
             currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+            recordEventMetrics(evento, newBatteryLevelUncapped, currentBatteryLevel);
 
             PrintUtils.printEventDetails(
                     eventIndex,
@@ -165,8 +873,79 @@ public class BatteryMonitor {
                     changeCalculator
             );
         }
+        if (metrics != null) {
+            metrics.recordLatency(System.nanoTime() - start);
+        }
     }
 
+    private void recordEventMetrics(int event, int uncappedBatteryLevel, int finalBatteryLevel) {
+        if (uncappedBatteryLevel != finalBatteryLevel && BatteryLimitHitEvent.isSampling()) {
+            BatteryLimitHitEvent.sample(uncappedBatteryLevel, finalBatteryLevel);
+        }
+        if (metrics != null) {
+            metrics.recordEvent(
+                    changeCalculator.isChargingEvent(event),
+                    changeCalculator.isGamingEvent(event),
+                    uncappedBatteryLevel > finalBatteryLevel,
+                    uncappedBatteryLevel < finalBatteryLevel
+            );
+        }
+    }
+
+
+    /**
+     *
+     * Português
+     *
+     * Exibe passo a passo os eventos de bateria em um {@link TraceSink} com buffer, produzindo o mesmo
+     * texto que {@link #demonstrateProcess(int[])} sem imprimir token a token no {@code System.out}.
+     *
+     * @param events Array de eventos a serem demonstrados.
+     * @param sink   Destino do rastreamento (descarregado ao final).
+     * @throws IOException se a gravação no destino falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Displays battery events step by step into a buffered {@link TraceSink}, producing the same text as
+     * {@link #demonstrateProcess(int[])} without printing token by token to {@code System.out}.
+     *
+     * @param events Array of events to be demonstrated.
+     * @param sink   Trace destination (flushed at the end).
+     * @throws IOException if writing to the destination fails
+     */
+    public void demonstrateProcess(int[] events, TraceSink sink) throws IOException {
+        long start = metrics != null ? System.nanoTime() : 0L;
+        int currentBatteryLevel = INITIAL_BATTERY_LEVEL;
+        sink.initialBatteryStatus(currentBatteryLevel);
+
+        for (int eventIndex = 0; eventIndex < events.length; eventIndex++) {
+            int evento = events[eventIndex];
+            int previousBatteryLevel = currentBatteryLevel;
+            int change = rateModel.calculateBatteryChange(currentBatteryLevel, evento);
+
+            currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, change);
+            int newBatteryLevelUncapped = currentBatteryLevel;
+            currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+            recordEventMetrics(evento, newBatteryLevelUncapped, currentBatteryLevel);
+
+            sink.eventDetails(
+                    eventIndex,
+                    evento,
+                    previousBatteryLevel,
+                    change,
+                    newBatteryLevelUncapped,
+                    currentBatteryLevel,
+                    changeCalculator
+            );
+        }
+        sink.flush();
+        if (metrics != null) {
+            metrics.recordLatency(System.nanoTime() - start);
+        }
+    }
 
     /**
      * 
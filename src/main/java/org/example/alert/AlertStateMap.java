@@ -0,0 +1,49 @@
+package org.example.alert;
+
+import org.example.fleet.DeviceKeyTable;
+
+/**
+ *
+ * Português
+ *
+ * Mapa de {@code long} para a máscara de limiares armados de um dispositivo, sobre a mesma
+ * {@link DeviceKeyTable} de {@link org.example.fleet.DeviceLevelMap}, com valores {@code int}. Não é
+ * seguro para uso concorrente.
+ */
+
+/**
+ *
+ * English
+ *
+ * Map from {@code long} to the armed-threshold mask of a device, on the same {@link DeviceKeyTable} as
+ * {@link org.example.fleet.DeviceLevelMap}, with {@code int} values. Not safe for concurrent use.
+ */
+final class AlertStateMap extends DeviceKeyTable {
+
+    private int[] states;
+
+    AlertStateMap(final int expectedDevices) {
+        super(expectedDevices);
+        states = new int[capacity() + 1];
+    }
+
+    int get(final long deviceId, final int defaultState) {
+        final int slot = indexOf(deviceId);
+        return slot < 0 ? defaultState : states[slot];
+    }
+
+    void put(final long deviceId, final int state) {
+        final int slot = insert(deviceId);
+        states[slot] = state;
+    }
+
+    @Override
+    protected Object values() {
+        return states;
+    }
+
+    @Override
+    protected void values(final Object values) {
+        states = (int[]) values;
+    }
+}
@@ -0,0 +1,216 @@
+package org.example.alert;
+
+import org.example.BatteryMonitor;
+
+import java.util.List;
+
+/**
+ *
+ * Português
+ *
+ * Detecta cruzamentos de limiares de bateria (por exemplo, bateria baixa ou carga completa) à medida que
+ * os níveis são atualizados, sem reprocessar históricos.
+ *
+ * <p>Na construção, cada nível de 0 a 100 é mapeado para duas máscaras de bits: os limiares que disparam
+ * naquele nível e os que voltam a ser armados nele. Por dispositivo, guarda-se apenas a máscara dos
+ * limiares armados. Cada atualização custa duas leituras de tabela e algumas operações de bits,
+ * independentemente do número de limiares (até {@value #MAX_THRESHOLDS}); o listener só é chamado
+ * quando algum limiar dispara. Dispositivos desconhecidos começam armados para todos os limiares que não
+ * disparam na carga inicial padrão. Não é seguro para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Detects battery threshold crossings (for example, low battery or full charge) as levels are updated,
+ * without rescanning histories.
+ *
+ * <p>At construction, every level from 0 to 100 is mapped to two bit masks: the thresholds that fire at
+ * that level and the ones that are re-armed at it. Per device, only the mask of armed thresholds is kept.
+ * Each update costs two table reads and a few bit operations, regardless of the number of thresholds (up
+ * to {@value #MAX_THRESHOLDS}); the listener is only called when some threshold fires. Unknown devices
+ * start armed for every threshold that does not fire at the default initial charge. Not safe for
+ * concurrent use.</p>
+ */
+public class BatteryAlertEngine {
+
+    public static final int MAX_THRESHOLDS = Integer.SIZE;
+
+    private static final int LEVEL_COUNT = 101;
+
+    private final BatteryThreshold[] thresholds;
+    private final int[] fireMasks;
+    private final int[] rearmMasks;
+    private final int initialState;
+    private final BatteryAlertListener listener;
+    private final AlertStateMap states;
+
+    public BatteryAlertEngine(final List<BatteryThreshold> thresholds, final BatteryAlertListener listener) {
+        this(thresholds, listener, 0);
+    }
+
+    public BatteryAlertEngine(
+            final List<BatteryThreshold> thresholds,
+            final BatteryAlertListener listener,
+            final int expectedDevices
+    ) {
+        if (thresholds.size() > MAX_THRESHOLDS) {
+            throw new IllegalArgumentException("At most " + MAX_THRESHOLDS + " thresholds are supported: "
+                    + thresholds.size());
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Alert listener must not be null");
+        }
+
+        this.thresholds = thresholds.toArray(new BatteryThreshold[0]);
+        this.fireMasks = new int[LEVEL_COUNT];
+        this.rearmMasks = new int[LEVEL_COUNT];
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            for (int t = 0; t < this.thresholds.length; t++) {
+                if (this.thresholds[t].firesAt(level)) {
+                    fireMasks[level] |= 1 << t;
+                } else if (this.thresholds[t].rearmsAt(level)) {
+                    rearmMasks[level] |= 1 << t;
+                }
+            }
+        }
+        this.initialState = armedAt(BatteryMonitor.INITIAL_BATTERY_LEVEL);
+        this.listener = listener;
+        this.states = new AlertStateMap(expectedDevices);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Registra o novo nível de um dispositivo e notifica os limiares armados que ele dispara.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param level    nível da bateria após o evento (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Records the new level of a device and notifies the armed thresholds it fires.
+     *
+     * @param deviceId device identifier
+     * @param level    battery level after the event (0-100)
+     */
+    public void onLevel(final long deviceId, final int level) {
+        final int state = states.get(deviceId, initialState);
+        int fired = state & fireMasks[level];
+        final int next = (state & ~fired) | rearmMasks[level];
+        if (next != state) {
+            states.put(deviceId, next);
+        }
+
+        while (fired != 0) {
+            listener.onAlert(deviceId, thresholds[Integer.numberOfTrailingZeros(fired)], level);
+            fired &= fired - 1;
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Define o nível de um dispositivo sem disparar alertas, por exemplo ao restaurar um snapshot: os
+     * limiares que não disparam neste nível ficam armados.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param level    nível da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sets the level of a device without firing alerts, for example when restoring a snapshot: thresholds
+     * that do not fire at this level are armed.
+     *
+     * @param deviceId device identifier
+     * @param level    battery level (0-100)
+     */
+    public void restore(final long deviceId, final int level) {
+        states.put(deviceId, armedAt(level));
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Indica se um limiar está armado para um dispositivo.
+     *
+     * @param deviceId  identificador do dispositivo
+     * @param threshold posição do limiar na lista da construção
+     * @return {@code true} se o limiar pode disparar no próximo cruzamento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether a threshold is armed for a device.
+     *
+     * @param deviceId  device identifier
+     * @param threshold position of the threshold in the construction list
+     * @return {@code true} if the threshold can fire on the next crossing
+     */
+    public boolean isArmed(final long deviceId, final int threshold) {
+        if (threshold < 0 || threshold >= thresholds.length) {
+            throw new IndexOutOfBoundsException("Threshold " + threshold + " out of bounds for "
+                    + thresholds.length + " thresholds");
+        }
+        return (states.get(deviceId, initialState) & (1 << threshold)) != 0;
+    }
+
+    public List<BatteryThreshold> thresholds() {
+        return List.of(thresholds);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de dispositivos com estado de alerta registrado.
+     *
+     * @return número de dispositivos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of devices with recorded alert state.
+     *
+     * @return number of devices
+     */
+    public int deviceCount() {
+        return states.size();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Esquece o estado de todos os dispositivos, mantendo a capacidade alocada.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Forgets the state of every device, keeping the allocated capacity.
+     */
+    public void clear() {
+        states.clear();
+    }
+
+    private int armedAt(final int level) {
+        final int all = thresholds.length == MAX_THRESHOLDS ? -1 : (1 << thresholds.length) - 1;
+        return all & ~fireMasks[level];
+    }
+}
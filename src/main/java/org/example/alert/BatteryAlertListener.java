@@ -0,0 +1,43 @@
+package org.example.alert;
+
+/**
+ *
+ * Português
+ *
+ * Recebe os cruzamentos de limiar detectados por um {@link BatteryAlertEngine}. Para entregar os alertas
+ * a outra thread, a implementação pode simplesmente colocá-los em uma fila.
+ */
+
+/**
+ *
+ * English
+ *
+ * Receives the threshold crossings detected by a {@link BatteryAlertEngine}. To hand alerts over to
+ * another thread, the implementation can simply put them on a queue.
+ */
+@FunctionalInterface
+public interface BatteryAlertListener {
+
+    /**
+     *
+     * Português
+     *
+     * Recebe um cruzamento de limiar.
+     *
+     * @param deviceId  identificador do dispositivo
+     * @param threshold limiar cruzado
+     * @param level     nível da bateria que disparou o alerta (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Receives one threshold crossing.
+     *
+     * @param deviceId  device identifier
+     * @param threshold crossed threshold
+     * @param level     battery level that fired the alert (0-100)
+     */
+    void onAlert(long deviceId, BatteryThreshold threshold, int level);
+}
@@ -0,0 +1,178 @@
+package org.example.alert;
+
+/**
+ *
+ * Português
+ *
+ * Limiar de alerta com histerese.
+ *
+ * <p>Um limiar {@link ThresholdDirection#FALLING} dispara quando o nível fica menor ou igual a
+ * {@code level} e só volta a ser armado quando o nível passa de {@code level + hysteresis}. Um limiar
+ * {@link ThresholdDirection#RISING} dispara quando o nível fica maior ou igual a {@code level} e volta a
+ * ser armado abaixo de {@code level - hysteresis}. A histerese evita alertas repetidos quando o nível
+ * oscila em torno do limiar.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Alert threshold with hysteresis.
+ *
+ * <p>A {@link ThresholdDirection#FALLING} threshold fires when the level becomes less than or equal to
+ * {@code level} and is only re-armed once the level goes above {@code level + hysteresis}. A
+ * {@link ThresholdDirection#RISING} threshold fires when the level becomes greater than or equal to
+ * {@code level} and is re-armed below {@code level - hysteresis}. Hysteresis avoids repeated alerts
+ * when the level oscillates around the threshold.</p>
+ */
+public final class BatteryThreshold {
+
+    private final String name;
+    private final ThresholdDirection direction;
+    private final int level;
+    private final int hysteresis;
+
+    public BatteryThreshold(
+            final String name,
+            final ThresholdDirection direction,
+            final int level,
+            final int hysteresis
+    ) {
+        if (direction == null) {
+            throw new IllegalArgumentException("Threshold direction must not be null");
+        }
+        if (level < 0 || level > 100) {
+            throw new IllegalArgumentException("Threshold level must be between 0 and 100: " + level);
+        }
+        if (hysteresis < 0) {
+            throw new IllegalArgumentException("Hysteresis must not be negative: " + hysteresis);
+        }
+        this.name = name;
+        this.direction = direction;
+        this.level = level;
+        this.hysteresis = hysteresis;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um limiar que dispara quando o nível desce até {@code level}.
+     *
+     * @param name       nome do alerta
+     * @param level      nível do limiar (0-100)
+     * @param hysteresis pontos acima do limiar necessários para rearmar
+     * @return limiar descendente
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a threshold that fires when the level drops to {@code level}.
+     *
+     * @param name       alert name
+     * @param level      threshold level (0-100)
+     * @param hysteresis points above the threshold needed to re-arm
+     * @return falling threshold
+     */
+    public static BatteryThreshold falling(final String name, final int level, final int hysteresis) {
+        return new BatteryThreshold(name, ThresholdDirection.FALLING, level, hysteresis);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um limiar que dispara quando o nível sobe até {@code level}.
+     *
+     * @param name       nome do alerta
+     * @param level      nível do limiar (0-100)
+     * @param hysteresis pontos abaixo do limiar necessários para rearmar
+     * @return limiar ascendente
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a threshold that fires when the level rises to {@code level}.
+     *
+     * @param name       alert name
+     * @param level      threshold level (0-100)
+     * @param hysteresis points below the threshold needed to re-arm
+     * @return rising threshold
+     */
+    public static BatteryThreshold rising(final String name, final int level, final int hysteresis) {
+        return new BatteryThreshold(name, ThresholdDirection.RISING, level, hysteresis);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public ThresholdDirection direction() {
+        return direction;
+    }
+
+    public int level() {
+        return level;
+    }
+
+    public int hysteresis() {
+        return hysteresis;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Indica se um nível está na faixa em que o limiar dispara.
+     *
+     * @param batteryLevel nível da bateria (0-100)
+     * @return {@code true} se o limiar dispara neste nível
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether a level is in the band where the threshold fires.
+     *
+     * @param batteryLevel battery level (0-100)
+     * @return {@code true} if the threshold fires at this level
+     */
+    public boolean firesAt(final int batteryLevel) {
+        return direction == ThresholdDirection.FALLING ? batteryLevel <= level : batteryLevel >= level;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Indica se um nível está na faixa em que o limiar volta a ser armado.
+     *
+     * @param batteryLevel nível da bateria (0-100)
+     * @return {@code true} se o limiar é rearmado neste nível
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether a level is in the band where the threshold is re-armed.
+     *
+     * @param batteryLevel battery level (0-100)
+     * @return {@code true} if the threshold is re-armed at this level
+     */
+    public boolean rearmsAt(final int batteryLevel) {
+        return direction == ThresholdDirection.FALLING
+                ? batteryLevel > level + hysteresis
+                : batteryLevel < level - hysteresis;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + direction + " " + level + "%, hysteresis " + hysteresis + ")";
+    }
+}
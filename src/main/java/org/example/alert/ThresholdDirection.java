@@ -0,0 +1,47 @@
+package org.example.alert;
+
+/**
+ *
+ * Português
+ *
+ * Sentido em que um limiar de alerta é cruzado.
+ */
+
+/**
+ *
+ * English
+ *
+ * Direction in which an alert threshold is crossed.
+ */
+public enum ThresholdDirection {
+
+    /**
+     *
+     * Português
+     *
+     * Dispara quando o nível desce até o limiar (por exemplo, bateria baixa).
+     */
+
+    /**
+     *
+     * English
+     *
+     * Fires when the level drops to the threshold (for example, low battery).
+     */
+    FALLING,
+
+    /**
+     *
+     * Português
+     *
+     * Dispara quando o nível sobe até o limiar (por exemplo, carga completa).
+     */
+
+    /**
+     *
+     * English
+     *
+     * Fires when the level rises to the threshold (for example, full charge).
+     */
+    RISING
+}
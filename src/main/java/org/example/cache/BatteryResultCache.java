@@ -0,0 +1,339 @@
+package org.example.cache;
+
+import org.example.BatteryMonitor;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.rate.BatteryRateModel;
+import org.example.functions.rate.LinearRateModel;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Português
+ *
+ * Cache opcional de resultados de {@link BatteryMonitor#getBattery(int[])} para arrays repetidos ou que
+ * estendem arrays já avaliados.
+ *
+ * <p>Cada entrada associa um prefixo (comprimento e hash de 128 bits do conteúdo) ao nível da bateria ao
+ * fim dele. Além do resultado final, o nível é guardado a cada {@code checkpointInterval} eventos, de modo
+ * que um array que estende outro já visto retoma a avaliação a partir do maior prefixo em cache, sem
+ * nenhuma cooperação do chamador. O hash combina duas faixas independentes de 64 bits calculadas na mesma
+ * passada sobre o array; qualquer evento alterado muda a chave do prefixo que o contém. Para entradas não
+ * adversariais, a probabilidade de colisão de 128 bits com o mesmo comprimento é desprezível, e o conteúdo
+ * não é guardado nem comparado. O tamanho é limitado a {@code maxEntries}, com despejo LRU. Seguro para
+ * uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Opt-in cache of {@link BatteryMonitor#getBattery(int[])} results for arrays that repeat or extend
+ * arrays already evaluated.
+ *
+ * <p>Each entry maps a prefix (length and 128-bit content hash) to the battery level at its end. Besides
+ * the final result, the level is stored every {@code checkpointInterval} events, so an array extending one
+ * already seen resumes evaluation from its longest cached prefix, without any caller cooperation. The hash
+ * combines two independent 64-bit lanes computed in the same pass over the array; any changed event
+ * changes the key of every prefix containing it. For non-adversarial input, the chance of a 128-bit
+ * collision at the same length is negligible, and the content is neither stored nor compared. Size is
+ * bounded by {@code maxEntries}, with LRU eviction. Safe for concurrent use.</p>
+ */
+public class BatteryResultCache {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 4096;
+
+    private static final long SEED_A = 0x6A09E667F3BCC908L;
+    private static final long SEED_B = 0xBB67AE8584CAA73BL;
+    private static final long MULTIPLIER_A = 0x9E3779B97F4A7C15L;
+    private static final long MULTIPLIER_B = 0xC2B2AE3D27D4EB4FL;
+
+    private final BatteryRateModel rateModel;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+    private final int checkpointInterval;
+    private final Map<PrefixKey, Byte> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder prefixHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BatteryResultCache(final int maxEntries) {
+        this(new LinearRateModel(), maxEntries, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public BatteryResultCache(final BatteryRateModel rateModel, final int maxEntries) {
+        this(rateModel, maxEntries, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria o cache para o modelo de taxa informado.
+     *
+     * @param rateModel          modelo de taxa usado nas avaliações
+     * @param maxEntries         quantidade máxima de entradas (resultados e checkpoints)
+     * @param checkpointInterval eventos entre checkpoints de prefixo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the cache for the given rate model.
+     *
+     * @param rateModel          rate model used for evaluations
+     * @param maxEntries         maximum number of entries (results and checkpoints)
+     * @param checkpointInterval events between prefix checkpoints
+     */
+    public BatteryResultCache(final BatteryRateModel rateModel, final int maxEntries, final int checkpointInterval) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("checkpointInterval must be positive: " + checkpointInterval);
+        }
+        this.rateModel = rateModel;
+        this.levelUpdater = new BatteryLevelUpdater();
+        this.limitsApplier = new BatteryLimitsApplier();
+        this.checkpointInterval = checkpointInterval;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<PrefixKey, Byte> eldest) {
+                if (size() > maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o mesmo resultado de {@link BatteryMonitor#getBattery(int[])}, reutilizando resultados ou
+     * prefixos em cache quando possível.
+     *
+     * @param events array de eventos de carregamento/uso
+     * @return porcentagem final da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the same result as {@link BatteryMonitor#getBattery(int[])}, reusing cached results or
+     * prefixes when possible.
+     *
+     * @param events array of charging/usage events
+     * @return final battery percentage (0-100)
+     */
+    public int getBattery(final int[] events) {
+        final int checkpoints = events.length / checkpointInterval;
+        final long[] checkpointHashes = new long[2 * (checkpoints + 1)];
+        long hashA = SEED_A;
+        long hashB = SEED_B;
+        int untilCheckpoint = checkpointInterval;
+        int checkpoint = 0;
+        for (int i = 0; i < events.length; i++) {
+            hashA = (hashA ^ events[i]) * MULTIPLIER_A;
+            hashA ^= hashA >>> 29;
+            hashB = Long.rotateLeft((hashB + events[i]) * MULTIPLIER_B, 31);
+            if (--untilCheckpoint == 0) {
+                checkpoint++;
+                checkpointHashes[2 * checkpoint] = hashA;
+                checkpointHashes[2 * checkpoint + 1] = hashB;
+                untilCheckpoint = checkpointInterval;
+            }
+        }
+        final PrefixKey fullKey = new PrefixKey(events.length, hashA, hashB);
+
+        int resumeCheckpoint = 0;
+        int resumeLevel = BatteryMonitor.INITIAL_BATTERY_LEVEL;
+        synchronized (entries) {
+            final Byte cached = entries.get(fullKey);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            for (int k = checkpoints; k > 0; k--) {
+                final Byte level = entries.get(checkpointKey(k, checkpointHashes));
+                if (level != null) {
+                    resumeCheckpoint = k;
+                    resumeLevel = level;
+                    break;
+                }
+            }
+        }
+        if (resumeCheckpoint > 0) {
+            prefixHits.increment();
+        } else {
+            misses.increment();
+        }
+
+        final byte[] checkpointLevels = new byte[checkpoints + 1];
+        int currentBatteryLevel = resumeLevel;
+        untilCheckpoint = checkpointInterval;
+        checkpoint = resumeCheckpoint;
+        for (int i = resumeCheckpoint * checkpointInterval; i < events.length; i++) {
+            final int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, events[i]);
+            currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+            currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+            if (--untilCheckpoint == 0) {
+                checkpointLevels[++checkpoint] = (byte) currentBatteryLevel;
+                untilCheckpoint = checkpointInterval;
+            }
+        }
+
+        synchronized (entries) {
+            for (int k = resumeCheckpoint + 1; k <= checkpoints; k++) {
+                if (k * checkpointInterval != events.length) {
+                    entries.put(checkpointKey(k, checkpointHashes), checkpointLevels[k]);
+                }
+            }
+            entries.put(fullKey, (byte) currentBatteryLevel);
+        }
+        return currentBatteryLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna quantas chamadas encontraram o resultado completo em cache.
+     *
+     * @return acertos completos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns how many calls found the full result in the cache.
+     *
+     * @return full hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna quantas chamadas retomaram a avaliação a partir de um prefixo em cache.
+     *
+     * @return acertos de prefixo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns how many calls resumed evaluation from a cached prefix.
+     *
+     * @return prefix hits
+     */
+    public long prefixHits() {
+        return prefixHits.sum();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna quantas chamadas avaliaram o array desde o início.
+     *
+     * @return faltas
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns how many calls evaluated the array from the start.
+     *
+     * @return misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna quantas entradas foram despejadas por falta de espaço.
+     *
+     * @return despejos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns how many entries were evicted for lack of space.
+     *
+     * @return evictions
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade atual de entradas (resultados e checkpoints).
+     *
+     * @return número de entradas
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the current number of entries (results and checkpoints).
+     *
+     * @return number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Remove todas as entradas, mantendo os contadores.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Removes every entry, keeping the counters.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private PrefixKey checkpointKey(final int checkpoint, final long[] checkpointHashes) {
+        return new PrefixKey(checkpoint * checkpointInterval, checkpointHashes[2 * checkpoint],
+                checkpointHashes[2 * checkpoint + 1]);
+    }
+
+    private record PrefixKey(int length, long hashA, long hashB) {
+    }
+}
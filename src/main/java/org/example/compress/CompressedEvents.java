@@ -0,0 +1,344 @@
+package org.example.compress;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Português
+ *
+ * Contêiner imutável de eventos comprimidos com run-length e varint zigzag.
+ *
+ * <p>Cada sequência de eventos idênticos consecutivos vira um par (evento em varint zigzag, comprimento
+ * em varint sem sinal). Históricos com longas sequências de ticks de {@code -1} ou de eventos neutros
+ * ocupam poucos bytes por sequência em vez de 4 bytes por evento. Os eventos podem ser percorridos por
+ * sequência com {@link #reader()}, sem descomprimir o array, e é assim que
+ * {@link org.example.BatteryMonitor#getBattery(CompressedEvents)} os avalia.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Immutable container of events compressed with run-length and zigzag varint encoding.
+ *
+ * <p>Each run of consecutive identical events becomes a pair (event as zigzag varint, length as unsigned
+ * varint). Histories with long runs of {@code -1} ticks or neutral events take a few bytes per run
+ * instead of 4 bytes per event. Events can be traversed run by run through {@link #reader()}, without
+ * decompressing the array, which is how {@link org.example.BatteryMonitor#getBattery(CompressedEvents)}
+ * evaluates them.</p>
+ */
+public final class CompressedEvents {
+
+    private static final int MAX_RUN_SIZE = 10;
+
+    private final byte[] data;
+    private final int eventCount;
+    private final int runCount;
+
+    private CompressedEvents(final byte[] data, final int eventCount, final int runCount) {
+        this.data = data;
+        this.eventCount = eventCount;
+        this.runCount = runCount;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Comprime um array de eventos.
+     *
+     * @param events array de eventos de carregamento/uso
+     * @return eventos comprimidos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Compresses an events array.
+     *
+     * @param events array of charging/usage events
+     * @return compressed events
+     */
+    public static CompressedEvents encode(final int[] events) {
+        return encode(events, 0, events.length);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Comprime um trecho de um array de eventos.
+     *
+     * @param events array de eventos de carregamento/uso
+     * @param off    índice do primeiro evento
+     * @param len    quantidade de eventos
+     * @return eventos comprimidos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Compresses a slice of an events array.
+     *
+     * @param events array of charging/usage events
+     * @param off    index of the first event
+     * @param len    number of events
+     * @return compressed events
+     */
+    public static CompressedEvents encode(final int[] events, final int off, final int len) {
+        if (off < 0 || len < 0 || off > events.length - len) {
+            throw new IndexOutOfBoundsException("Invalid slice [" + off + ", " + (off + len) + ") of " + events.length);
+        }
+
+        byte[] data = new byte[Math.max(16, len / 4)];
+        int position = 0;
+        int runCount = 0;
+        int i = off;
+        final int end = off + len;
+        while (i < end) {
+            final int event = events[i];
+            int runEnd = i + 1;
+            while (runEnd < end && events[runEnd] == event) {
+                runEnd++;
+            }
+
+            if (data.length - position < MAX_RUN_SIZE) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            position = putUnsignedVarInt(data, position, (event << 1) ^ (event >> 31));
+            position = putUnsignedVarInt(data, position, runEnd - i);
+            runCount++;
+            i = runEnd;
+        }
+        return new CompressedEvents(Arrays.copyOf(data, position), len, runCount);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Descomprime todos os eventos em um novo array.
+     *
+     * @return array de eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Decompresses every event into a new array.
+     *
+     * @return events array
+     */
+    public int[] decode() {
+        final int[] events = new int[eventCount];
+        final Reader reader = reader();
+        int position = 0;
+        while (reader.next()) {
+            Arrays.fill(events, position, position + reader.runLength(), reader.event());
+            position += reader.runLength();
+        }
+        return events;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de eventos representados.
+     *
+     * @return número de eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of represented events.
+     *
+     * @return number of events
+     */
+    public int eventCount() {
+        return eventCount;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de sequências de eventos idênticos.
+     *
+     * @return número de sequências
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of runs of identical events.
+     *
+     * @return number of runs
+     */
+    public int runCount() {
+        return runCount;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o tamanho da representação comprimida, em bytes.
+     *
+     * @return bytes ocupados pelos dados comprimidos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the size of the compressed representation, in bytes.
+     *
+     * @return bytes taken by the compressed data
+     */
+    public int encodedSize() {
+        return data.length;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre um leitor que percorre as sequências em ordem.
+     *
+     * @return novo leitor posicionado antes da primeira sequência
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens a reader traversing the runs in order.
+     *
+     * @return new reader positioned before the first run
+     */
+    public Reader reader() {
+        return new Reader(data);
+    }
+
+    private static int putUnsignedVarInt(final byte[] data, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            data[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cursor sobre as sequências de um {@link CompressedEvents}. Não é seguro para uso concorrente.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Cursor over the runs of a {@link CompressedEvents}. Not safe for concurrent use.
+     */
+    public static final class Reader {
+
+        private final byte[] data;
+        private int position;
+        private int event;
+        private int runLength;
+
+        private Reader(final byte[] data) {
+            this.data = data;
+        }
+
+        /**
+         *
+         * Português
+         *
+         * Avança para a próxima sequência.
+         *
+         * @return {@code true} se havia outra sequência
+         */
+
+        /**
+         *
+         * English
+         *
+         * Advances to the next run.
+         *
+         * @return {@code true} if there was another run
+         */
+        public boolean next() {
+            if (position >= data.length) {
+                return false;
+            }
+            final int zigzag = readUnsignedVarInt();
+            event = (zigzag >>> 1) ^ -(zigzag & 1);
+            runLength = readUnsignedVarInt();
+            return true;
+        }
+
+        /**
+         *
+         * Português
+         *
+         * Retorna o evento repetido na sequência atual.
+         *
+         * @return evento
+         */
+
+        /**
+         *
+         * English
+         *
+         * Returns the event repeated in the current run.
+         *
+         * @return event
+         */
+        public int event() {
+            return event;
+        }
+
+        /**
+         *
+         * Português
+         *
+         * Retorna quantas vezes o evento se repete na sequência atual.
+         *
+         * @return comprimento da sequência (pelo menos 1)
+         */
+
+        /**
+         *
+         * English
+         *
+         * Returns how many times the event repeats in the current run.
+         *
+         * @return run length (at least 1)
+         */
+        public int runLength() {
+            return runLength;
+        }
+
+        private int readUnsignedVarInt() {
+            int value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = data[position++];
+                value |= (current & 0x7F) << shift;
+                shift += 7;
+            } while (current < 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package org.example.fleet;
+
+import org.example.BatteryMonitor;
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *
+ * Português
+ *
+ * Armazenamento de níveis por dispositivo, sem locks, para ingestão com vários produtores.
+ *
+ * <p>Cada atualização lê o nível, aplica {@code calculateBatteryChange} + {@code updateBatteryLevel} +
+ * {@code applyBatteryLimits} e publica o resultado com compare-and-set via {@link VarHandle} sobre um
+ * {@code int[]}, repetindo se outro produtor alterou o nível no meio. Os dispositivos ocupam slots de uma
+ * tabela de endereçamento aberto de capacidade fixa, reservados também por CAS. Com {@code padded}, cada
+ * nível ocupa sua própria linha de cache de 64 bytes, evitando false sharing entre dispositivos vizinhos
+ * atualizados por threads diferentes.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Lock-free per-device level store for multi-producer ingestion.
+ *
+ * <p>Each update reads the level, applies {@code calculateBatteryChange} + {@code updateBatteryLevel} +
+ * {@code applyBatteryLimits} and publishes the result with compare-and-set through a {@link VarHandle} on
+ * an {@code int[]}, retrying if another producer changed the level meanwhile. Devices take slots of a
+ * fixed-capacity open-addressing table, also claimed with CAS. With {@code padded}, each level sits on its
+ * own 64-byte cache line, avoiding false sharing between neighboring devices updated by different
+ * threads.</p>
+ */
+public class ConcurrentBatteryLevelStore {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle LEVELS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private static final long FREE_KEY = 0L;
+    private static final int PADDED_STRIDE = 64 / Integer.BYTES;
+
+    private final BatteryChangeCalculator changeCalculator;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+
+    private final long[] keys;
+    private final int[] levels;
+    private final int mask;
+    private final int zeroKeySlot;
+    private final int stride;
+    private final AtomicInteger deviceCount = new AtomicInteger();
+    private final AtomicBoolean zeroKeyUsed = new AtomicBoolean();
+
+    /**
+     *
+     * Português
+     *
+     * Cria o armazenamento para até {@code maxDevices} dispositivos.
+     *
+     * @param maxDevices quantidade máxima de dispositivos
+     * @param padded     {@code true} para isolar cada nível em sua própria linha de cache
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the store for up to {@code maxDevices} devices.
+     *
+     * @param maxDevices maximum number of devices
+     * @param padded     {@code true} to isolate each level on its own cache line
+     */
+    public ConcurrentBatteryLevelStore(final int maxDevices, final boolean padded) {
+        if (maxDevices <= 0) {
+            throw new IllegalArgumentException("maxDevices must be positive: " + maxDevices);
+        }
+        this.changeCalculator = new BatteryChangeCalculator();
+        this.levelUpdater = new BatteryLevelUpdater();
+        this.limitsApplier = new BatteryLimitsApplier();
+
+        final int capacity = Integer.highestOneBit(Math.max(2, maxDevices * 2) - 1) << 1;
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+        this.zeroKeySlot = capacity;
+        this.stride = padded ? PADDED_STRIDE : 1;
+        this.levels = new int[Math.multiplyExact(capacity + 1, stride)];
+        Arrays.fill(levels, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Aplica um evento a um dispositivo de forma atômica.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento (positivo carrega, negativo consome)
+     * @return nível do dispositivo logo após este evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Atomically applies one event to a device.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration (positive charges, negative drains)
+     * @return level of the device right after this event
+     */
+    public int apply(final long deviceId, final int event) {
+        final int index = claimSlot(deviceId) * stride;
+        final int batteryChange = changeCalculator.calculateBatteryChange(event);
+
+        int current = (int) LEVELS.getVolatile(levels, index);
+        while (true) {
+            final int next = limitsApplier.applyBatteryLimits(levelUpdater.updateBatteryLevel(current, batteryChange));
+            final int witness = (int) LEVELS.compareAndExchange(levels, index, current, next);
+            if (witness == current) {
+                return next;
+            }
+            current = witness;
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível atual de um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @return nível atual, ou a carga inicial se o dispositivo nunca recebeu eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the current level of a device.
+     *
+     * @param deviceId device identifier
+     * @return current level, or the initial charge if the device never received events
+     */
+    public int level(final long deviceId) {
+        final int slot = findSlot(deviceId);
+        return slot < 0 ? BatteryMonitor.INITIAL_BATTERY_LEVEL : (int) LEVELS.getVolatile(levels, slot * stride);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de dispositivos que já receberam eventos.
+     *
+     * @return número de dispositivos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of devices that have received events.
+     *
+     * @return number of devices
+     */
+    public int deviceCount() {
+        return deviceCount.get();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Percorre os níveis de todos os dispositivos conhecidos. Atualizações concorrentes podem ou não ser
+     * vistas.
+     *
+     * @param consumer consumidor dos pares (dispositivo, nível)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Iterates over the levels of all known devices. Concurrent updates may or may not be observed.
+     *
+     * @param consumer consumer of (device, level) pairs
+     */
+    public void forEachDevice(final DeviceLevelConsumer consumer) {
+        if (zeroKeyUsed.get()) {
+            consumer.accept(FREE_KEY, (int) LEVELS.getVolatile(levels, zeroKeySlot * stride));
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            final long key = (long) KEYS.getVolatile(keys, slot);
+            if (key != FREE_KEY) {
+                consumer.accept(key, (int) LEVELS.getVolatile(levels, slot * stride));
+            }
+        }
+    }
+
+    private int findSlot(final long deviceId) {
+        if (deviceId == FREE_KEY) {
+            return zeroKeyUsed.get() ? zeroKeySlot : -1;
+        }
+        int slot = hash(deviceId);
+        for (int probes = 0; probes < keys.length; probes++) {
+            final long key = (long) KEYS.getVolatile(keys, slot);
+            if (key == deviceId) {
+                return slot;
+            }
+            if (key == FREE_KEY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int claimSlot(final long deviceId) {
+        if (deviceId == FREE_KEY) {
+            if (!zeroKeyUsed.get() && zeroKeyUsed.compareAndSet(false, true)) {
+                deviceCount.incrementAndGet();
+            }
+            return zeroKeySlot;
+        }
+
+        int slot = hash(deviceId);
+        for (int probes = 0; probes < keys.length; probes++) {
+            long key = (long) KEYS.getVolatile(keys, slot);
+            if (key == FREE_KEY) {
+                key = (long) KEYS.compareAndExchange(keys, slot, FREE_KEY, deviceId);
+                if (key == FREE_KEY) {
+                    deviceCount.incrementAndGet();
+                    return slot;
+                }
+            }
+            if (key == deviceId) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw new IllegalStateException("Store capacity exceeded: " + deviceCount.get() + " devices");
+    }
+
+    private int hash(final long deviceId) {
+        long hash = deviceId;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+}
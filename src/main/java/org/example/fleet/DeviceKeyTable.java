@@ -0,0 +1,224 @@
+package org.example.fleet;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ *
+ * Português
+ *
+ * Base dos mapas de endereçamento aberto (sondagem linear) indexados por identificador de dispositivo
+ * {@code long}, com os valores em um array primitivo paralelo mantido pela subclasse.
+ *
+ * <p>A tabela cuida das chaves, da sondagem e do redimensionamento; a subclasse só expõe seu array de
+ * valores, com {@code capacity() + 1} posições. A chave {@code 0} marca slots livres e, quando presente,
+ * guarda o valor na última posição. A capacidade é limitada a {@link #MAX_CAPACITY} slots, de modo que
+ * {@code expectedDevices} acima de {@link #MAX_EXPECTED_DEVICES} é rejeitado na construção e inserções
+ * além desse limite lançam {@link IllegalStateException}. Não é segura para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Base of the open-addressing (linear probing) maps keyed by {@code long} device id, with values in a
+ * parallel primitive array held by the subclass.
+ *
+ * <p>The table handles keys, probing and resizing; the subclass only exposes its value array, with
+ * {@code capacity() + 1} positions. Key {@code 0} marks free slots and, when present, keeps its value in
+ * the last position. Capacity is capped at {@link #MAX_CAPACITY} slots, so {@code expectedDevices} above
+ * {@link #MAX_EXPECTED_DEVICES} is rejected on construction and inserts past that limit throw
+ * {@link IllegalStateException}. Not safe for concurrent use.</p>
+ */
+public abstract class DeviceKeyTable {
+
+    public static final int MAX_CAPACITY = 1 << 30;
+    public static final int MAX_EXPECTED_DEVICES = (int) (MAX_CAPACITY * 0.75f);
+
+    private static final long FREE_KEY = 0L;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+    private boolean hasFreeKey;
+
+    protected DeviceKeyTable(final int expectedDevices) {
+        if (expectedDevices < 0 || expectedDevices > MAX_EXPECTED_DEVICES) {
+            throw new IllegalArgumentException(
+                    "expectedDevices must be between 0 and " + MAX_EXPECTED_DEVICES + ": " + expectedDevices);
+        }
+        final int minimum = Math.max(DEFAULT_CAPACITY, (int) Math.ceil(expectedDevices / (double) LOAD_FACTOR));
+        allocateKeys(Integer.highestOneBit(minimum - 1) << 1);
+    }
+
+    protected DeviceKeyTable(final DeviceKeyTable source) {
+        keys = source.keys.clone();
+        mask = source.mask;
+        size = source.size;
+        resizeThreshold = source.resizeThreshold;
+        hasFreeKey = source.hasFreeKey;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de dispositivos armazenados.
+     *
+     * @return número de dispositivos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of stored devices.
+     *
+     * @return number of devices
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Remove todos os dispositivos, mantendo a capacidade alocada.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Removes all devices, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        size = 0;
+        hasFreeKey = false;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o array primitivo de valores da subclasse, com {@code capacity() + 1} posições.
+     *
+     * @return array de valores atual
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the subclass's primitive value array, with {@code capacity() + 1} positions.
+     *
+     * @return current value array
+     */
+    protected abstract Object values();
+
+    /**
+     *
+     * Português
+     *
+     * Substitui o array de valores da subclasse após um redimensionamento.
+     *
+     * @param values novo array de valores, do mesmo tipo do atual
+     */
+
+    /**
+     *
+     * English
+     *
+     * Replaces the subclass's value array after a resize.
+     *
+     * @param values new value array, of the same type as the current one
+     */
+    protected abstract void values(Object values);
+
+    protected final int capacity() {
+        return keys.length;
+    }
+
+    protected final boolean isOccupied(final int slot) {
+        return slot == keys.length ? hasFreeKey : keys[slot] != FREE_KEY;
+    }
+
+    protected final long keyAt(final int slot) {
+        return slot == keys.length ? FREE_KEY : keys[slot];
+    }
+
+    protected final int indexOf(final long deviceId) {
+        if (deviceId == FREE_KEY) {
+            return hasFreeKey ? keys.length : -1;
+        }
+        final int slot = probe(deviceId);
+        return keys[slot] == deviceId ? slot : -1;
+    }
+
+    protected final int insert(final long deviceId) {
+        if (deviceId == FREE_KEY) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                size++;
+            }
+            return keys.length;
+        }
+
+        int slot = probe(deviceId);
+        if (keys[slot] == deviceId) {
+            return slot;
+        }
+        if (size + 1 >= resizeThreshold) {
+            resize(keys.length << 1);
+            slot = probe(deviceId);
+        }
+        keys[slot] = deviceId;
+        size++;
+        return slot;
+    }
+
+    private int probe(final long deviceId) {
+        long hash = deviceId;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        int slot = (int) hash & mask;
+        long key;
+        while ((key = keys[slot]) != FREE_KEY && key != deviceId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void allocateKeys(final int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize(final int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalStateException("Device table is full: " + size + " devices");
+        }
+        final long[] oldKeys = keys;
+        final Object oldValues = values();
+        final Object newValues = Array.newInstance(oldValues.getClass().getComponentType(), capacity + 1);
+        allocateKeys(capacity);
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            final long key = oldKeys[i];
+            if (key != FREE_KEY) {
+                final int slot = probe(key);
+                keys[slot] = key;
+                System.arraycopy(oldValues, i, newValues, slot, 1);
+            }
+        }
+        System.arraycopy(oldValues, oldKeys.length, newValues, capacity, 1);
+        values(newValues);
+    }
+}
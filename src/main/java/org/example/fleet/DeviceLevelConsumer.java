@@ -0,0 +1,39 @@
+package org.example.fleet;
+
+/**
+ *
+ * Português
+ *
+ * Consumidor primitivo de pares (dispositivo, nível), evitando boxing ao percorrer a frota.
+ */
+
+/**
+ *
+ * English
+ *
+ * Primitive consumer of (device, level) pairs, avoiding boxing while iterating the fleet.
+ */
+@FunctionalInterface
+public interface DeviceLevelConsumer {
+
+    /**
+     *
+     * Português
+     *
+     * Recebe o nível de um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param level    nível da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Receives the level of one device.
+     *
+     * @param deviceId device identifier
+     * @param level    battery level (0-100)
+     */
+    void accept(long deviceId, int level);
+}
@@ -0,0 +1,171 @@
+package org.example.fleet;
+
+/**
+ *
+ * Português
+ *
+ * Mapa de endereçamento aberto (sondagem linear) de {@code long} para nível de bateria em {@code byte}.
+ *
+ * <p>Usa apenas dois arrays primitivos, sem objetos por entrada nem boxing: cerca de 9 bytes por slot.
+ * A sondagem e os limites de capacidade vêm de {@link DeviceKeyTable}. Não é segura para uso
+ * concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Open-addressing (linear probing) map from {@code long} to a {@code byte} battery level.
+ *
+ * <p>It uses only two primitive arrays, with no per-entry objects or boxing: about 9 bytes per slot.
+ * Probing and capacity limits come from {@link DeviceKeyTable}. Not safe for concurrent use.</p>
+ */
+public class DeviceLevelMap extends DeviceKeyTable {
+
+    private static final int DEFAULT_EXPECTED_DEVICES = 12;
+
+    private byte[] levels;
+
+    public DeviceLevelMap() {
+        this(DEFAULT_EXPECTED_DEVICES);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria o mapa dimensionado para a quantidade esperada de dispositivos.
+     *
+     * @param expectedDevices dispositivos esperados, até {@link DeviceKeyTable#MAX_EXPECTED_DEVICES}
+     * @throws IllegalArgumentException se a quantidade for negativa ou grande demais
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the map sized for the expected number of devices.
+     *
+     * @param expectedDevices expected devices, up to {@link DeviceKeyTable#MAX_EXPECTED_DEVICES}
+     * @throws IllegalArgumentException if the number is negative or too large
+     */
+    public DeviceLevelMap(final int expectedDevices) {
+        super(expectedDevices);
+        levels = new byte[capacity() + 1];
+    }
+
+    private DeviceLevelMap(final DeviceLevelMap source) {
+        super(source);
+        levels = source.levels.clone();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível de um dispositivo ou o valor padrão se ele ainda não existir.
+     *
+     * @param deviceId     identificador do dispositivo
+     * @param defaultLevel valor retornado para dispositivos desconhecidos
+     * @return nível armazenado ou {@code defaultLevel}
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the level of a device, or the default value if it does not exist yet.
+     *
+     * @param deviceId     device identifier
+     * @param defaultLevel value returned for unknown devices
+     * @return stored level or {@code defaultLevel}
+     */
+    public int get(final long deviceId, final int defaultLevel) {
+        final int slot = indexOf(deviceId);
+        return slot < 0 ? defaultLevel : levels[slot];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Armazena o nível de um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param level    nível da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Stores the level of a device.
+     *
+     * @param deviceId device identifier
+     * @param level    battery level (0-100)
+     */
+    public void put(final long deviceId, final int level) {
+        final int slot = insert(deviceId);
+        levels[slot] = (byte) level;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Percorre todos os dispositivos armazenados, em ordem não especificada.
+     *
+     * @param consumer consumidor dos pares (dispositivo, nível)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Iterates over all stored devices, in unspecified order.
+     *
+     * @param consumer consumer of (device, level) pairs
+     */
+    public void forEach(final DeviceLevelConsumer consumer) {
+        final int capacity = capacity();
+        if (isOccupied(capacity)) {
+            consumer.accept(keyAt(capacity), levels[capacity]);
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            if (isOccupied(slot)) {
+                consumer.accept(keyAt(slot), levels[slot]);
+            }
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria uma cópia independente do mapa com duas cópias em bloco dos arrays, sem reinserir as entradas.
+     *
+     * @return cópia com os mesmos dispositivos e níveis
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates an independent copy of the map with two bulk array copies, without reinserting the entries.
+     *
+     * @return copy with the same devices and levels
+     */
+    public DeviceLevelMap copy() {
+        return new DeviceLevelMap(this);
+    }
+
+    @Override
+    protected Object values() {
+        return levels;
+    }
+
+    @Override
+    protected void values(final Object values) {
+        levels = (byte[]) values;
+    }
+}
@@ -0,0 +1,236 @@
+package org.example.fleet;
+
+import org.example.BatteryMonitor;
+import org.example.alert.BatteryAlertEngine;
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+/**
+ *
+ * Português
+ *
+ * Motor de bateria para uma frota de dispositivos com estado primitivo.
+ *
+ * <p>Em vez de um {@link BatteryMonitor} por dispositivo, mantém os níveis em um {@link DeviceLevelMap}
+ * ({@code long} → {@code byte}) e compartilha uma única instância de cada regra. Dispositivos ainda
+ * não vistos começam na carga inicial padrão. Um {@link BatteryAlertEngine} opcional recebe cada novo
+ * nível para detectar cruzamentos de limiares. Não é seguro para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Battery engine for a fleet of devices with primitive state.
+ *
+ * <p>Instead of one {@link BatteryMonitor} per device, it keeps levels in a {@link DeviceLevelMap}
+ * ({@code long} → {@code byte}) and shares a single instance of each rule. Devices not seen yet
+ * start at the default initial charge. An optional {@link BatteryAlertEngine} receives every new level
+ * to detect threshold crossings. Not safe for concurrent use.</p>
+ */
+public class FleetBatteryEngine {
+
+    private final BatteryChangeCalculator changeCalculator;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+    private final DeviceLevelMap levels;
+    private final BatteryAlertEngine alerts;
+
+    public FleetBatteryEngine() {
+        this(0);
+    }
+
+    public FleetBatteryEngine(final int expectedDevices) {
+        this(expectedDevices, null);
+    }
+
+    public FleetBatteryEngine(final int expectedDevices, final BatteryAlertEngine alerts) {
+        this.changeCalculator = new BatteryChangeCalculator();
+        this.levelUpdater = new BatteryLevelUpdater();
+        this.limitsApplier = new BatteryLimitsApplier();
+        this.levels = new DeviceLevelMap(expectedDevices);
+        this.alerts = alerts;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Aplica um evento a um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento (positivo carrega, negativo consome)
+     * @return novo nível do dispositivo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Applies one event to a device.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration (positive charges, negative drains)
+     * @return new level of the device
+     */
+    public int apply(final long deviceId, final int event) {
+        int level = levels.get(deviceId, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+        int batteryChange = changeCalculator.calculateBatteryChange(event);
+        level = levelUpdater.updateBatteryLevel(level, batteryChange);
+        level = limitsApplier.applyBatteryLimits(level);
+        levels.put(deviceId, level);
+        if (alerts != null) {
+            alerts.onLevel(deviceId, level);
+        }
+        return level;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Aplica um lote de pares (dispositivo, evento) em ordem.
+     *
+     * @param deviceIds identificadores dos dispositivos
+     * @param events    eventos correspondentes a cada dispositivo
+     * @param off       posição inicial nos dois arrays
+     * @param len       quantidade de pares
+     */
+
+    /**
+     *
+     * English
+     *
+     * Applies a batch of (device, event) pairs in order.
+     *
+     * @param deviceIds device identifiers
+     * @param events    events matching each device
+     * @param off       start position in both arrays
+     * @param len       number of pairs
+     */
+    public void applyBatch(final long[] deviceIds, final int[] events, final int off, final int len) {
+        if (off < 0 || len < 0 || off > deviceIds.length - len || off > events.length - len) {
+            throw new IndexOutOfBoundsException("Batch [" + off + ", " + off + " + " + len + ") out of bounds");
+        }
+
+        for (int i = off, end = off + len; i < end; i++) {
+            apply(deviceIds[i], events[i]);
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível atual de um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @return nível atual, ou a carga inicial se o dispositivo nunca recebeu eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the current level of a device.
+     *
+     * @param deviceId device identifier
+     * @return current level, or the initial charge if the device never received events
+     */
+    public int level(final long deviceId) {
+        return levels.get(deviceId, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Define diretamente o nível de um dispositivo, por exemplo ao restaurar um snapshot.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param level    nível da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sets the level of a device directly, for example when restoring a snapshot.
+     *
+     * @param deviceId device identifier
+     * @param level    battery level (0-100)
+     */
+    public void restore(final long deviceId, final int level) {
+        final int clamped = limitsApplier.applyBatteryLimits(level);
+        levels.put(deviceId, clamped);
+        if (alerts != null) {
+            alerts.restore(deviceId, clamped);
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de dispositivos que já receberam eventos.
+     *
+     * @return número de dispositivos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of devices that have received events.
+     *
+     * @return number of devices
+     */
+    public int deviceCount() {
+        return levels.size();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Percorre os níveis de todos os dispositivos conhecidos.
+     *
+     * @param consumer consumidor dos pares (dispositivo, nível)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Iterates over the levels of all known devices.
+     *
+     * @param consumer consumer of (device, level) pairs
+     */
+    public void forEachDevice(final DeviceLevelConsumer consumer) {
+        levels.forEach(consumer);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna uma cópia dos níveis atuais, que pode ser lida em outra thread enquanto o motor continua
+     * recebendo eventos.
+     *
+     * @return cópia independente dos níveis
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns a copy of the current levels, which can be read on another thread while the engine keeps
+     * receiving events.
+     *
+     * @return independent copy of the levels
+     */
+    public DeviceLevelMap copyLevels() {
+        return levels.copy();
+    }
+}
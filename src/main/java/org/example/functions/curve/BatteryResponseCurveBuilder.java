@@ -0,0 +1,199 @@
+package org.example.functions.curve;
+
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.rate.BatteryRateModel;
+import org.example.functions.transform.BatteryTransformComposer;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Português
+ *
+ * Calcula, em uma única passagem pelos eventos, o nível final para cada nível inicial possível (a "curva
+ * de resposta" do histórico).
+ *
+ * <p>Com o modelo linear, os eventos são compostos em uma única transformação "somar e limitar" (veja
+ * {@link BatteryTransformComposer}) que é aplicada aos 101 níveis no final. Um evento cuja variação
+ * poderia causar overflow de {@code int} não cabe nesse formato: a transformação acumulada é aplicada à
+ * curva, o evento é aplicado nível a nível e a composição recomeça.</p>
+ *
+ * <p>Com modelos não lineares, os níveis iniciais são avançados juntos, evento a evento; a cada 64 eventos
+ * os níveis iniciais que chegaram ao mesmo valor passam a compartilhar uma única posição. Como os
+ * limites de 0% e 100% fazem os níveis convergirem, o trabalho por evento costuma cair para poucos
+ * níveis logo no início do histórico.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Computes, in a single pass over the events, the final level for every possible initial level (the
+ * history's "response curve").
+ *
+ * <p>With the linear model, events are composed into a single "add then clamp" transform (see
+ * {@link BatteryTransformComposer}) that is applied to the 101 levels at the end. An event whose change
+ * could overflow an {@code int} does not fit that shape: the accumulated transform is applied to the
+ * curve, the event is applied level by level and composition starts over.</p>
+ *
+ * <p>With non-linear models, the initial levels are advanced together, event by event; every 64 events
+ * initial levels that reached the same value start sharing a single slot. Since the 0% and 100% limits
+ * make levels converge, per-event work usually drops to a few levels early in the history.</p>
+ */
+public class BatteryResponseCurveBuilder {
+
+    private static final int MERGE_INTERVAL_MASK = 63;
+
+    private final BatteryRateModel rateModel;
+    private final BatteryChangeCalculator changeCalculator;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+    private final BatteryTransformComposer composer;
+
+    private final int minBattery;
+    private final int maxBattery;
+
+    public BatteryResponseCurveBuilder(
+            final BatteryRateModel rateModel,
+            final BatteryChangeCalculator changeCalculator,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier,
+            final BatteryTransformComposer composer
+    ) {
+        this.rateModel = rateModel;
+        this.changeCalculator = changeCalculator;
+        this.levelUpdater = levelUpdater;
+        this.limitsApplier = limitsApplier;
+        this.composer = composer;
+        this.minBattery = limitsApplier.applyBatteryLimits(Integer.MIN_VALUE);
+        this.maxBattery = limitsApplier.applyBatteryLimits(Integer.MAX_VALUE);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de níveis iniciais da curva (101 para os limites de 0% a 100%).
+     *
+     * @return tamanho da curva
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of initial levels of the curve (101 for the 0% to 100% limits).
+     *
+     * @return curve length
+     */
+    public int curveLength() {
+        return maxBattery - minBattery + 1;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava a curva de resposta dos eventos {@code [from, to)} em
+     * {@code curve[curveOffset + nivelInicial - minimo]}.
+     *
+     * @param events      array de eventos de carregamento/uso
+     * @param from        índice inicial (inclusivo)
+     * @param to          índice final (exclusivo)
+     * @param curve       saída: nível final para cada nível inicial
+     * @param curveOffset posição da curva no array de saída
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes the response curve of events {@code [from, to)} into
+     * {@code curve[curveOffset + initialLevel - minimum]}.
+     *
+     * @param events      array of charging/usage events
+     * @param from        start index (inclusive)
+     * @param to          end index (exclusive)
+     * @param curve       output: final level for each initial level
+     * @param curveOffset position of the curve in the output array
+     */
+    public void fill(final int[] events, final int from, final int to, final int[] curve, final int curveOffset) {
+        if (rateModel.isLinear()) {
+            fillComposed(events, from, to, curve, curveOffset);
+        } else {
+            fillLockstep(events, from, to, curve, curveOffset);
+        }
+    }
+
+    private void fillComposed(final int[] events, final int from, final int to, final int[] curve, final int off) {
+        final int length = curveLength();
+        for (int s = 0; s < length; s++) {
+            curve[off + s] = minBattery + s;
+        }
+
+        int transform = composer.identity();
+        for (int i = from; i < to; i++) {
+            final int change = changeCalculator.calculateBatteryChange(events[i]);
+            if (change > Integer.MAX_VALUE - maxBattery) {
+                for (int s = 0; s < length; s++) {
+                    final int level = composer.apply(transform, curve[off + s]);
+                    curve[off + s] = limitsApplier.applyBatteryLimits(levelUpdater.updateBatteryLevel(level, change));
+                }
+                transform = composer.identity();
+            } else {
+                transform = composer.compose(transform, composer.fromChange(change));
+            }
+        }
+
+        for (int s = 0; s < length; s++) {
+            curve[off + s] = composer.apply(transform, curve[off + s]);
+        }
+    }
+
+    private void fillLockstep(final int[] events, final int from, final int to, final int[] curve, final int off) {
+        final int length = curveLength();
+        final int[] slotOf = new int[length];
+        int[] values = new int[length];
+        int[] merged = new int[length];
+        final int[] slotOfValue = new int[length];
+        for (int s = 0; s < length; s++) {
+            slotOf[s] = s;
+            values[s] = minBattery + s;
+        }
+
+        int count = length;
+        for (int i = from; i < to; i++) {
+            final int event = events[i];
+            for (int k = 0; k < count; k++) {
+                final int batteryChange = rateModel.calculateBatteryChange(values[k], event);
+                final int level = levelUpdater.updateBatteryLevel(values[k], batteryChange);
+                values[k] = limitsApplier.applyBatteryLimits(level);
+            }
+
+            if (count > 1 && ((i - from) & MERGE_INTERVAL_MASK) == MERGE_INTERVAL_MASK) {
+                Arrays.fill(slotOfValue, -1);
+                int mergedCount = 0;
+                for (int k = 0; k < count; k++) {
+                    final int value = values[k] - minBattery;
+                    if (slotOfValue[value] < 0) {
+                        slotOfValue[value] = mergedCount;
+                        merged[mergedCount++] = values[k];
+                    }
+                }
+                for (int s = 0; s < length; s++) {
+                    slotOf[s] = slotOfValue[values[slotOf[s]] - minBattery];
+                }
+                final int[] swap = values;
+                values = merged;
+                merged = swap;
+                count = mergedCount;
+            }
+        }
+
+        for (int s = 0; s < length; s++) {
+            curve[off + s] = values[slotOf[s]];
+        }
+    }
+}
@@ -15,8 +15,8 @@ package org.example.functions.limits;
  */
 public class BatteryLimitsApplier {
 
-    private static final int MIN_BATTERY = 0;
-    private static final int MAX_BATTERY = 100;
+    public static final int MIN_BATTERY = 0;
+    public static final int MAX_BATTERY = 100;
 
     /**
      *
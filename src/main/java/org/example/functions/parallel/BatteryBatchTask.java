@@ -0,0 +1,179 @@
+package org.example.functions.parallel;
+
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.rate.BatteryRateModel;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * Português
+ *
+ * Tarefa fork/join que avalia muitos arrays de eventos armazenados em formato CSR (eventos concatenados e
+ * um array de deslocamentos), gravando o nível final de cada dispositivo.
+ *
+ * <p>O intervalo de dispositivos é dividido pelo dispositivo onde a soma de eventos chega à metade, e não
+ * pela metade da quantidade de dispositivos, até atingir {@link #SEQUENTIAL_THRESHOLD} eventos ou um
+ * único dispositivo. Assim, poucos dispositivos com históricos longos e muitos com históricos curtos
+ * geram folhas de custo parecido. Cada folha percorre os dispositivos em ordem, lendo os eventos de forma
+ * contígua.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Fork/join task evaluating many event arrays stored in CSR form (concatenated events plus an offsets
+ * array), writing the final level of each device.
+ *
+ * <p>The device range is split at the device where the running event count reaches half, not at half
+ * the device count, until it reaches {@link #SEQUENTIAL_THRESHOLD} events or a single device. This way,
+ * a few devices with long histories and many with short ones produce leaves of similar cost. Each leaf
+ * walks its devices in order, reading events contiguously.</p>
+ */
+public class BatteryBatchTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Português
+     *
+     * Quantidade de eventos abaixo da qual o intervalo de dispositivos não é mais dividido. */
+
+    /**
+     * English
+     *
+     * Number of events below which the device range is not split any further. */
+
+    public static final int SEQUENTIAL_THRESHOLD = 1 << 15;
+
+    private final transient BatteryRateModel rateModel;
+    private final transient BatteryLevelUpdater levelUpdater;
+    private final transient BatteryLimitsApplier limitsApplier;
+    private final int initialLevel;
+    private final int[] events;
+    private final int[] offsets;
+    private final int[] levels;
+    private final int fromDevice;
+    private final int toDevice;
+
+    /**
+     *
+     * Português
+     *
+     * Cria a tarefa para os dispositivos {@code [fromDevice, toDevice)}.
+     *
+     * @param rateModel     modelo de taxa de carga/consumo
+     * @param levelUpdater  atualizador do nível
+     * @param limitsApplier aplicador dos limites
+     * @param initialLevel  nível inicial de cada dispositivo
+     * @param events        eventos de todos os dispositivos, concatenados
+     * @param offsets       início dos eventos de cada dispositivo, seguido do fim do último
+     * @param levels        saída: nível final de cada dispositivo
+     * @param fromDevice    primeiro dispositivo (inclusivo)
+     * @param toDevice      último dispositivo (exclusivo)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the task for devices {@code [fromDevice, toDevice)}.
+     *
+     * @param rateModel     charge/drain rate model
+     * @param levelUpdater  level updater
+     * @param limitsApplier limits applier
+     * @param initialLevel  initial level of every device
+     * @param events        events of every device, concatenated
+     * @param offsets       start of each device's events, followed by the end of the last one
+     * @param levels        output: final level of each device
+     * @param fromDevice    first device (inclusive)
+     * @param toDevice      last device (exclusive)
+     */
+    public BatteryBatchTask(
+            final BatteryRateModel rateModel,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier,
+            final int initialLevel,
+            final int[] events,
+            final int[] offsets,
+            final int[] levels,
+            final int fromDevice,
+            final int toDevice
+    ) {
+        this.rateModel = rateModel;
+        this.levelUpdater = levelUpdater;
+        this.limitsApplier = limitsApplier;
+        this.initialLevel = initialLevel;
+        this.events = events;
+        this.offsets = offsets;
+        this.levels = levels;
+        this.fromDevice = fromDevice;
+        this.toDevice = toDevice;
+    }
+
+    @Override
+    protected void compute() {
+        final int firstEvent = offsets[fromDevice];
+        final int eventCount = offsets[toDevice] - firstEvent;
+        if (toDevice - fromDevice <= 1 || eventCount <= SEQUENTIAL_THRESHOLD) {
+            evaluateRange(fromDevice, toDevice);
+            return;
+        }
+
+        final int middle = splitDevice(firstEvent + (eventCount >>> 1));
+        invokeAll(
+                new BatteryBatchTask(rateModel, levelUpdater, limitsApplier, initialLevel,
+                        events, offsets, levels, fromDevice, middle),
+                new BatteryBatchTask(rateModel, levelUpdater, limitsApplier, initialLevel,
+                        events, offsets, levels, middle, toDevice)
+        );
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Avalia sequencialmente os dispositivos {@code [from, to)}.
+     *
+     * @param from primeiro dispositivo (inclusivo)
+     * @param to   último dispositivo (exclusivo)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sequentially evaluates devices {@code [from, to)}.
+     *
+     * @param from first device (inclusive)
+     * @param to   last device (exclusive)
+     */
+    public void evaluateRange(final int from, final int to) {
+        for (int device = from; device < to; device++) {
+            int currentBatteryLevel = initialLevel;
+            final int end = offsets[device + 1];
+            for (int i = offsets[device]; i < end; i++) {
+                final int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, events[i]);
+                currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+                currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+            }
+            levels[device] = currentBatteryLevel;
+        }
+    }
+
+    private int splitDevice(final int targetEvent) {
+        int low = fromDevice + 1;
+        int high = toDevice - 1;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (offsets[middle] < targetEvent) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
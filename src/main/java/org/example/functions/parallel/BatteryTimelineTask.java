@@ -0,0 +1,115 @@
+package org.example.functions.parallel;
+
+import org.example.functions.timeline.BatteryTimelineScanner;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * Português
+ *
+ * Tarefa fork/join que executa uma das duas passagens de
+ * {@link BatteryTimelineScanner#fillParallel} sobre um intervalo de blocos.
+ *
+ * <p>Sem níveis de entrada, cada bloco é reduzido à sua transformação composta; com níveis de entrada,
+ * cada bloco grava seus níveis e bits de limite. O intervalo de blocos é dividido ao meio até restar um
+ * único bloco.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Fork/join task running one of the two passes of {@link BatteryTimelineScanner#fillParallel} over a
+ * range of blocks.
+ *
+ * <p>Without entry levels, each block is reduced to its composed transform; with entry levels, each
+ * block writes its levels and clamp bits. The block range is split in half until a single block is
+ * left.</p>
+ */
+public class BatteryTimelineTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BatteryTimelineScanner scanner;
+    private final int[] events;
+    private final int[] transforms;
+    private final int[] entryLevels;
+    private final int[] levels;
+    private final long[] clampHits;
+    private final int fromChunk;
+    private final int toChunk;
+
+    /**
+     *
+     * Português
+     *
+     * Cria a tarefa para os blocos {@code [fromChunk, toChunk)}.
+     *
+     * @param scanner     varredor que avalia cada bloco
+     * @param events      array de eventos
+     * @param transforms  saída da primeira passagem: transformação de cada bloco
+     * @param entryLevels entrada da segunda passagem: nível antes de cada bloco, ou {@code null} na primeira
+     * @param levels      saída da segunda passagem: nível após cada evento
+     * @param clampHits   saída da segunda passagem: bitset dos eventos limitados
+     * @param fromChunk   primeiro bloco (inclusivo)
+     * @param toChunk     último bloco (exclusivo)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the task for blocks {@code [fromChunk, toChunk)}.
+     *
+     * @param scanner     scanner evaluating each block
+     * @param events      events array
+     * @param transforms  first pass output: transform of each block
+     * @param entryLevels second pass input: level before each block, or {@code null} in the first pass
+     * @param levels      second pass output: level after every event
+     * @param clampHits   second pass output: bitset of clamped events
+     * @param fromChunk   first block (inclusive)
+     * @param toChunk     last block (exclusive)
+     */
+    public BatteryTimelineTask(
+            final BatteryTimelineScanner scanner,
+            final int[] events,
+            final int[] transforms,
+            final int[] entryLevels,
+            final int[] levels,
+            final long[] clampHits,
+            final int fromChunk,
+            final int toChunk
+    ) {
+        this.scanner = scanner;
+        this.events = events;
+        this.transforms = transforms;
+        this.entryLevels = entryLevels;
+        this.levels = levels;
+        this.clampHits = clampHits;
+        this.fromChunk = fromChunk;
+        this.toChunk = toChunk;
+    }
+
+    @Override
+    protected void compute() {
+        if (toChunk - fromChunk > 1) {
+            final int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(
+                    new BatteryTimelineTask(scanner, events, transforms, entryLevels, levels, clampHits,
+                            fromChunk, middle),
+                    new BatteryTimelineTask(scanner, events, transforms, entryLevels, levels, clampHits,
+                            middle, toChunk)
+            );
+            return;
+        }
+
+        final int from = fromChunk * BatteryTimelineScanner.CHUNK_SIZE;
+        final int to = Math.min(events.length, from + BatteryTimelineScanner.CHUNK_SIZE);
+        if (entryLevels == null) {
+            transforms[fromChunk] = scanner.composeRange(events, from, to);
+        } else {
+            scanner.fillRange(events, from, to, entryLevels[fromChunk], levels, clampHits);
+        }
+    }
+}
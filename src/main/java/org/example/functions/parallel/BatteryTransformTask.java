@@ -0,0 +1,135 @@
+package org.example.functions.parallel;
+
+import org.example.functions.transform.BatteryTransformComposer;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ *
+ * Português
+ *
+ * Tarefa fork/join que reduz um intervalo de eventos a uma única transformação composta.
+ *
+ * <p>O intervalo é dividido ao meio até atingir {@link #SEQUENTIAL_THRESHOLD} eventos; cada folha
+ * compõe seus eventos em sequência e os resultados são combinados da esquerda para a direita,
+ * preservando a ordem dos eventos.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Fork/join task that reduces a range of events to a single composed transform.
+ *
+ * <p>The range is split in half until it reaches {@link #SEQUENTIAL_THRESHOLD} events; each leaf
+ * composes its events in order and results are combined left to right, preserving event order.</p>
+ */
+public class BatteryTransformTask extends RecursiveTask<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Português
+     *
+     * Quantidade de eventos abaixo da qual o intervalo é processado sem nova divisão. */
+
+    /**
+     * English
+     *
+     * Number of events below which the range is processed without further splitting. */
+
+    public static final int SEQUENTIAL_THRESHOLD = 1 << 16;
+
+    private final transient BatteryTransformComposer composer;
+    private final int[] events;
+    private final int from;
+    private final int to;
+
+    /**
+     *
+     * Português
+     *
+     * Cria a tarefa para o intervalo {@code [from, to)} do array de eventos.
+     *
+     * @param composer compositor de transformações
+     * @param events   array de eventos
+     * @param from     índice inicial (inclusivo)
+     * @param to       índice final (exclusivo)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the task for the {@code [from, to)} range of the events array.
+     *
+     * @param composer transform composer
+     * @param events   events array
+     * @param from     start index (inclusive)
+     * @param to       end index (exclusive)
+     */
+    public BatteryTransformTask(
+            final BatteryTransformComposer composer,
+            final int[] events,
+            final int from,
+            final int to
+    ) {
+        this.composer = composer;
+        this.events = events;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            return composeRange(composer, events, from, to);
+        }
+
+        final int middle = (from + to) >>> 1;
+        final BatteryTransformTask left = new BatteryTransformTask(composer, events, from, middle);
+        final BatteryTransformTask right = new BatteryTransformTask(composer, events, middle, to);
+        left.fork();
+        final int rightTransform = right.compute();
+        final int leftTransform = left.join();
+        return composer.compose(leftTransform, rightTransform);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Compõe sequencialmente os eventos do intervalo {@code [from, to)}.
+     *
+     * @param composer compositor de transformações
+     * @param events   array de eventos
+     * @param from     índice inicial (inclusivo)
+     * @param to       índice final (exclusivo)
+     * @return transformação empacotada do intervalo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sequentially composes the events of the {@code [from, to)} range.
+     *
+     * @param composer transform composer
+     * @param events   events array
+     * @param from     start index (inclusive)
+     * @param to       end index (exclusive)
+     * @return packed transform of the range
+     */
+    public static int composeRange(
+            final BatteryTransformComposer composer,
+            final int[] events,
+            final int from,
+            final int to
+    ) {
+        int transform = composer.identity();
+        for (int i = from; i < to; i++) {
+            transform = composer.compose(transform, composer.fromEvent(events[i]));
+        }
+        return transform;
+    }
+}
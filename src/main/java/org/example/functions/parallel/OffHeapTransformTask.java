@@ -0,0 +1,136 @@
+package org.example.functions.parallel;
+
+import org.example.functions.transform.BatteryTransformComposer;
+import org.example.offheap.OffHeapEventBuffer;
+
+import java.nio.IntBuffer;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ *
+ * Português
+ *
+ * Versão de {@link BatteryTransformTask} para um {@link OffHeapEventBuffer}, com intervalos de índices
+ * {@code long}.
+ *
+ * <p>O intervalo é dividido ao meio até atingir {@link BatteryTransformTask#SEQUENTIAL_THRESHOLD}
+ * eventos; cada folha compõe seus eventos página a página e os resultados são combinados da esquerda
+ * para a direita.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Version of {@link BatteryTransformTask} for an {@link OffHeapEventBuffer}, with {@code long} index
+ * ranges.
+ *
+ * <p>The range is split in half until it reaches {@link BatteryTransformTask#SEQUENTIAL_THRESHOLD}
+ * events; each leaf composes its events page by page and results are combined left to right.</p>
+ */
+public class OffHeapTransformTask extends RecursiveTask<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BatteryTransformComposer composer;
+    private final transient OffHeapEventBuffer events;
+    private final long from;
+    private final long to;
+
+    /**
+     *
+     * Português
+     *
+     * Cria a tarefa para o intervalo {@code [from, to)} do buffer.
+     *
+     * @param composer compositor de transformações
+     * @param events   buffer de eventos
+     * @param from     índice inicial (inclusivo)
+     * @param to       índice final (exclusivo)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the task for the {@code [from, to)} range of the buffer.
+     *
+     * @param composer transform composer
+     * @param events   events buffer
+     * @param from     start index (inclusive)
+     * @param to       end index (exclusive)
+     */
+    public OffHeapTransformTask(
+            final BatteryTransformComposer composer,
+            final OffHeapEventBuffer events,
+            final long from,
+            final long to
+    ) {
+        this.composer = composer;
+        this.events = events;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+        if (to - from <= BatteryTransformTask.SEQUENTIAL_THRESHOLD) {
+            return composeRange(composer, events, from, to);
+        }
+
+        final long middle = (from + to) >>> 1;
+        final OffHeapTransformTask left = new OffHeapTransformTask(composer, events, from, middle);
+        final OffHeapTransformTask right = new OffHeapTransformTask(composer, events, middle, to);
+        left.fork();
+        final int rightTransform = right.compute();
+        final int leftTransform = left.join();
+        return composer.compose(leftTransform, rightTransform);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Compõe sequencialmente os eventos do intervalo {@code [from, to)}, uma página por vez.
+     *
+     * @param composer compositor de transformações
+     * @param events   buffer de eventos
+     * @param from     índice inicial (inclusivo)
+     * @param to       índice final (exclusivo)
+     * @return transformação empacotada do intervalo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sequentially composes the events of the {@code [from, to)} range, one page at a time.
+     *
+     * @param composer transform composer
+     * @param events   events buffer
+     * @param from     start index (inclusive)
+     * @param to       end index (exclusive)
+     * @return packed transform of the range
+     */
+    public static int composeRange(
+            final BatteryTransformComposer composer,
+            final OffHeapEventBuffer events,
+            final long from,
+            final long to
+    ) {
+        final int shift = events.pageShift();
+        final long pageMask = (1L << shift) - 1;
+        int transform = composer.identity();
+        long index = from;
+        while (index < to) {
+            final IntBuffer page = events.page((int) (index >>> shift));
+            final int start = (int) (index & pageMask);
+            final int end = (int) Math.min(pageMask + 1, start + (to - index));
+            for (int i = start; i < end; i++) {
+                transform = composer.compose(transform, composer.fromEvent(page.get(i)));
+            }
+            index += end - start;
+        }
+        return transform;
+    }
+}
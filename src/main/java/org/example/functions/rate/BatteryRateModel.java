@@ -0,0 +1,69 @@
+package org.example.functions.rate;
+
+/**
+ *
+ * Português
+ *
+ * Modelo de taxa de carga/consumo usado para calcular a variação da bateria de um evento.
+ *
+ * <p>Diferente do {@code BatteryChangeCalculator}, a variação pode depender do nível atual, permitindo
+ * curvas de carga não lineares (rápida até 80% e lenta depois, por exemplo).</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Charge/drain rate model used to calculate the battery change of an event.
+ *
+ * <p>Unlike {@code BatteryChangeCalculator}, the change may depend on the current level, allowing
+ * non-linear charge curves (fast up to 80% and trickle afterwards, for example).</p>
+ */
+public interface BatteryRateModel {
+
+    /**
+     *
+     * Português
+     *
+     * Calcula a variação da bateria causada por um evento a partir do nível atual.
+     *
+     * @param currentLevel nível atual da bateria (0-100)
+     * @param event        duração do evento; positivo para carregamento e negativo para consumo
+     * @return variação da bateria (ainda sem aplicar limites)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Calculates the battery change caused by an event from the current level.
+     *
+     * @param currentLevel current battery level (0-100)
+     * @param event        event duration; positive for charging and negative for drain
+     * @return battery change (no limits applied yet)
+     */
+    int calculateBatteryChange(int currentLevel, int event);
+
+    /**
+     *
+     * Português
+     *
+     * Indica se a variação é independente do nível (eventos viram transformações "somar e limitar"),
+     * o que permite as avaliações paralelas e compostas.
+     *
+     * @return {@code true} se o modelo for linear
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether the change is independent of the level (events become "add then clamp" transforms),
+     * which enables the parallel and composed evaluations.
+     *
+     * @return {@code true} if the model is linear
+     */
+    default boolean isLinear() {
+        return false;
+    }
+}
@@ -0,0 +1,205 @@
+package org.example.functions.rate;
+
+/**
+ *
+ * Português
+ *
+ * Modelo de taxa não linear pré-compilado em tabelas indexadas por (nível atual, minutos).
+ *
+ * <p>Na construção, as curvas de carga e de consumo são integradas nível a nível para obter o tempo
+ * até cada nível; em seguida, para cada nível inicial e cada duração até a saturação, o nível
+ * alcançado é guardado em uma tabela de {@code byte}. A avaliação é apenas um acesso à tabela (ou a
+ * saturação direta para durações maiores), sem ramos dependentes da curva, e a variação resultante
+ * nunca ultrapassa 0% ou 100%.</p>
+ *
+ * <p>Cada tabela é limitada a {@link #MAX_TABLE_BYTES}; curvas lentas demais para isso (tempo total de
+ * carga ou de consumo acima de cerca de 41 mil minutos) não têm tabela nessa direção, e o nível alcançado
+ * é obtido por busca binária nos tempos acumulados, com o mesmo resultado.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Non-linear rate model precompiled into tables indexed by (current level, minutes).
+ *
+ * <p>On construction, the charge and drain curves are integrated level by level to get the time to
+ * reach each level; then, for each starting level and each duration up to saturation, the reached
+ * level is stored in a {@code byte} table. Evaluation is a single table lookup (or direct saturation
+ * for longer durations), with no curve-dependent branches, and the resulting change never goes past
+ * 0% or 100%.</p>
+ *
+ * <p>Each table is capped at {@link #MAX_TABLE_BYTES}; curves too slow for that (total charge or drain
+ * time above about 41 thousand minutes) get no table in that direction, and the reached level is found by
+ * binary search over the cumulative times, with the same result.</p>
+ */
+public class CompiledRateModel implements BatteryRateModel {
+
+    public static final int MAX_TABLE_BYTES = 1 << 22;
+
+    private static final int MIN_BATTERY = 0;
+    private static final int MAX_BATTERY = 100;
+    private static final double EPSILON = 1e-9;
+
+    private final double[] timeToLevel;
+    private final double[] timeFromFull;
+    private final byte[] chargeTable;
+    private final int chargeRowLength;
+    private final byte[] drainTable;
+    private final int drainRowLength;
+
+    /**
+     *
+     * Português
+     *
+     * Compila o modelo a partir das curvas de carga e de consumo.
+     *
+     * @param chargeCurve curva de carga
+     * @param drainCurve  curva de consumo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Compiles the model from the charge and drain curves.
+     *
+     * @param chargeCurve charge curve
+     * @param drainCurve  drain curve
+     */
+    public CompiledRateModel(final RateCurve chargeCurve, final RateCurve drainCurve) {
+        this.timeToLevel = new double[MAX_BATTERY + 1];
+        for (int level = MIN_BATTERY; level < MAX_BATTERY; level++) {
+            timeToLevel[level + 1] = timeToLevel[level] + 1.0 / chargeCurve.rateAt(level);
+        }
+        this.chargeRowLength = rowLength(timeToLevel[MAX_BATTERY]);
+        this.chargeTable = chargeRowLength == 0 ? null : new byte[(MAX_BATTERY + 1) * chargeRowLength];
+        if (chargeTable != null) {
+            for (int start = MIN_BATTERY; start <= MAX_BATTERY; start++) {
+                for (int minutes = 0; minutes < chargeRowLength; minutes++) {
+                    chargeTable[start * chargeRowLength + minutes] = (byte) chargedLevel(start, minutes);
+                }
+            }
+        }
+
+        this.timeFromFull = new double[MAX_BATTERY + 1];
+        for (int level = MAX_BATTERY; level > MIN_BATTERY; level--) {
+            timeFromFull[level - 1] = timeFromFull[level] + 1.0 / drainCurve.rateAt(level - 1);
+        }
+        this.drainRowLength = rowLength(timeFromFull[MIN_BATTERY]);
+        this.drainTable = drainRowLength == 0 ? null : new byte[(MAX_BATTERY + 1) * drainRowLength];
+        if (drainTable != null) {
+            for (int start = MIN_BATTERY; start <= MAX_BATTERY; start++) {
+                for (int minutes = 0; minutes < drainRowLength; minutes++) {
+                    drainTable[start * drainRowLength + minutes] = (byte) drainedLevel(start, minutes);
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Compila um modelo com a curva de carga informada e a taxa de consumo de uma carga de trabalho.
+     *
+     * @param chargeCurve curva de carga
+     * @param workload    carga de trabalho que define o consumo
+     * @return modelo compilado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Compiles a model with the given charge curve and the drain rate of a workload.
+     *
+     * @param chargeCurve charge curve
+     * @param workload    workload defining the drain
+     * @return compiled model
+     */
+    public static CompiledRateModel forWorkload(final RateCurve chargeCurve, final Workload workload) {
+        return new CompiledRateModel(chargeCurve, workload.drainCurve());
+    }
+
+    @Override
+    public int calculateBatteryChange(final int currentLevel, final int event) {
+        if (event > 0) {
+            final int reached;
+            if (chargeTable == null) {
+                reached = chargedLevel(currentLevel, event);
+            } else {
+                reached = event >= chargeRowLength ? MAX_BATTERY : chargeTable[currentLevel * chargeRowLength + event];
+            }
+            return reached - currentLevel;
+        }
+        if (event < 0) {
+            final long minutes = -(long) event;
+            final int reached;
+            if (drainTable == null) {
+                reached = drainedLevel(currentLevel, minutes);
+            } else {
+                reached = minutes >= drainRowLength ? MIN_BATTERY
+                        : drainTable[currentLevel * drainRowLength + (int) minutes];
+            }
+            return reached - currentLevel;
+        }
+        return 0;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Indica se as duas direções foram compiladas em tabelas.
+     *
+     * @return {@code false} se alguma direção é calculada por busca binária
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether both directions were compiled into tables.
+     *
+     * @return {@code false} if some direction is computed by binary search
+     */
+    public boolean isTabulated() {
+        return chargeTable != null && drainTable != null;
+    }
+
+    private int chargedLevel(final int start, final long minutes) {
+        final double limit = minutes + EPSILON;
+        int low = start;
+        int high = MAX_BATTERY;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (timeToLevel[middle] - timeToLevel[start] <= limit) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private int drainedLevel(final int start, final long minutes) {
+        final double limit = minutes + EPSILON;
+        int low = MIN_BATTERY;
+        int high = start;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (timeFromFull[middle] - timeFromFull[start] <= limit) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private static int rowLength(final double totalMinutes) {
+        final double rowLength = Math.ceil(totalMinutes - EPSILON) + 1;
+        return rowLength * (MAX_BATTERY + 1) <= MAX_TABLE_BYTES ? (int) rowLength : 0;
+    }
+}
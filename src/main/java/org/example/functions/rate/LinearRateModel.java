@@ -0,0 +1,41 @@
+package org.example.functions.rate;
+
+import org.example.functions.calculator.BatteryChangeCalculator;
+
+/**
+ *
+ * Português
+ *
+ * Modelo padrão: delega ao {@link BatteryChangeCalculator} (1% por minuto carregando ou jogando),
+ * ignorando o nível atual.
+ */
+
+/**
+ *
+ * English
+ *
+ * Default model: delegates to {@link BatteryChangeCalculator} (1% per minute charging or gaming),
+ * ignoring the current level.
+ */
+public class LinearRateModel implements BatteryRateModel {
+
+    private final BatteryChangeCalculator changeCalculator;
+
+    public LinearRateModel() {
+        this(new BatteryChangeCalculator());
+    }
+
+    public LinearRateModel(final BatteryChangeCalculator changeCalculator) {
+        this.changeCalculator = changeCalculator;
+    }
+
+    @Override
+    public int calculateBatteryChange(final int currentLevel, final int event) {
+        return changeCalculator.calculateBatteryChange(event);
+    }
+
+    @Override
+    public boolean isLinear() {
+        return true;
+    }
+}
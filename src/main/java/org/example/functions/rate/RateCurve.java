@@ -0,0 +1,123 @@
+package org.example.functions.rate;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Português
+ *
+ * Curva linear por partes: taxa em pontos percentuais por minuto para cada faixa de nível.
+ *
+ * <p>Exemplo: {@code new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25})} carrega a 2%/min
+ * até 80% e a 0,25%/min de 80% a 100%. Taxas abaixo de {@link #MIN_PERCENT_PER_MINUTE} (mais de 1000
+ * minutos por ponto) são rejeitadas.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Piecewise-linear curve: rate in percentage points per minute for each level range.
+ *
+ * <p>Example: {@code new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25})} charges at 2%/min
+ * up to 80% and at 0.25%/min from 80% to 100%. Rates below {@link #MIN_PERCENT_PER_MINUTE} (more than
+ * 1000 minutes per point) are rejected.</p>
+ */
+public final class RateCurve {
+
+    public static final double MIN_PERCENT_PER_MINUTE = 1e-3;
+
+    private final int[] breakpoints;
+    private final double[] percentPerMinute;
+
+    /**
+     *
+     * Português
+     *
+     * Cria a curva a partir dos limites de cada faixa e da taxa de cada faixa.
+     *
+     * @param breakpoints      níveis crescentes, começando em 0 e terminando em 100
+     * @param percentPerMinute taxa de cada faixa, no mínimo {@link #MIN_PERCENT_PER_MINUTE}
+     *                         ({@code breakpoints.length - 1} valores)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the curve from the bounds of each range and the rate of each range.
+     *
+     * @param breakpoints      increasing levels, starting at 0 and ending at 100
+     * @param percentPerMinute rate of each range, at least {@link #MIN_PERCENT_PER_MINUTE}
+     *                         ({@code breakpoints.length - 1} values)
+     */
+    public RateCurve(final int[] breakpoints, final double[] percentPerMinute) {
+        if (breakpoints.length < 2 || percentPerMinute.length != breakpoints.length - 1) {
+            throw new IllegalArgumentException("Expected one rate per range between breakpoints");
+        }
+        if (breakpoints[0] != 0 || breakpoints[breakpoints.length - 1] != 100) {
+            throw new IllegalArgumentException("Breakpoints must start at 0 and end at 100");
+        }
+        for (int i = 0; i < percentPerMinute.length; i++) {
+            if (breakpoints[i + 1] <= breakpoints[i]) {
+                throw new IllegalArgumentException("Breakpoints must be strictly increasing");
+            }
+            if (!(percentPerMinute[i] >= MIN_PERCENT_PER_MINUTE)) {
+                throw new IllegalArgumentException(
+                        "Rates must be at least " + MIN_PERCENT_PER_MINUTE + "%/min: " + percentPerMinute[i]);
+            }
+        }
+        this.breakpoints = breakpoints.clone();
+        this.percentPerMinute = percentPerMinute.clone();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria uma curva com taxa constante em toda a faixa de 0 a 100.
+     *
+     * @param percentPerMinute taxa, no mínimo {@link #MIN_PERCENT_PER_MINUTE}
+     * @return curva constante
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a curve with a constant rate over the whole 0 to 100 range.
+     *
+     * @param percentPerMinute rate, at least {@link #MIN_PERCENT_PER_MINUTE}
+     * @return constant curve
+     */
+    public static RateCurve constant(final double percentPerMinute) {
+        return new RateCurve(new int[]{0, 100}, new double[]{percentPerMinute});
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a taxa aplicada entre os níveis {@code level} e {@code level + 1}.
+     *
+     * @param level nível inferior do intervalo de um ponto (0-99)
+     * @return taxa em pontos percentuais por minuto
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the rate applied between levels {@code level} and {@code level + 1}.
+     *
+     * @param level lower level of the one-point interval (0-99)
+     * @return rate in percentage points per minute
+     */
+    public double rateAt(final int level) {
+        int segment = Arrays.binarySearch(breakpoints, level);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        return percentPerMinute[Math.min(segment, percentPerMinute.length - 1)];
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.functions.rate;
+
+/**
+ *
+ * Português
+ *
+ * Cargas de trabalho com suas taxas de consumo típicas.
+ */
+
+/**
+ *
+ * English
+ *
+ * Workloads with their typical drain rates.
+ */
+public enum Workload {
+
+    IDLE(0.1),
+    BROWSING(0.4),
+    VIDEO(0.6),
+    GAMING(1.0);
+
+    private final double drainPercentPerMinute;
+
+    Workload(final double drainPercentPerMinute) {
+        this.drainPercentPerMinute = drainPercentPerMinute;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a curva de consumo (taxa constante) desta carga de trabalho.
+     *
+     * @return curva de consumo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the drain curve (constant rate) of this workload.
+     *
+     * @return drain curve
+     */
+    public RateCurve drainCurve() {
+        return RateCurve.constant(drainPercentPerMinute);
+    }
+}
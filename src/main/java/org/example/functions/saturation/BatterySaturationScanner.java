@@ -0,0 +1,124 @@
+package org.example.functions.saturation;
+
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+/**
+ *
+ * Português
+ *
+ * Avalia eventos de trás para frente, parando no último ponto em que o limite fixou o nível.
+ *
+ * <p>O sufixo já percorrido é mantido como uma transformação "somar e limitar"
+ * {@code min(superior, max(inferior, nivel + deslocamento))}; cada evento anterior é composto à esquerda.
+ * Quando os limites inferior e superior se encontram, o sufixo leva qualquer nível ao mesmo valor (por
+ * exemplo, um carregamento de 100 minutos ou mais seguido de eventos que não saem de 100%), e os eventos
+ * anteriores não precisam ser lidos. Em traços com muita saturação, apenas o sufixo após o último
+ * "reset" para um limite é percorrido.</p>
+ *
+ * <p>O resultado é idêntico ao processamento sequencial. Um evento cuja variação poderia causar overflow
+ * de {@code int} ao ser somada ao nível encerra a varredura: o prefixo até ele é avaliado em ordem e o
+ * sufixo composto é aplicado ao resultado.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Evaluates events backwards, stopping at the last point where the clamp pinned the level.
+ *
+ * <p>The suffix scanned so far is kept as an "add then clamp" transform
+ * {@code min(upper, max(lower, level + offset))}; each earlier event is composed on its left. Once the
+ * lower and upper bounds meet, the suffix maps every level to the same value (for example, a charge of
+ * 100 minutes or more followed by events that never leave 100%), and earlier events do not need to be
+ * read. On saturation-heavy traces, only the suffix after the last "reset" to a limit is scanned.</p>
+ *
+ * <p>The result is identical to sequential processing. An event whose change could overflow an
+ * {@code int} when added to the level stops the scan: the prefix up to it is evaluated in order and the
+ * composed suffix is applied to the result.</p>
+ */
+public class BatterySaturationScanner {
+
+    private static final int OFFSET_LIMIT = 101;
+
+    private final BatteryChangeCalculator changeCalculator;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+
+    private final int minBattery;
+    private final int maxBattery;
+
+    public BatterySaturationScanner() {
+        this(new BatteryChangeCalculator(), new BatteryLevelUpdater(), new BatteryLimitsApplier());
+    }
+
+    public BatterySaturationScanner(
+            final BatteryChangeCalculator changeCalculator,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier
+    ) {
+        this.changeCalculator = changeCalculator;
+        this.levelUpdater = levelUpdater;
+        this.limitsApplier = limitsApplier;
+        this.minBattery = limitsApplier.applyBatteryLimits(Integer.MIN_VALUE);
+        this.maxBattery = limitsApplier.applyBatteryLimits(Integer.MAX_VALUE);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Calcula o nível final a partir de um nível inicial, varrendo os eventos de trás para frente.
+     *
+     * @param events       array de eventos de carregamento/uso
+     * @param initialLevel nível inicial da bateria (0-100)
+     * @return nível final da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Computes the final level from an initial level, scanning the events backwards.
+     *
+     * @param events       array of charging/usage events
+     * @param initialLevel initial battery level (0-100)
+     * @return final battery level (0-100)
+     */
+    public int evaluate(final int[] events, final int initialLevel) {
+        int offset = 0;
+        int lower = minBattery;
+        int upper = maxBattery;
+
+        for (int i = events.length - 1; i >= 0; i--) {
+            final int change = changeCalculator.calculateBatteryChange(events[i]);
+            if (change > Integer.MAX_VALUE - maxBattery) {
+                return clamp(forward(events, i + 1, initialLevel) + offset, lower, upper);
+            }
+
+            final int composedLower = clamp(minBattery + offset, lower, upper);
+            upper = clamp(maxBattery + offset, lower, upper);
+            lower = composedLower;
+            if (lower == upper) {
+                return lower;
+            }
+            offset = (int) Math.max(-OFFSET_LIMIT, Math.min(OFFSET_LIMIT, (long) change + offset));
+        }
+        return clamp(initialLevel + offset, lower, upper);
+    }
+
+    private int forward(final int[] events, final int end, final int initialLevel) {
+        int currentBatteryLevel = initialLevel;
+        for (int i = 0; i < end; i++) {
+            final int batteryChange = changeCalculator.calculateBatteryChange(events[i]);
+            currentBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+            currentBatteryLevel = limitsApplier.applyBatteryLimits(currentBatteryLevel);
+        }
+        return currentBatteryLevel;
+    }
+
+    private static int clamp(final int value, final int lower, final int upper) {
+        return Math.min(upper, Math.max(lower, value));
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.functions.timeline;
+
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.parallel.BatteryTimelineTask;
+import org.example.functions.parallel.BatteryTransformTask;
+import org.example.functions.rate.BatteryRateModel;
+import org.example.functions.transform.BatteryTransformComposer;
+import org.example.functions.updater.BatteryLevelUpdater;
+import org.example.timeline.BatteryTimeline;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ *
+ * Português
+ *
+ * Grava a linha do tempo de uma avaliação em arrays fornecidos pelo chamador: o nível após cada evento e
+ * um bitset com os eventos em que o limite alterou o nível.
+ *
+ * <p>A versão paralela faz duas passagens sobre blocos de {@link #CHUNK_SIZE} eventos. Na primeira, cada
+ * bloco é reduzido a uma transformação "somar e limitar" (veja {@link BatteryTransformComposer}); um
+ * prefixo sequencial sobre essas poucas transformações dá o nível de entrada de cada bloco. Na segunda,
+ * cada bloco é percorrido a partir do seu nível de entrada, gravando níveis e bits. Os blocos começam em
+ * múltiplos de 64, então nenhuma palavra do bitset é compartilhada entre threads.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Writes the timeline of one evaluation into caller-provided arrays: the level after every event and a
+ * bitset of the events where the limit changed the level.
+ *
+ * <p>The parallel version makes two passes over blocks of {@link #CHUNK_SIZE} events. In the first one,
+ * each block is reduced to an "add then clamp" transform (see {@link BatteryTransformComposer}); a
+ * sequential prefix over those few transforms gives the entry level of each block. In the second one,
+ * each block is walked from its entry level, writing levels and bits. Blocks start at multiples of 64,
+ * so no bitset word is shared between threads.</p>
+ */
+public class BatteryTimelineScanner {
+
+    /**
+     * Português
+     *
+     * Quantidade de eventos de cada bloco da varredura paralela (múltiplo de 64). */
+
+    /**
+     * English
+     *
+     * Number of events of each block of the parallel scan (a multiple of 64). */
+
+    public static final int CHUNK_SIZE = BatteryTransformTask.SEQUENTIAL_THRESHOLD;
+
+    private final BatteryRateModel rateModel;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+    private final BatteryTransformComposer composer;
+
+    public BatteryTimelineScanner(
+            final BatteryRateModel rateModel,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier,
+            final BatteryTransformComposer composer
+    ) {
+        this.rateModel = rateModel;
+        this.levelUpdater = levelUpdater;
+        this.limitsApplier = limitsApplier;
+        this.composer = composer;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava sequencialmente a linha do tempo de todos os eventos.
+     *
+     * @param events       array de eventos de carregamento/uso
+     * @param initialLevel nível antes do primeiro evento
+     * @param levels       saída: nível após cada evento
+     * @param clampHits    saída: bitset dos eventos limitados
+     * @return nível final da bateria (0-100)
+     * @throws IllegalArgumentException se algum array de saída for pequeno demais
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sequentially writes the timeline of every event.
+     *
+     * @param events       array of charging/usage events
+     * @param initialLevel level before the first event
+     * @param levels       output: level after every event
+     * @param clampHits    output: bitset of clamped events
+     * @return final battery level (0-100)
+     * @throws IllegalArgumentException if an output array is too small
+     */
+    public int fill(final int[] events, final int initialLevel, final int[] levels, final long[] clampHits) {
+        checkCapacity(events.length, levels, clampHits);
+        return fillRange(events, 0, events.length, initialLevel, levels, clampHits);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava a linha do tempo com a varredura paralela em duas passagens. Produz o mesmo resultado que
+     * {@link #fill(int[], int, int[], long[])} para modelos lineares e variações que não causam overflow
+     * de {@code int}; com modelos não lineares, usa a versão sequencial.
+     *
+     * @param events       array de eventos de carregamento/uso
+     * @param initialLevel nível antes do primeiro evento (0-100)
+     * @param levels       saída: nível após cada evento
+     * @param clampHits    saída: bitset dos eventos limitados
+     * @param pool         pool fork/join que executa as passagens
+     * @return nível final da bateria (0-100)
+     * @throws IllegalArgumentException se algum array de saída for pequeno demais
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes the timeline with the two-pass parallel scan. Produces the same result as
+     * {@link #fill(int[], int, int[], long[])} for linear models and changes that do not overflow an
+     * {@code int}; with non-linear models, it uses the sequential version.
+     *
+     * @param events       array of charging/usage events
+     * @param initialLevel level before the first event (0-100)
+     * @param levels       output: level after every event
+     * @param clampHits    output: bitset of clamped events
+     * @param pool         fork/join pool running the passes
+     * @return final battery level (0-100)
+     * @throws IllegalArgumentException if an output array is too small
+     */
+    public int fillParallel(
+            final int[] events,
+            final int initialLevel,
+            final int[] levels,
+            final long[] clampHits,
+            final ForkJoinPool pool
+    ) {
+        checkCapacity(events.length, levels, clampHits);
+        if (!rateModel.isLinear() || events.length <= CHUNK_SIZE) {
+            return fillRange(events, 0, events.length, initialLevel, levels, clampHits);
+        }
+
+        final int chunkCount = (events.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final int[] transforms = new int[chunkCount];
+        pool.invoke(new BatteryTimelineTask(this, events, transforms, null, levels, clampHits, 0, chunkCount));
+
+        final int[] entryLevels = new int[chunkCount];
+        int level = initialLevel;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            entryLevels[chunk] = level;
+            if (transforms[chunk] == BatteryTransformComposer.NOT_COMPOSABLE) {
+                final int from = chunk * CHUNK_SIZE;
+                level = fillRange(events, from, Math.min(events.length, from + CHUNK_SIZE), level, levels, clampHits);
+            } else {
+                level = composer.apply(transforms[chunk], level);
+            }
+        }
+
+        pool.invoke(new BatteryTimelineTask(this, events, null, entryLevels, levels, clampHits, 0, chunkCount));
+        return levels[events.length - 1];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava sequencialmente a linha do tempo de um intervalo de eventos. As palavras do bitset cobertas
+     * pelo intervalo são sobrescritas por inteiro, então {@code from} deve ser múltiplo de 64 e
+     * {@code to} deve ser múltiplo de 64 ou o fim dos eventos.
+     *
+     * @param events       array de eventos de carregamento/uso
+     * @param from         índice inicial (inclusivo)
+     * @param to           índice final (exclusivo)
+     * @param initialLevel nível antes do evento {@code from}
+     * @param levels       saída: nível após cada evento
+     * @param clampHits    saída: bitset dos eventos limitados
+     * @return nível após o evento {@code to - 1}
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sequentially writes the timeline of a range of events. Bitset words covered by the range are
+     * overwritten whole, so {@code from} must be a multiple of 64 and {@code to} must be a multiple of 64
+     * or the end of the events.
+     *
+     * @param events       array of charging/usage events
+     * @param from         start index (inclusive)
+     * @param to           end index (exclusive)
+     * @param initialLevel level before event {@code from}
+     * @param levels       output: level after every event
+     * @param clampHits    output: bitset of clamped events
+     * @return level after event {@code to - 1}
+     */
+    public int fillRange(
+            final int[] events,
+            final int from,
+            final int to,
+            final int initialLevel,
+            final int[] levels,
+            final long[] clampHits
+    ) {
+        int currentBatteryLevel = initialLevel;
+        long clampWord = 0L;
+        for (int i = from; i < to; i++) {
+            final int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, events[i]);
+            final int uncappedBatteryLevel = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+            currentBatteryLevel = limitsApplier.applyBatteryLimits(uncappedBatteryLevel);
+            levels[i] = currentBatteryLevel;
+            clampWord |= (uncappedBatteryLevel != currentBatteryLevel ? 1L : 0L) << i;
+            if ((i & (Long.SIZE - 1)) == Long.SIZE - 1) {
+                clampHits[i >>> 6] = clampWord;
+                clampWord = 0L;
+            }
+        }
+        if ((to & (Long.SIZE - 1)) != 0) {
+            clampHits[to >>> 6] = clampWord;
+        }
+        return currentBatteryLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Reduz um intervalo de eventos a uma única transformação composta.
+     *
+     * @param events array de eventos
+     * @param from   índice inicial (inclusivo)
+     * @param to     índice final (exclusivo)
+     * @return transformação empacotada do intervalo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Reduces a range of events to a single composed transform.
+     *
+     * @param events events array
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @return packed transform of the range
+     */
+    public int composeRange(final int[] events, final int from, final int to) {
+        return BatteryTransformTask.composeRange(composer, events, from, to);
+    }
+
+    private static void checkCapacity(final int eventCount, final int[] levels, final long[] clampHits) {
+        if (levels.length < eventCount) {
+            throw new IllegalArgumentException("Levels array holds " + levels.length + " of " + eventCount + " events");
+        }
+        if (clampHits.length < BatteryTimeline.wordCount(eventCount)) {
+            throw new IllegalArgumentException("Clamp bitset holds " + clampHits.length * Long.SIZE
+                    + " of " + eventCount + " events");
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package org.example.functions.transform;
+
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+/**
+ *
+ * Português
+ *
+ * Compõe eventos de bateria em transformações do tipo "somar e limitar".
+ *
+ * <p>Cada evento aplica {@code limitar(nivel + variacao)} e a composição de duas funções desse formato
+ * resulta em outra função do mesmo formato: {@code min(superior, max(inferior, nivel + deslocamento))}.
+ * As transformações são empacotadas em um único {@code int} para evitar alocações:
+ * deslocamento (saturado em [-101, 101]), limite inferior e limite superior.</p>
+ *
+ * <p>O resultado é idêntico ao processamento sequencial para níveis de entrada entre 0 e 100. Uma
+ * variação que pode causar overflow de {@code int} ao ser somada ao nível não tem esse formato (o
+ * resultado depende do nível de entrada); ela é convertida em {@link #NOT_COMPOSABLE}, que se propaga
+ * por {@link #compose(int, int)} para que o chamador avalie o intervalo em sequência.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Composes battery events into "add then clamp" transforms.
+ *
+ * <p>Each event applies {@code clamp(level + change)} and composing two functions of that shape yields
+ * another function of the same shape: {@code min(upper, max(lower, level + offset))}.
+ * Transforms are packed into a single {@code int} to avoid allocations:
+ * offset (saturated to [-101, 101]), lower bound and upper bound.</p>
+ *
+ * <p>The result is identical to sequential processing for input levels between 0 and 100. A change that
+ * can overflow an {@code int} when added to the level does not have that shape (the result depends on
+ * the input level); it is converted to {@link #NOT_COMPOSABLE}, which propagates through
+ * {@link #compose(int, int)} so that the caller evaluates the range sequentially.</p>
+ */
+public class BatteryTransformComposer {
+
+    /**
+     * Português
+     *
+     * Marcador de um intervalo com um evento que não pode ser representado como transformação. */
+
+    /**
+     * English
+     *
+     * Marker of a range with an event that cannot be represented as a transform. */
+
+    public static final int NOT_COMPOSABLE = -1;
+
+    private static final int OFFSET_LIMIT = 101;
+    private static final int OFFSET_BIAS = OFFSET_LIMIT;
+    private static final int BYTE_MASK = 0xFF;
+
+    private final BatteryChangeCalculator changeCalculator;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+
+    private final int minBattery;
+    private final int maxBattery;
+    private final int identity;
+
+    public BatteryTransformComposer() {
+        this(new BatteryChangeCalculator(), new BatteryLevelUpdater(), new BatteryLimitsApplier());
+    }
+
+    public BatteryTransformComposer(
+            final BatteryChangeCalculator changeCalculator,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier
+    ) {
+        this.changeCalculator = changeCalculator;
+        this.levelUpdater = levelUpdater;
+        this.limitsApplier = limitsApplier;
+        this.minBattery = limitsApplier.applyBatteryLimits(Integer.MIN_VALUE);
+        this.maxBattery = limitsApplier.applyBatteryLimits(Integer.MAX_VALUE);
+        this.identity = pack(0, minBattery, maxBattery);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a transformação identidade (nenhum evento aplicado).
+     *
+     * @return transformação empacotada que não altera o nível
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the identity transform (no event applied).
+     *
+     * @return packed transform that leaves the level unchanged
+     */
+    public int identity() {
+        return identity;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Converte um evento em sua transformação usando as regras do calculador e dos limites.
+     *
+     * @param event duração do evento (positivo carrega, negativo consome)
+     * @return transformação empacotada equivalente ao evento, ou {@link #NOT_COMPOSABLE}
+     */
+
+    /**
+     *
+     * English
+     *
+     * Converts an event into its transform using the calculator and limits rules.
+     *
+     * @param event event duration (positive charges, negative drains)
+     * @return packed transform equivalent to the event, or {@link #NOT_COMPOSABLE}
+     */
+    public int fromEvent(final int event) {
+        return fromChange(changeCalculator.calculateBatteryChange(event));
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Converte uma variação já calculada em sua transformação.
+     *
+     * @param change variação percentual da bateria
+     * @return transformação empacotada equivalente à variação, ou {@link #NOT_COMPOSABLE} se a soma ao
+     *         nível puder causar overflow
+     */
+
+    /**
+     *
+     * English
+     *
+     * Converts an already calculated change into its transform.
+     *
+     * @param change battery percentage change
+     * @return packed transform equivalent to the change, or {@link #NOT_COMPOSABLE} if adding it to the
+     *         level can overflow
+     */
+    public int fromChange(final int change) {
+        if (change > Integer.MAX_VALUE - maxBattery) {
+            return NOT_COMPOSABLE;
+        }
+        return pack(saturateOffset(change), minBattery, maxBattery);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Compõe duas transformações: primeiro {@code first}, depois {@code second}.
+     *
+     * @param first  transformação aplicada primeiro
+     * @param second transformação aplicada em seguida
+     * @return transformação empacotada equivalente às duas em sequência, ou {@link #NOT_COMPOSABLE} se
+     *         alguma delas for
+     */
+
+    /**
+     *
+     * English
+     *
+     * Composes two transforms: {@code first}, then {@code second}.
+     *
+     * @param first  transform applied first
+     * @param second transform applied next
+     * @return packed transform equivalent to both in sequence, or {@link #NOT_COMPOSABLE} if either is
+     */
+    public int compose(final int first, final int second) {
+        if ((first | second) < 0) {
+            return NOT_COMPOSABLE;
+        }
+        final int secondOffset = offset(second);
+        final int secondLower = lowerBound(second);
+        final int secondUpper = upperBound(second);
+
+        final int offset = saturateOffset(offset(first) + secondOffset);
+        final int lower = clamp(lowerBound(first) + secondOffset, secondLower, secondUpper);
+        final int upper = clamp(upperBound(first) + secondOffset, secondLower, secondUpper);
+        return pack(offset, lower, upper);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Aplica a transformação a um nível de bateria usando o atualizador e os limites da transformação.
+     *
+     * @param transform transformação empacotada
+     * @param level     nível de entrada (entre 0 e 100)
+     * @return nível resultante
+     */
+
+    /**
+     *
+     * English
+     *
+     * Applies the transform to a battery level using the updater and the transform bounds.
+     *
+     * @param transform packed transform
+     * @param level     input level (between 0 and 100)
+     * @return resulting level
+     */
+    public int apply(final int transform, final int level) {
+        return clamp(levelUpdater.updateBatteryLevel(level, offset(transform)),
+                lowerBound(transform), upperBound(transform));
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Aplica um único evento a um nível com as regras sequenciais, inclusive eventos
+     * {@link #NOT_COMPOSABLE}.
+     *
+     * @param level nível de entrada (entre 0 e 100)
+     * @param event duração do evento (positivo carrega, negativo consome)
+     * @return nível resultante
+     */
+
+    /**
+     *
+     * English
+     *
+     * Applies a single event to a level with the sequential rules, including {@link #NOT_COMPOSABLE}
+     * events.
+     *
+     * @param level input level (between 0 and 100)
+     * @param event event duration (positive charges, negative drains)
+     * @return resulting level
+     */
+    public int applyEvent(final int level, final int event) {
+        final int batteryChange = changeCalculator.calculateBatteryChange(event);
+        return limitsApplier.applyBatteryLimits(levelUpdater.updateBatteryLevel(level, batteryChange));
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Extrai o deslocamento (saturado) de uma transformação.
+     *
+     * @param transform transformação empacotada
+     * @return deslocamento entre -101 e 101
+     */
+
+    /**
+     *
+     * English
+     *
+     * Extracts the (saturated) offset of a transform.
+     *
+     * @param transform packed transform
+     * @return offset between -101 and 101
+     */
+    public int offset(final int transform) {
+        return ((transform >>> 16) & BYTE_MASK) - OFFSET_BIAS;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Extrai o limite inferior de uma transformação.
+     *
+     * @param transform transformação empacotada
+     * @return menor nível que a transformação pode produzir
+     */
+
+    /**
+     *
+     * English
+     *
+     * Extracts the lower bound of a transform.
+     *
+     * @param transform packed transform
+     * @return lowest level the transform can produce
+     */
+    public int lowerBound(final int transform) {
+        return (transform >>> 8) & BYTE_MASK;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Extrai o limite superior de uma transformação.
+     *
+     * @param transform transformação empacotada
+     * @return maior nível que a transformação pode produzir
+     */
+
+    /**
+     *
+     * English
+     *
+     * Extracts the upper bound of a transform.
+     *
+     * @param transform packed transform
+     * @return highest level the transform can produce
+     */
+    public int upperBound(final int transform) {
+        return transform & BYTE_MASK;
+    }
+
+    private static int pack(final int offset, final int lower, final int upper) {
+        return ((offset + OFFSET_BIAS) << 16) | (lower << 8) | upper;
+    }
+
+    private static int saturateOffset(final int offset) {
+        return clamp(offset, -OFFSET_LIMIT, OFFSET_LIMIT);
+    }
+
+    private static int clamp(final int value, final int lower, final int upper) {
+        return Math.min(upper, Math.max(lower, value));
+    }
+}
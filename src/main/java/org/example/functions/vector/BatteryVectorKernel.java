@@ -0,0 +1,169 @@
+package org.example.functions.vector;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import org.example.BatteryMonitor;
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Português
+ *
+ * Kernel SIMD (Vector API) que avalia a bateria de vários dispositivos ao mesmo tempo.
+ *
+ * <p>Os eventos ficam em layout estrutura-de-arrays: {@code events[t * deviceCount + d]} é o evento
+ * {@code t} do dispositivo {@code d}. Os eventos são percorridos em ordem de memória, passo a passo, e
+ * cada lane do vetor acompanha um dispositivo, aplicando "somar e limitar" com {@code add}/{@code max}/
+ * {@code min}; os dispositivos que não completam um vetor são processados com os auxiliares escalares. As taxas por minuto e os limites são obtidos do
+ * {@link BatteryChangeCalculator} e do {@link BatteryLimitsApplier}, e a soma usa a mesma aritmética
+ * de {@code int}, então o resultado é idêntico a chamar {@link BatteryMonitor#getBattery(int[])} por
+ * dispositivo. Requer {@code --add-modules jdk.incubator.vector}.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * SIMD (Vector API) kernel that evaluates the battery of many devices at once.
+ *
+ * <p>Events use a structure-of-arrays layout: {@code events[t * deviceCount + d]} is event {@code t}
+ * of device {@code d}. Events are walked in memory order, one step at a time, and each vector lane
+ * tracks one device, applying "add then clamp" with {@code add}/{@code max}/{@code min}; devices that
+ * do not fill a whole vector are processed with the scalar helpers. Per-minute rates and limits are taken from the {@link BatteryChangeCalculator} and
+ * the {@link BatteryLimitsApplier}, and the addition uses the same {@code int} arithmetic, so the result
+ * is identical to calling {@link BatteryMonitor#getBattery(int[])} per device.
+ * Requires {@code --add-modules jdk.incubator.vector}.</p>
+ */
+public class BatteryVectorKernel {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private final BatteryChangeCalculator changeCalculator;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+
+    private final int chargingRate;
+    private final int consumptionRate;
+    private final int minBattery;
+    private final int maxBattery;
+
+    public BatteryVectorKernel() {
+        this(new BatteryChangeCalculator(), new BatteryLevelUpdater(), new BatteryLimitsApplier());
+    }
+
+    public BatteryVectorKernel(
+            final BatteryChangeCalculator changeCalculator,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier
+    ) {
+        this.changeCalculator = changeCalculator;
+        this.levelUpdater = levelUpdater;
+        this.limitsApplier = limitsApplier;
+        this.chargingRate = changeCalculator.calculateChargingIncrease(1);
+        this.consumptionRate = changeCalculator.calculateGamingDecrease(1);
+        this.minBattery = limitsApplier.applyBatteryLimits(Integer.MIN_VALUE);
+        this.maxBattery = limitsApplier.applyBatteryLimits(Integer.MAX_VALUE);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Avalia o nível final de cada dispositivo a partir da carga inicial padrão. Sem eventos e sem
+     * dispositivos, retorna imediatamente sem tocar em {@code levels}.
+     *
+     * @param events      eventos em layout estrutura-de-arrays
+     * @param deviceCount quantidade de dispositivos
+     * @param levels      array de saída com pelo menos {@code deviceCount} posições
+     */
+
+    /**
+     *
+     * English
+     *
+     * Evaluates the final level of each device starting from the default initial charge. With no events
+     * and no devices, returns immediately without touching {@code levels}.
+     *
+     * @param events      events in structure-of-arrays layout
+     * @param deviceCount number of devices
+     * @param levels      output array with at least {@code deviceCount} positions
+     */
+    public void evaluate(final int[] events, final int deviceCount, final int[] levels) {
+        if (deviceCount == 0 && events.length == 0) {
+            return;
+        }
+        if (deviceCount <= 0 || events.length % deviceCount != 0) {
+            throw new IllegalArgumentException(
+                    "Events length " + events.length + " is not a multiple of device count " + deviceCount);
+        }
+        if (levels.length < deviceCount) {
+            throw new IllegalArgumentException("Output array smaller than device count " + deviceCount);
+        }
+
+        final int vectorBound = SPECIES.loopBound(deviceCount);
+        Arrays.fill(levels, 0, deviceCount, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+
+        for (int base = 0; base < events.length; base += deviceCount) {
+            for (int device = 0; device < vectorBound; device += SPECIES.length()) {
+                final IntVector event = IntVector.fromArray(SPECIES, events, base + device);
+                final VectorMask<Integer> charging = event.compare(VectorOperators.GT, 0);
+                final IntVector change = event.mul(consumptionRate).blend(event.mul(chargingRate), charging);
+                IntVector.fromArray(SPECIES, levels, device)
+                        .add(change)
+                        .max(minBattery)
+                        .min(maxBattery)
+                        .intoArray(levels, device);
+            }
+
+            for (int device = vectorBound; device < deviceCount; device++) {
+                final int change = changeCalculator.calculateBatteryChange(events[base + device]);
+                final int level = levelUpdater.updateBatteryLevel(levels[device], change);
+                levels[device] = limitsApplier.applyBatteryLimits(level);
+            }
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Converte históricos por dispositivo para o layout estrutura-de-arrays, completando os históricos
+     * mais curtos com eventos neutros ({@code 0}).
+     *
+     * @param perDevice um array de eventos por dispositivo
+     * @return eventos em layout estrutura-de-arrays
+     */
+
+    /**
+     *
+     * English
+     *
+     * Converts per-device histories to the structure-of-arrays layout, padding shorter histories with
+     * neutral events ({@code 0}).
+     *
+     * @param perDevice one events array per device
+     * @return events in structure-of-arrays layout
+     */
+    public static int[] interleave(final int[][] perDevice) {
+        int steps = 0;
+        for (int[] history : perDevice) {
+            steps = Math.max(steps, history.length);
+        }
+
+        final int deviceCount = perDevice.length;
+        final int[] events = new int[Math.multiplyExact(steps, deviceCount)];
+        for (int device = 0; device < deviceCount; device++) {
+            final int[] history = perDevice[device];
+            for (int step = 0; step < history.length; step++) {
+                events[step * deviceCount + device] = history[step];
+            }
+        }
+        return events;
+    }
+}
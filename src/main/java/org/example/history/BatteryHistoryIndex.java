@@ -0,0 +1,273 @@
+package org.example.history;
+
+import org.example.BatteryMonitor;
+import org.example.functions.transform.BatteryTransformComposer;
+
+/**
+ *
+ * Português
+ *
+ * Índice de histórico de eventos baseado em uma árvore de segmentos de transformações compostas.
+ *
+ * <p>Construído uma única vez a partir de um array de eventos, responde em O(log n) ao nível da bateria
+ * após um evento qualquer, ao efeito de um intervalo de eventos sobre um nível inicial e aceita
+ * correções pontuais de eventos também em O(log n).</p>
+ *
+ * <p>Eventos cuja variação poderia causar overflow ao ser somada ao nível não são transformações
+ * ({@link BatteryTransformComposer#NOT_COMPOSABLE}); os nós que os contêm são percorridos até as folhas e
+ * esses eventos são aplicados com as regras sequenciais, de modo que os resultados são idênticos a
+ * {@link BatteryMonitor#getBattery(int[])}. Suporta até {@link #MAX_EVENTS} eventos.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Event history index backed by a segment tree of composed transforms.
+ *
+ * <p>Built once from an events array, it answers in O(log n) the battery level after any event,
+ * the effect of a range of events on a starting level, and accepts point corrections of events
+ * also in O(log n).</p>
+ *
+ * <p>Events whose change could overflow when added to the level are not transforms
+ * ({@link BatteryTransformComposer#NOT_COMPOSABLE}); nodes containing them are walked down to the leaves
+ * and those events are applied with the sequential rules, so results are identical to
+ * {@link BatteryMonitor#getBattery(int[])}. Supports up to {@link #MAX_EVENTS} events.</p>
+ */
+public class BatteryHistoryIndex {
+
+    /**
+     * Português
+     *
+     * Quantidade máxima de eventos, limitada pelo tamanho da árvore em um array. */
+
+    /**
+     * English
+     *
+     * Maximum number of events, bounded by the size of the tree in one array. */
+
+    public static final int MAX_EVENTS = 1 << 29;
+
+    private final BatteryTransformComposer composer;
+    private final int size;
+    private final int leafOffset;
+    private final int[] tree;
+    private final int[] events;
+
+    public BatteryHistoryIndex(final int[] events) {
+        this(events, new BatteryTransformComposer());
+    }
+
+    public BatteryHistoryIndex(final int[] events, final BatteryTransformComposer composer) {
+        if (events.length > MAX_EVENTS) {
+            throw new IllegalArgumentException("At most " + MAX_EVENTS + " events are supported: " + events.length);
+        }
+        this.composer = composer;
+        this.size = events.length;
+        this.events = events.clone();
+
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        this.leafOffset = capacity;
+        this.tree = new int[2 * capacity];
+
+        final int identity = composer.identity();
+        for (int i = 0; i < capacity; i++) {
+            tree[capacity + i] = i < size ? composer.fromEvent(events[i]) : identity;
+        }
+        for (int node = capacity - 1; node > 0; node--) {
+            tree[node] = composer.compose(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de eventos indexados.
+     *
+     * @return número de eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of indexed events.
+     *
+     * @return number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível da bateria após o evento {@code eventIndex}, partindo da carga inicial padrão.
+     *
+     * @param eventIndex índice do evento (0 a {@code size() - 1})
+     * @return nível da bateria após o evento (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the battery level after event {@code eventIndex}, starting from the default initial charge.
+     *
+     * @param eventIndex event index (0 to {@code size() - 1})
+     * @return battery level after the event (0-100)
+     */
+    public int levelAfter(final int eventIndex) {
+        checkIndex(eventIndex);
+        return applyRange(BatteryMonitor.INITIAL_BATTERY_LEVEL, 0, eventIndex + 1);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Aplica os eventos do intervalo {@code [from, to)} a partir de um nível inicial.
+     *
+     * @param startLevel nível inicial (0-100)
+     * @param from       índice inicial (inclusivo)
+     * @param to         índice final (exclusivo)
+     * @return nível da bateria após o intervalo
+     * @throws IllegalArgumentException se {@code startLevel} estiver fora de 0-100
+     */
+
+    /**
+     *
+     * English
+     *
+     * Applies the events in the {@code [from, to)} range starting from a given level.
+     *
+     * @param startLevel starting level (0-100)
+     * @param from       start index (inclusive)
+     * @param to         end index (exclusive)
+     * @return battery level after the range
+     * @throws IllegalArgumentException if {@code startLevel} is outside 0-100
+     */
+    public int applyRange(final int startLevel, final int from, final int to) {
+        if (startLevel < 0 || startLevel > 100) {
+            throw new IllegalArgumentException("Start level out of range: " + startLevel);
+        }
+        final int transform = rangeTransform(from, to);
+        if (transform != BatteryTransformComposer.NOT_COMPOSABLE) {
+            return composer.apply(transform, startLevel);
+        }
+        return applyNode(1, 0, leafOffset, from, to, startLevel);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a transformação composta dos eventos do intervalo {@code [from, to)}.
+     *
+     * @param from índice inicial (inclusivo)
+     * @param to   índice final (exclusivo)
+     * @return transformação empacotada do intervalo, ou {@link BatteryTransformComposer#NOT_COMPOSABLE}
+     *         se algum evento do intervalo não for composável
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the composed transform of the events in the {@code [from, to)} range.
+     *
+     * @param from start index (inclusive)
+     * @param to   end index (exclusive)
+     * @return packed transform of the range, or {@link BatteryTransformComposer#NOT_COMPOSABLE} if some
+     *         event in the range is not composable
+     */
+    public int rangeTransform(final int from, final int to) {
+        if (from < 0 || to > size || from > to) {
+            throw new IndexOutOfBoundsException("Invalid range [" + from + ", " + to + ") for size " + size);
+        }
+
+        int left = composer.identity();
+        int right = composer.identity();
+        int lo = from + leafOffset;
+        int hi = to + leafOffset;
+        while (lo < hi) {
+            if ((lo & 1) == 1) {
+                left = composer.compose(left, tree[lo++]);
+            }
+            if ((hi & 1) == 1) {
+                right = composer.compose(tree[--hi], right);
+            }
+            lo >>>= 1;
+            hi >>>= 1;
+        }
+        return composer.compose(left, right);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Substitui um evento (correção tardia) e recalcula os nós afetados.
+     *
+     * @param eventIndex índice do evento a substituir
+     * @param event      novo valor do evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Replaces one event (late correction) and recomputes the affected nodes.
+     *
+     * @param eventIndex index of the event to replace
+     * @param event      new event value
+     */
+    public void update(final int eventIndex, final int event) {
+        checkIndex(eventIndex);
+        events[eventIndex] = event;
+        int node = eventIndex + leafOffset;
+        tree[node] = composer.fromEvent(event);
+        for (node >>>= 1; node > 0; node >>>= 1) {
+            tree[node] = composer.compose(tree[2 * node], tree[2 * node + 1]);
+        }
+    }
+
+    private int applyNode(
+            final int node,
+            final int nodeFrom,
+            final int nodeTo,
+            final int from,
+            final int to,
+            final int level
+    ) {
+        if (from <= nodeFrom && nodeTo <= to) {
+            if (tree[node] != BatteryTransformComposer.NOT_COMPOSABLE) {
+                return composer.apply(tree[node], level);
+            }
+            if (node >= leafOffset) {
+                return composer.applyEvent(level, events[node - leafOffset]);
+            }
+        }
+
+        final int middle = (nodeFrom + nodeTo) >>> 1;
+        int result = level;
+        if (from < middle) {
+            result = applyNode(2 * node, nodeFrom, middle, from, to, result);
+        }
+        if (to > middle) {
+            result = applyNode(2 * node + 1, middle, nodeTo, from, to, result);
+        }
+        return result;
+    }
+
+    private void checkIndex(final int eventIndex) {
+        if (eventIndex < 0 || eventIndex >= size) {
+            throw new IndexOutOfBoundsException("Event index " + eventIndex + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.io;
+
+/**
+ *
+ * Português
+ *
+ * Constantes do formato binário de arquivos de eventos de bateria.
+ *
+ * <p>Layout (little-endian):
+ * <pre>
+ *  0  int   magic ("BATE")
+ *  4  byte  versão
+ *  5  byte  flags ({@link #FLAG_VARINT}, {@link #FLAG_DEVICE_ID})
+ *  6  short reservado (0)
+ *  8  long  quantidade de registros
+ * 16  registros: [deviceId] evento
+ * </pre>
+ * Sem {@link #FLAG_VARINT}, o deviceId ocupa 8 bytes e o evento 4 bytes. Com {@link #FLAG_VARINT},
+ * o deviceId é um LEB128 sem sinal de 64 bits e o evento um varint zigzag de 32 bits.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Constants of the binary battery event file format.
+ *
+ * <p>Layout (little-endian):
+ * <pre>
+ *  0  int   magic ("BATE")
+ *  4  byte  version
+ *  5  byte  flags ({@link #FLAG_VARINT}, {@link #FLAG_DEVICE_ID})
+ *  6  short reserved (0)
+ *  8  long  record count
+ * 16  records: [deviceId] event
+ * </pre>
+ * Without {@link #FLAG_VARINT}, the deviceId takes 8 bytes and the event 4 bytes. With {@link #FLAG_VARINT},
+ * the deviceId is an unsigned 64-bit LEB128 and the event a 32-bit zigzag varint.</p>
+ */
+public final class BatteryEventFileFormat {
+
+    public static final int MAGIC = 0x45544142;
+    public static final byte VERSION = 1;
+
+    public static final byte FLAG_VARINT = 0x01;
+    public static final byte FLAG_DEVICE_ID = 0x02;
+
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_COUNT_OFFSET = 8;
+
+    /**
+     * Português
+     *
+     * Maior tamanho possível de um registro (deviceId varint de 10 bytes + evento varint de 5 bytes). */
+
+    /**
+     * English
+     *
+     * Largest possible record size (10-byte varint deviceId + 5-byte varint event). */
+
+    public static final int MAX_RECORD_SIZE = 15;
+
+    private BatteryEventFileFormat() {
+    }
+}
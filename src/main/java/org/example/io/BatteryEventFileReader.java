@@ -0,0 +1,323 @@
+package org.example.io;
+
+import org.example.fleet.FleetBatteryEngine;
+import org.example.stream.BatterySession;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * Português
+ *
+ * Reproduz arquivos no formato {@link BatteryEventFileFormat} mapeando-os em memória.
+ *
+ * <p>O arquivo é lido por janelas de {@link FileChannel#map}, decodificando cada registro diretamente do
+ * buffer mapeado, sem copiar eventos para arrays no heap. Arquivos maiores que uma janela são
+ * percorridos remapeando a partir do primeiro registro ainda não lido.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Replays files in the {@link BatteryEventFileFormat} format by memory-mapping them.
+ *
+ * <p>The file is read through {@link FileChannel#map} windows, decoding each record directly from the
+ * mapped buffer, without copying events into heap arrays. Files larger than one window are traversed
+ * by remapping from the first record not read yet.</p>
+ */
+public class BatteryEventFileReader implements AutoCloseable {
+
+    /**
+     * Português
+     *
+     * Tamanho padrão da janela de mapeamento (1 GiB). */
+
+    /**
+     * English
+     *
+     * Default mapping window size (1 GiB). */
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final int windowSize;
+    private final boolean varint;
+    private final boolean withDeviceIds;
+    private final long recordCount;
+
+    private BatteryEventFileReader(
+            final FileChannel channel,
+            final int windowSize,
+            final byte flags,
+            final long recordCount
+    ) throws IOException {
+        this.channel = channel;
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        this.varint = (flags & BatteryEventFileFormat.FLAG_VARINT) != 0;
+        this.withDeviceIds = (flags & BatteryEventFileFormat.FLAG_DEVICE_ID) != 0;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre um arquivo de eventos com a janela de mapeamento padrão.
+     *
+     * @param path caminho do arquivo
+     * @return leitor pronto para uso
+     * @throws IOException se o arquivo não existir ou o cabeçalho for inválido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens an event file with the default mapping window.
+     *
+     * @param path file path
+     * @return reader ready for use
+     * @throws IOException if the file does not exist or the header is invalid
+     */
+    public static BatteryEventFileReader open(final Path path) throws IOException {
+        return open(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre um arquivo de eventos com uma janela de mapeamento específica.
+     *
+     * @param path       caminho do arquivo
+     * @param windowSize tamanho máximo de cada janela mapeada, em bytes
+     * @return leitor pronto para uso
+     * @throws IOException se o arquivo não existir ou o cabeçalho for inválido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens an event file with a specific mapping window.
+     *
+     * @param path       file path
+     * @param windowSize maximum size of each mapped window, in bytes
+     * @return reader ready for use
+     * @throws IOException if the file does not exist or the header is invalid
+     */
+    public static BatteryEventFileReader open(final Path path, final int windowSize) throws IOException {
+        if (windowSize < 2 * BatteryEventFileFormat.MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Window size too small: " + windowSize);
+        }
+
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(BatteryEventFileFormat.HEADER_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new EOFException("Incomplete header in " + path);
+                }
+            }
+            if (header.getInt(0) != BatteryEventFileFormat.MAGIC) {
+                throw new IOException("Not a battery event file: " + path);
+            }
+            if (header.get(4) != BatteryEventFileFormat.VERSION) {
+                throw new IOException("Unsupported battery event file version " + header.get(4) + ": " + path);
+            }
+            return new BatteryEventFileReader(channel, windowSize, header.get(5),
+                    header.getLong(BatteryEventFileFormat.RECORD_COUNT_OFFSET));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de registros declarada no cabeçalho.
+     *
+     * @return número de registros
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the record count declared in the header.
+     *
+     * @return number of records
+     */
+    public long recordCount() {
+        return recordCount;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Indica se cada registro possui um identificador de dispositivo.
+     *
+     * @return {@code true} se o arquivo possui identificadores de dispositivo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether each record carries a device identifier.
+     *
+     * @return {@code true} if the file has device identifiers
+     */
+    public boolean hasDeviceIds() {
+        return withDeviceIds;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Reproduz os eventos de um arquivo sem dispositivos em uma sessão de bateria.
+     *
+     * @param session sessão que recebe os eventos
+     * @return nível da bateria após todos os eventos
+     * @throws IOException se o arquivo estiver truncado ou não puder ser lido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Replays the events of a file without devices into a battery session.
+     *
+     * @param session session receiving the events
+     * @return battery level after all events
+     * @throws IOException if the file is truncated or cannot be read
+     */
+    public int replay(final BatterySession session) throws IOException {
+        if (withDeviceIds) {
+            throw new IllegalStateException("File has device ids; replay it into a FleetBatteryEngine");
+        }
+        forEachRecord((deviceId, event) -> session.accept(event));
+        return session.currentLevel();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Reproduz os eventos de um arquivo com dispositivos em um motor de frota.
+     *
+     * @param engine motor que recebe os eventos
+     * @throws IOException se o arquivo estiver truncado ou não puder ser lido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Replays the events of a file with devices into a fleet engine.
+     *
+     * @param engine engine receiving the events
+     * @throws IOException if the file is truncated or cannot be read
+     */
+    public void replay(final FleetBatteryEngine engine) throws IOException {
+        if (!withDeviceIds) {
+            throw new IllegalStateException("File has no device ids; replay it into a BatterySession");
+        }
+        forEachRecord(engine::apply);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Percorre todos os registros do arquivo, em ordem.
+     *
+     * @param consumer consumidor dos registros
+     * @throws IOException se o arquivo estiver truncado ou não puder ser lido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Iterates over every record of the file, in order.
+     *
+     * @param consumer record consumer
+     * @throws IOException if the file is truncated or cannot be read
+     */
+    public void forEachRecord(final EventRecordConsumer consumer) throws IOException {
+        long position = BatteryEventFileFormat.HEADER_SIZE;
+        long remaining = recordCount;
+
+        while (remaining > 0) {
+            final long length = Math.min(windowSize, fileSize - position);
+            if (length <= 0) {
+                throw new EOFException("Truncated battery event file: " + remaining + " records missing");
+            }
+
+            final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            final boolean lastWindow = position + length == fileSize;
+            final int safeLimit = lastWindow ? (int) length : (int) length - BatteryEventFileFormat.MAX_RECORD_SIZE;
+
+            try {
+                while (remaining > 0 && window.position() <= safeLimit) {
+                    final long deviceId = withDeviceIds ? readDeviceId(window) : 0L;
+                    consumer.accept(deviceId, readEvent(window));
+                    remaining--;
+                }
+            } catch (BufferUnderflowException e) {
+                throw new EOFException("Truncated battery event file: " + remaining + " records missing");
+            }
+            if (lastWindow && remaining > 0) {
+                throw new EOFException("Truncated battery event file: " + remaining + " records missing");
+            }
+            position += window.position();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long readDeviceId(final ByteBuffer buffer) {
+        return varint ? readUnsignedVarLong(buffer) : buffer.getLong();
+    }
+
+    private int readEvent(final ByteBuffer buffer) {
+        if (!varint) {
+            return buffer.getInt();
+        }
+        final int zigzag = (int) readUnsignedVarLong(buffer);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+
+    private static long readUnsignedVarLong(final ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte current;
+        do {
+            current = buffer.get();
+            value |= (long) (current & 0x7F) << shift;
+            shift += 7;
+        } while (current < 0);
+        return value;
+    }
+}
@@ -0,0 +1,224 @@
+package org.example.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ *
+ * Português
+ *
+ * Grava arquivos de eventos no formato {@link BatteryEventFileFormat}.
+ *
+ * <p>Os registros são acumulados em um buffer reutilizável e gravados em blocos; a quantidade de
+ * registros é escrita no cabeçalho ao fechar o arquivo.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Writes event files in the {@link BatteryEventFileFormat} format.
+ *
+ * <p>Records are accumulated in a reusable buffer and written in blocks; the record count is written
+ * to the header when the file is closed.</p>
+ */
+public class BatteryEventFileWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean varint;
+    private final boolean withDeviceIds;
+    private long recordCount;
+
+    private BatteryEventFileWriter(final FileChannel channel, final boolean varint, final boolean withDeviceIds) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.varint = varint;
+        this.withDeviceIds = withDeviceIds;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria (ou substitui) um arquivo de eventos.
+     *
+     * @param path          caminho do arquivo
+     * @param varint        {@code true} para codificação varint, {@code false} para int32 fixo
+     * @param withDeviceIds {@code true} para gravar um identificador de dispositivo por registro
+     * @return gravador pronto para uso
+     * @throws IOException se o arquivo não puder ser criado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates (or replaces) an event file.
+     *
+     * @param path          file path
+     * @param varint        {@code true} for varint encoding, {@code false} for fixed int32
+     * @param withDeviceIds {@code true} to write one device identifier per record
+     * @return writer ready for use
+     * @throws IOException if the file cannot be created
+     */
+    public static BatteryEventFileWriter create(final Path path, final boolean varint, final boolean withDeviceIds)
+            throws IOException {
+        final FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final BatteryEventFileWriter writer = new BatteryEventFileWriter(channel, varint, withDeviceIds);
+        writer.writeHeader();
+        return writer;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava um evento em um arquivo sem identificadores de dispositivo.
+     *
+     * @param event duração do evento
+     * @throws IOException se a gravação falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes one event to a file without device identifiers.
+     *
+     * @param event event duration
+     * @throws IOException if writing fails
+     */
+    public void write(final int event) throws IOException {
+        if (withDeviceIds) {
+            throw new IllegalStateException("This file requires a device id per record");
+        }
+        ensureCapacity();
+        putEvent(event);
+        recordCount++;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava um evento de um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento
+     * @throws IOException se a gravação falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes one event of a device.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration
+     * @throws IOException if writing fails
+     */
+    public void write(final long deviceId, final int event) throws IOException {
+        if (!withDeviceIds) {
+            throw new IllegalStateException("This file was created without device ids");
+        }
+        ensureCapacity();
+        if (varint) {
+            putUnsignedVarLong(deviceId);
+        } else {
+            buffer.putLong(deviceId);
+        }
+        putEvent(event);
+        recordCount++;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava todos os eventos de um array em um arquivo sem identificadores de dispositivo.
+     *
+     * @param events array de eventos
+     * @throws IOException se a gravação falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes every event of an array to a file without device identifiers.
+     *
+     * @param events events array
+     * @throws IOException if writing fails
+     */
+    public void writeAll(final int[] events) throws IOException {
+        for (int event : events) {
+            write(event);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+            final ByteBuffer count = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            count.putLong(0, recordCount);
+            channel.write(count, BatteryEventFileFormat.RECORD_COUNT_OFFSET);
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        byte flags = 0;
+        if (varint) {
+            flags |= BatteryEventFileFormat.FLAG_VARINT;
+        }
+        if (withDeviceIds) {
+            flags |= BatteryEventFileFormat.FLAG_DEVICE_ID;
+        }
+        buffer.putInt(BatteryEventFileFormat.MAGIC)
+                .put(BatteryEventFileFormat.VERSION)
+                .put(flags)
+                .putShort((short) 0)
+                .putLong(0L);
+    }
+
+    private void putEvent(final int event) {
+        if (varint) {
+            putUnsignedVarLong(Integer.toUnsignedLong((event << 1) ^ (event >> 31)));
+        } else {
+            buffer.putInt(event);
+        }
+    }
+
+    private void putUnsignedVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureCapacity() throws IOException {
+        if (buffer.remaining() < BatteryEventFileFormat.MAX_RECORD_SIZE) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,279 @@
+package org.example.io;
+
+import org.example.fleet.FleetBatteryEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ *
+ * Português
+ *
+ * Leitor de exportações em texto (CSV ou NDJSON) com interpretação paralela.
+ *
+ * <p>O arquivo é mapeado em janelas (limitadas a 2 GB pelo {@link MappedByteBuffer}) que terminam em
+ * uma quebra de linha. Cada janela é dividida em trechos de cerca de {@code chunkSize} bytes, também
+ * alinhados a quebras de linha; a cada rodada, um trecho por slot é interpretado em paralelo por um
+ * {@link BatteryTextParser} para um {@link EventChunk} reutilizado. Os registros são então entregues em
+ * ordem de arquivo, para que os eventos de um mesmo dispositivo sejam aplicados na ordem correta. Após a
+ * primeira rodada, a leitura não aloca memória por linha nem por trecho.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Reader of text exports (CSV or NDJSON) with parallel parsing.
+ *
+ * <p>The file is mapped in windows (capped at 2 GB by {@link MappedByteBuffer}) that end at a line
+ * break. Each window is split into ranges of about {@code chunkSize} bytes, also aligned to line
+ * breaks; on each round, one range per slot is parsed in parallel by a {@link BatteryTextParser} into a
+ * reused {@link EventChunk}. Records are then delivered in file order, so that the events of a device
+ * are applied in the right order. After the first round, reading allocates nothing per line or per
+ * range.</p>
+ */
+public class BatteryTextFileReader implements AutoCloseable {
+
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 30;
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+
+    private final FileChannel channel;
+    private final BatteryTextFormat format;
+    private final long fileSize;
+    private final long dataStart;
+    private final int windowSize;
+    private final int chunkSize;
+
+    private BatteryTextFileReader(
+            final FileChannel channel,
+            final BatteryTextFormat format,
+            final long dataStart,
+            final int windowSize,
+            final int chunkSize
+    ) throws IOException {
+        this.channel = channel;
+        this.format = format;
+        this.fileSize = channel.size();
+        this.dataStart = dataStart;
+        this.windowSize = windowSize;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre um arquivo de texto com janelas e trechos de tamanho padrão.
+     *
+     * @param path   caminho do arquivo
+     * @param format formato do arquivo
+     * @return leitor aberto
+     * @throws IOException se o arquivo não puder ser aberto
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens a text file with default window and chunk sizes.
+     *
+     * @param path   file path
+     * @param format file format
+     * @return open reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static BatteryTextFileReader open(final Path path, final BatteryTextFormat format) throws IOException {
+        return open(path, format, DEFAULT_WINDOW_SIZE, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre um arquivo de texto. Em CSV, uma primeira linha que não comece por número é tratada como
+     * cabeçalho e ignorada.
+     *
+     * @param path       caminho do arquivo
+     * @param format     formato do arquivo
+     * @param windowSize tamanho máximo de cada janela mapeada (maior que a linha mais longa)
+     * @param chunkSize  tamanho aproximado de cada trecho interpretado por uma thread
+     * @return leitor aberto
+     * @throws IOException se o arquivo não puder ser aberto
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens a text file. In CSV, a first line that does not start with a number is treated as a header
+     * and skipped.
+     *
+     * @param path       file path
+     * @param format     file format
+     * @param windowSize maximum size of each mapped window (larger than the longest line)
+     * @param chunkSize  approximate size of each range parsed by one thread
+     * @return open reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static BatteryTextFileReader open(
+            final Path path,
+            final BatteryTextFormat format,
+            final int windowSize,
+            final int chunkSize
+    ) throws IOException {
+        if (chunkSize < 1 || windowSize < chunkSize) {
+            throw new IllegalArgumentException("Invalid window/chunk sizes: " + windowSize + "/" + chunkSize);
+        }
+
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new BatteryTextFileReader(channel, format, dataStart(channel, format), windowSize, chunkSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Aplica todos os registros do arquivo a uma frota, interpretando no pool comum.
+     *
+     * @param engine motor de frota que recebe os eventos
+     * @return quantidade de registros aplicados
+     * @throws IOException se a leitura falhar ou alguma linha for inválida
+     */
+
+    /**
+     *
+     * English
+     *
+     * Applies every record of the file to a fleet, parsing on the common pool.
+     *
+     * @param engine fleet engine receiving the events
+     * @return number of records applied
+     * @throws IOException if reading fails or a line is invalid
+     */
+    public long replay(final FleetBatteryEngine engine) throws IOException {
+        return forEachRecord(engine::apply, ForkJoinPool.commonPool());
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Entrega todos os registros do arquivo ao consumidor, em ordem de arquivo.
+     *
+     * @param consumer consumidor dos registros, chamado sempre pela thread atual
+     * @param pool     pool fork/join que interpreta os trechos
+     * @return quantidade de registros entregues
+     * @throws IOException se a leitura falhar ou alguma linha for inválida
+     */
+
+    /**
+     *
+     * English
+     *
+     * Delivers every record of the file to the consumer, in file order.
+     *
+     * @param consumer record consumer, always called by the current thread
+     * @param pool     fork/join pool parsing the ranges
+     * @return number of records delivered
+     * @throws IOException if reading fails or a line is invalid
+     */
+    public long forEachRecord(final EventRecordConsumer consumer, final ForkJoinPool pool) throws IOException {
+        final int slots = Math.max(1, pool.getParallelism() * 2);
+        final BatteryTextParser[] parsers = new BatteryTextParser[slots];
+        final EventChunk[] chunks = new EventChunk[slots];
+        for (int i = 0; i < slots; i++) {
+            parsers[i] = new BatteryTextParser(format);
+            chunks[i] = new EventChunk();
+        }
+        final int[] starts = new int[slots + 1];
+        final int[] errors = new int[slots];
+
+        long records = 0L;
+        long position = dataStart;
+        while (position < fileSize) {
+            final long length = Math.min(windowSize, fileSize - position);
+            final MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            final int limit = position + length == fileSize ? (int) length : lastLineEnd(window, (int) length);
+            if (limit == 0) {
+                throw new IOException("Line longer than the window size at byte " + position);
+            }
+
+            int chunkStart = 0;
+            while (chunkStart < limit) {
+                int count = 0;
+                starts[0] = chunkStart;
+                while (count < slots && starts[count] < limit) {
+                    starts[count + 1] = nextLineStart(window, starts[count] + chunkSize, limit);
+                    count++;
+                }
+                pool.invoke(new BatteryTextParseTask(window, starts, parsers, chunks, errors, 0, count));
+
+                for (int i = 0; i < count; i++) {
+                    if (errors[i] != BatteryTextParser.NO_ERROR) {
+                        throw new IOException("Malformed " + format + " line at byte " + (position + errors[i]));
+                    }
+                    chunks[i].forEach(consumer);
+                    records += chunks[i].size();
+                }
+                chunkStart = starts[count];
+            }
+            position += limit;
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static long dataStart(final FileChannel channel, final BatteryTextFormat format) throws IOException {
+        if (format != BatteryTextFormat.CSV || channel.size() == 0) {
+            return 0L;
+        }
+        final ByteBuffer head = ByteBuffer.allocate((int) Math.min(channel.size(), 4096));
+        channel.read(head, 0L);
+        head.flip();
+        final byte first = head.get(0);
+        if (first == '-' || (first >= '0' && first <= '9')) {
+            return 0L;
+        }
+        for (int i = 0; i < head.limit(); i++) {
+            if (head.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return head.limit() == channel.size() ? channel.size() : 0L;
+    }
+
+    private static int lastLineEnd(final ByteBuffer window, final int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int nextLineStart(final ByteBuffer window, final int target, final int limit) {
+        if (target >= limit || target < 0) {
+            return limit;
+        }
+        for (int i = target - 1; i < limit; i++) {
+            if (window.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.io;
+
+/**
+ *
+ * Português
+ *
+ * Formatos de texto aceitos por {@link BatteryTextFileReader}.
+ */
+
+/**
+ *
+ * English
+ *
+ * Text formats accepted by {@link BatteryTextFileReader}.
+ */
+public enum BatteryTextFormat {
+
+    /**
+     * Português
+     *
+     * Uma linha {@code deviceId,timestamp,minutes} por evento, com cabeçalho opcional na primeira linha. */
+
+    /**
+     * English
+     *
+     * One {@code deviceId,timestamp,minutes} line per event, with an optional header on the first line. */
+
+    CSV,
+
+    /**
+     * Português
+     *
+     * Um objeto JSON por linha com as chaves {@code deviceId} e {@code minutes}; as demais são ignoradas. */
+
+    /**
+     * English
+     *
+     * One JSON object per line with the {@code deviceId} and {@code minutes} keys; others are ignored. */
+
+    NDJSON
+}
@@ -0,0 +1,66 @@
+package org.example.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ *
+ * Português
+ *
+ * Tarefa fork/join que interpreta uma rodada de trechos de texto, cada um com seu parser e seu buffer de
+ * registros. O intervalo de trechos é dividido ao meio até restar um único trecho.
+ */
+
+/**
+ *
+ * English
+ *
+ * Fork/join task parsing one round of text ranges, each with its own parser and record buffer. The
+ * range of chunks is split in half until a single chunk is left.
+ */
+class BatteryTextParseTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient ByteBuffer window;
+    private final int[] starts;
+    private final transient BatteryTextParser[] parsers;
+    private final transient EventChunk[] chunks;
+    private final int[] errors;
+    private final int fromChunk;
+    private final int toChunk;
+
+    BatteryTextParseTask(
+            final ByteBuffer window,
+            final int[] starts,
+            final BatteryTextParser[] parsers,
+            final EventChunk[] chunks,
+            final int[] errors,
+            final int fromChunk,
+            final int toChunk
+    ) {
+        this.window = window;
+        this.starts = starts;
+        this.parsers = parsers;
+        this.chunks = chunks;
+        this.errors = errors;
+        this.fromChunk = fromChunk;
+        this.toChunk = toChunk;
+    }
+
+    @Override
+    protected void compute() {
+        if (toChunk - fromChunk > 1) {
+            final int middle = (fromChunk + toChunk) >>> 1;
+            invokeAll(
+                    new BatteryTextParseTask(window, starts, parsers, chunks, errors, fromChunk, middle),
+                    new BatteryTextParseTask(window, starts, parsers, chunks, errors, middle, toChunk)
+            );
+            return;
+        }
+
+        chunks[fromChunk].clear();
+        errors[fromChunk] = parsers[fromChunk].parse(window, starts[fromChunk], starts[fromChunk + 1],
+                chunks[fromChunk]);
+    }
+}
@@ -0,0 +1,297 @@
+package org.example.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * Português
+ *
+ * Parser de linhas CSV ou NDJSON que lê bytes diretamente de um {@link ByteBuffer}.
+ *
+ * <p>Não cria {@code String}s nem objetos por linha: números são acumulados dígito a dígito, chaves JSON
+ * são comparadas byte a byte e os registros vão para um {@link EventChunk}. Usa apenas leituras
+ * absolutas, então vários parsers podem ler o mesmo buffer em paralelo, cada um no seu trecho. O campo
+ * {@code timestamp} é ignorado: os eventos são aplicados na ordem do arquivo. Cada instância guarda o
+ * cursor da linha atual e não é segura para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * CSV or NDJSON line parser reading bytes straight from a {@link ByteBuffer}.
+ *
+ * <p>It creates no {@code String}s or per-line objects: numbers are accumulated digit by digit, JSON
+ * keys are compared byte by byte and records go into an {@link EventChunk}. It only uses absolute reads,
+ * so several parsers can read the same buffer in parallel, each on its own range. The
+ * {@code timestamp} field is ignored: events are applied in file order. Each instance holds the cursor
+ * of the current line and is not safe for concurrent use.</p>
+ */
+public final class BatteryTextParser {
+
+    /**
+     * Português
+     *
+     * Valor retornado por {@link #parse} quando todas as linhas são válidas. */
+
+    /**
+     * English
+     *
+     * Value returned by {@link #parse} when every line is valid. */
+
+    public static final int NO_ERROR = -1;
+
+    private static final byte[] DEVICE_ID_KEY = "deviceId".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MINUTES_KEY = "minutes".getBytes(StandardCharsets.US_ASCII);
+
+    private final BatteryTextFormat format;
+
+    private ByteBuffer buffer;
+    private int position;
+    private int lineEnd;
+    private boolean malformed;
+
+    public BatteryTextParser(final BatteryTextFormat format) {
+        this.format = format;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Lê as linhas do trecho {@code [from, to)}, que deve começar no início de uma linha, acrescentando
+     * um registro por linha não vazia.
+     *
+     * @param buffer buffer com o texto (não tem a posição alterada)
+     * @param from   índice inicial (inclusivo)
+     * @param to     índice final (exclusivo)
+     * @param chunk  destino dos registros
+     * @return índice do início da primeira linha inválida, ou {@link #NO_ERROR}
+     */
+
+    /**
+     *
+     * English
+     *
+     * Reads the lines of the {@code [from, to)} range, which must start at the beginning of a line,
+     * appending one record per non-blank line.
+     *
+     * @param buffer buffer holding the text (its position is not changed)
+     * @param from   start index (inclusive)
+     * @param to     end index (exclusive)
+     * @param chunk  record destination
+     * @return index of the start of the first invalid line, or {@link #NO_ERROR}
+     */
+    public int parse(final ByteBuffer buffer, final int from, final int to, final EventChunk chunk) {
+        this.buffer = buffer;
+        int lineStart = from;
+        while (lineStart < to) {
+            int newline = lineStart;
+            while (newline < to && buffer.get(newline) != '\n') {
+                newline++;
+            }
+            lineEnd = newline > lineStart && buffer.get(newline - 1) == '\r' ? newline - 1 : newline;
+            position = lineStart;
+            malformed = false;
+            skipWhitespace();
+            if (position < lineEnd) {
+                final boolean parsed = format == BatteryTextFormat.CSV ? parseCsvLine(chunk) : parseJsonLine(chunk);
+                if (!parsed) {
+                    return lineStart;
+                }
+            }
+            lineStart = newline + 1;
+        }
+        return NO_ERROR;
+    }
+
+    private boolean parseCsvLine(final EventChunk chunk) {
+        final long deviceId = parseLong();
+        if (malformed || !expect(',')) {
+            return false;
+        }
+        while (position < lineEnd && buffer.get(position) != ',') {
+            position++;
+        }
+        if (!expect(',')) {
+            return false;
+        }
+        final int minutes = parseInt();
+        if (malformed || position != lineEnd) {
+            return false;
+        }
+        chunk.add(deviceId, minutes);
+        return true;
+    }
+
+    private boolean parseJsonLine(final EventChunk chunk) {
+        if (!expect('{')) {
+            return false;
+        }
+        long deviceId = 0L;
+        int minutes = 0;
+        boolean hasDeviceId = false;
+        boolean hasMinutes = false;
+
+        while (true) {
+            if (position >= lineEnd || buffer.get(position) != '"') {
+                return false;
+            }
+            final int keyStart = position + 1;
+            skipString();
+            final int keyEnd = position - 1;
+            if (malformed || !expect(':')) {
+                return false;
+            }
+
+            if (keyEquals(keyStart, keyEnd, DEVICE_ID_KEY)) {
+                deviceId = parseQuotedLong();
+                hasDeviceId = true;
+            } else if (keyEquals(keyStart, keyEnd, MINUTES_KEY)) {
+                minutes = parseInt();
+                hasMinutes = true;
+            } else {
+                skipValue();
+            }
+            if (malformed) {
+                return false;
+            }
+
+            if (expect(',')) {
+                continue;
+            }
+            if (expect('}')) {
+                break;
+            }
+            return false;
+        }
+        if (position != lineEnd || !hasDeviceId || !hasMinutes) {
+            return false;
+        }
+        chunk.add(deviceId, minutes);
+        return true;
+    }
+
+    private long parseQuotedLong() {
+        if (position < lineEnd && buffer.get(position) == '"') {
+            position++;
+            final long value = parseLong();
+            if (position >= lineEnd || buffer.get(position) != '"') {
+                malformed = true;
+            }
+            position++;
+            skipWhitespace();
+            return value;
+        }
+        return parseLong();
+    }
+
+    private int parseInt() {
+        final long value = parseLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            malformed = true;
+        }
+        return (int) value;
+    }
+
+    private long parseLong() {
+        final boolean negative = position < lineEnd && buffer.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        final int digitsStart = position;
+        long value = 0L;
+        while (position < lineEnd) {
+            final int digit = buffer.get(position) - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            if (value < (Long.MIN_VALUE + digit) / 10) {
+                malformed = true;
+                return 0L;
+            }
+            value = value * 10 - digit;
+            position++;
+        }
+        if (position == digitsStart || (!negative && value == Long.MIN_VALUE)) {
+            malformed = true;
+            return 0L;
+        }
+        skipWhitespace();
+        return negative ? value : -value;
+    }
+
+    private void skipValue() {
+        int depth = 0;
+        while (position < lineEnd) {
+            final byte b = buffer.get(position);
+            if (b == '"') {
+                skipString();
+                if (malformed) {
+                    return;
+                }
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) {
+                    return;
+                }
+                depth--;
+            } else if (b == ',' && depth == 0) {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private void skipString() {
+        position++;
+        while (position < lineEnd) {
+            final byte b = buffer.get(position);
+            if (b == '\\') {
+                position += 2;
+            } else if (b == '"') {
+                position++;
+                return;
+            } else {
+                position++;
+            }
+        }
+        malformed = true;
+    }
+
+    private boolean keyEquals(final int start, final int end, final byte[] key) {
+        if (end - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean expect(final char expected) {
+        skipWhitespace();
+        if (position < lineEnd && buffer.get(position) == expected) {
+            position++;
+            skipWhitespace();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < lineEnd) {
+            final byte b = buffer.get(position);
+            if (b != ' ' && b != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.io;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Português
+ *
+ * Buffer reutilizável de registros (dispositivo, evento) em arrays primitivos paralelos.
+ *
+ * <p>Os arrays só crescem; depois de {@link #clear()} o buffer é reaproveitado sem alocação. Não é
+ * seguro para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Reusable buffer of (device, event) records in parallel primitive arrays.
+ *
+ * <p>Arrays only grow; after {@link #clear()} the buffer is reused without allocating. Not safe for
+ * concurrent use.</p>
+ */
+public final class EventChunk {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private long[] deviceIds;
+    private int[] events;
+    private int size;
+
+    public EventChunk() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um buffer com capacidade inicial.
+     *
+     * @param capacity quantidade de registros comportada sem crescer
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a buffer with an initial capacity.
+     *
+     * @param capacity number of records held without growing
+     */
+    public EventChunk(final int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.deviceIds = new long[capacity];
+        this.events = new int[capacity];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Acrescenta um registro.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Appends one record.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration
+     */
+    public void add(final long deviceId, final int event) {
+        if (size == events.length) {
+            final int capacity = events.length + (events.length >>> 1);
+            deviceIds = Arrays.copyOf(deviceIds, capacity);
+            events = Arrays.copyOf(events, capacity);
+        }
+        deviceIds[size] = deviceId;
+        events[size] = event;
+        size++;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de registros.
+     *
+     * @return quantidade de registros
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of records.
+     *
+     * @return number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o dispositivo de um registro.
+     *
+     * @param index índice do registro
+     * @return identificador do dispositivo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the device of one record.
+     *
+     * @param index record index
+     * @return device identifier
+     */
+    public long deviceId(final int index) {
+        return deviceIds[index];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o evento de um registro.
+     *
+     * @param index índice do registro
+     * @return duração do evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the event of one record.
+     *
+     * @param index record index
+     * @return event duration
+     */
+    public int event(final int index) {
+        return events[index];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Esvazia o buffer, mantendo a capacidade.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Empties the buffer, keeping its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Entrega os registros ao consumidor, em ordem.
+     *
+     * @param consumer consumidor dos registros
+     */
+
+    /**
+     *
+     * English
+     *
+     * Delivers the records to the consumer, in order.
+     *
+     * @param consumer record consumer
+     */
+    public void forEach(final EventRecordConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(deviceIds[i], events[i]);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.io;
+
+/**
+ *
+ * Português
+ *
+ * Consumidor primitivo de registros (dispositivo, evento) lidos de uma fonte de eventos.
+ */
+
+/**
+ *
+ * English
+ *
+ * Primitive consumer of (device, event) records read from an event source.
+ */
+@FunctionalInterface
+public interface EventRecordConsumer {
+
+    /**
+     *
+     * Português
+     *
+     * Recebe um registro.
+     *
+     * @param deviceId identificador do dispositivo (0 quando a fonte não possui dispositivos)
+     * @param event    duração do evento (positivo carrega, negativo consome)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Receives one record.
+     *
+     * @param deviceId device identifier (0 when the source has no devices)
+     * @param event    event duration (positive charges, negative drains)
+     */
+    void accept(long deviceId, int event);
+}
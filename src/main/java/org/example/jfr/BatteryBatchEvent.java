@@ -0,0 +1,124 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ *
+ * Português
+ *
+ * Evento JFR com duração para cada chamada de {@code BatteryMonitor.getBattery(int[])}.
+ *
+ * <p>Desabilitado por padrão; habilite-o em uma gravação (por exemplo com
+ * {@code -XX:StartFlightRecording:settings=profile} e {@code org.example.BatteryBatch#enabled=true}) para
+ * correlacionar a latência do processamento com GC e safepoints. Com o evento desabilitado, o custo é a
+ * leitura de um campo volátil por chamada, sem instanciar o evento.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Timed JFR event for each call of {@code BatteryMonitor.getBattery(int[])}.
+ *
+ * <p>Disabled by default; enable it in a recording (for example with
+ * {@code -XX:StartFlightRecording:settings=profile} and {@code org.example.BatteryBatch#enabled=true}) to
+ * correlate processing latency with GC and safepoints. With the event disabled, the cost is one volatile
+ * field read per call, without instantiating the event.</p>
+ */
+@Name("org.example.BatteryBatch")
+@Label("Battery Batch")
+@Category({"Battery Monitor"})
+@Description("One getBattery call over an events array")
+@Enabled(false)
+@StackTrace(false)
+public class BatteryBatchEvent extends Event {
+
+    private static final JfrEventState STATE = new JfrEventState(BatteryBatchEvent.class);
+
+    @Label("Event Count")
+    int eventCount;
+
+    @Label("Start Level")
+    int startLevel;
+
+    @Label("End Level")
+    int endLevel;
+
+    @Label("Upper Clamp Hits")
+    @Description("Times the 100% cap fired")
+    int upperClampHits;
+
+    @Label("Lower Clamp Hits")
+    @Description("Times the 0% floor fired")
+    int lowerClampHits;
+
+    /**
+     *
+     * Português
+     *
+     * Indica se alguma gravação em andamento habilitou este evento.
+     *
+     * @return {@code true} se as chamadas devem ser gravadas
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether a running recording enabled this event.
+     *
+     * @return {@code true} if calls should be recorded
+     */
+    public static boolean isRecording() {
+        return STATE.isEnabled();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Encerra a medição e grava o evento com os resultados da chamada, se a gravação o aceitar.
+     *
+     * @param eventCount     quantidade de eventos processados
+     * @param startLevel     nível inicial
+     * @param endLevel       nível final
+     * @param upperClampHits vezes em que o limite de 100% foi aplicado
+     * @param lowerClampHits vezes em que o limite de 0% foi aplicado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Ends the measurement and records the event with the call's results, if the recording accepts it.
+     *
+     * @param eventCount     number of processed events
+     * @param startLevel     initial level
+     * @param endLevel       final level
+     * @param upperClampHits times the 100% cap was applied
+     * @param lowerClampHits times the 0% floor was applied
+     */
+    public void finish(
+            final int eventCount,
+            final int startLevel,
+            final int endLevel,
+            final int upperClampHits,
+            final int lowerClampHits
+    ) {
+        end();
+        if (shouldCommit()) {
+            this.eventCount = eventCount;
+            this.startLevel = startLevel;
+            this.endLevel = endLevel;
+            this.upperClampHits = upperClampHits;
+            this.lowerClampHits = lowerClampHits;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ *
+ * Português
+ *
+ * Evento JFR amostrado para cada vez que o caminho instrumentado de {@code BatteryMonitor} fixa o nível
+ * em 0% ou 100%.
+ *
+ * <p>Desabilitado por padrão. Como os limites podem disparar a cada evento em traços saturados, apenas
+ * um em cada {@link #SAMPLE_RATE} disparos é gravado (sorteio por thread, sem contenção), e o campo
+ * {@code sampleWeight} permite estimar o total. O estado do evento é atualizado a cada mudança de estado
+ * de uma gravação e lido uma vez por chamada; o limite em si ({@code BatteryLimitsApplier}) não depende
+ * do JFR.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Sampled JFR event for each time the instrumented path of {@code BatteryMonitor} pins the level to 0%
+ * or 100%.
+ *
+ * <p>Disabled by default. Since the limits may fire on every event in saturated traces, only one in
+ * {@link #SAMPLE_RATE} firings is recorded (per-thread draw, no contention), and the {@code sampleWeight}
+ * field allows estimating the total. The event state is refreshed on every recording state change and
+ * read once per call; the clamp itself ({@code BatteryLimitsApplier}) does not depend on JFR.</p>
+ */
+@Name("org.example.BatteryLimitHit")
+@Label("Battery Limit Hit")
+@Category({"Battery Monitor"})
+@Description("Sampled firing of the 0% or 100% battery clamp")
+@Enabled(false)
+@StackTrace(false)
+public class BatteryLimitHitEvent extends Event {
+
+    public static final int SAMPLE_RATE = 256;
+
+    private static final JfrEventState STATE = new JfrEventState(BatteryLimitHitEvent.class);
+
+    @Label("Uncapped Level")
+    @Description("Level before the clamp was applied")
+    int uncappedLevel;
+
+    @Label("Limited Level")
+    @Description("Limit the level was pinned to")
+    int limitedLevel;
+
+    @Label("Sample Weight")
+    @Description("Number of firings represented by this sample")
+    int sampleWeight;
+
+    /**
+     *
+     * Português
+     *
+     * Indica se alguma gravação em andamento habilitou este evento.
+     *
+     * @return {@code true} se os disparos devem ser amostrados
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether a running recording enabled this event.
+     *
+     * @return {@code true} if firings should be sampled
+     */
+    public static boolean isSampling() {
+        return STATE.isEnabled();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava uma amostra do disparo, se o evento estiver habilitado e o sorteio o selecionar.
+     *
+     * @param uncappedLevel nível antes do limite
+     * @param limitedLevel  limite aplicado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Records a sample of the firing, if the event is enabled and the draw selects it.
+     *
+     * @param uncappedLevel level before the clamp
+     * @param limitedLevel  applied limit
+     */
+    public static void sample(final int uncappedLevel, final int limitedLevel) {
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) != 0) {
+            return;
+        }
+        final BatteryLimitHitEvent event = new BatteryLimitHitEvent();
+        if (event.isEnabled()) {
+            event.uncappedLevel = uncappedLevel;
+            event.limitedLevel = limitedLevel;
+            event.sampleWeight = SAMPLE_RATE;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+
+/**
+ *
+ * Português
+ *
+ * Guarda se um tipo de evento JFR está habilitado em alguma gravação, atualizado a cada mudança de estado
+ * de uma gravação. Permite testar o estado sem instanciar o evento; o campo é volátil e deve ser lido uma
+ * vez por chamada, fora dos laços.
+ */
+
+/**
+ *
+ * English
+ *
+ * Keeps whether a JFR event type is enabled in some recording, refreshed on every recording state change.
+ * It allows testing the state without instantiating the event; the field is volatile and should be read
+ * once per call, outside loops.
+ */
+final class JfrEventState {
+
+    private final Class<? extends Event> eventClass;
+    private volatile boolean enabled;
+
+    JfrEventState(final Class<? extends Event> eventClass) {
+        this.eventClass = eventClass;
+        FlightRecorder.addListener(new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(final Recording recording) {
+                refresh();
+            }
+        });
+        if (FlightRecorder.isInitialized()) {
+            refresh();
+        }
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    private void refresh() {
+        enabled = EventType.getEventType(eventClass).isEnabled();
+    }
+}
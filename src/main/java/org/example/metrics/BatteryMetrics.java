@@ -0,0 +1,282 @@
+package org.example.metrics;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Português
+ *
+ * Métricas opcionais de um {@link org.example.BatteryMonitor}: contadores de eventos por tipo, disparos
+ * dos limites de 0% e 100% e um {@link LatencyHistogram} por chamada.
+ *
+ * <p>Os contadores são {@link LongAdder}s, que distribuem a contenção entre células por thread. Nos laços
+ * de {@code getBattery} as contagens são acumuladas em variáveis locais e somadas uma vez por chamada.
+ * Um monitor criado sem métricas paga apenas uma verificação de {@code null} por chamada. Os valores
+ * podem ser lidos por {@link #snapshot()} ou via JMX, após {@link #registerMBean(String)}.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Optional metrics of a {@link org.example.BatteryMonitor}: event counters by type, firings of the 0% and
+ * 100% clamps and a per-call {@link LatencyHistogram}.
+ *
+ * <p>Counters are {@link LongAdder}s, which spread contention over per-thread cells. In the
+ * {@code getBattery} loops, counts are accumulated in local variables and added once per call. A monitor
+ * created without metrics only pays one {@code null} check per call. Values can be read through
+ * {@link #snapshot()} or over JMX, after {@link #registerMBean(String)}.</p>
+ */
+public class BatteryMetrics implements BatteryMetricsMXBean {
+
+    public static final String OBJECT_NAME_PREFIX = "org.example:type=BatteryMetrics,name=";
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder eventsProcessed = new LongAdder();
+    private final LongAdder chargingEvents = new LongAdder();
+    private final LongAdder gamingEvents = new LongAdder();
+    private final LongAdder neutralEvents = new LongAdder();
+    private final LongAdder upperClampHits = new LongAdder();
+    private final LongAdder lowerClampHits = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     *
+     * Português
+     *
+     * Registra uma chamada completa com suas contagens acumuladas.
+     *
+     * @param nanos       duração da chamada em nanossegundos
+     * @param events      eventos processados
+     * @param charging    eventos de carregamento
+     * @param gaming      eventos de jogo
+     * @param upperClamps vezes em que o limite de 100% foi aplicado
+     * @param lowerClamps vezes em que o limite de 0% foi aplicado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Records a whole call with its accumulated counts.
+     *
+     * @param nanos       call duration in nanoseconds
+     * @param events      processed events
+     * @param charging    charging events
+     * @param gaming      gaming events
+     * @param upperClamps times the 100% cap fired
+     * @param lowerClamps times the 0% floor fired
+     */
+    public void recordCall(
+            final long nanos,
+            final long events,
+            final long charging,
+            final long gaming,
+            final long upperClamps,
+            final long lowerClamps
+    ) {
+        eventsProcessed.add(events);
+        chargingEvents.add(charging);
+        gamingEvents.add(gaming);
+        neutralEvents.add(events - charging - gaming);
+        upperClampHits.add(upperClamps);
+        lowerClampHits.add(lowerClamps);
+        recordLatency(nanos);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Registra um único evento, para laços que já têm custo por evento alto (como
+     * {@code demonstrateProcess}).
+     *
+     * @param charging   {@code true} para evento de carregamento
+     * @param gaming     {@code true} para evento de jogo
+     * @param upperClamp {@code true} se o limite de 100% foi aplicado
+     * @param lowerClamp {@code true} se o limite de 0% foi aplicado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Records a single event, for loops that already have a high per-event cost (such as
+     * {@code demonstrateProcess}).
+     *
+     * @param charging   {@code true} for a charging event
+     * @param gaming     {@code true} for a gaming event
+     * @param upperClamp {@code true} if the 100% cap fired
+     * @param lowerClamp {@code true} if the 0% floor fired
+     */
+    public void recordEvent(
+            final boolean charging,
+            final boolean gaming,
+            final boolean upperClamp,
+            final boolean lowerClamp
+    ) {
+        eventsProcessed.increment();
+        (charging ? chargingEvents : gaming ? gamingEvents : neutralEvents).increment();
+        if (upperClamp) {
+            upperClampHits.increment();
+        } else if (lowerClamp) {
+            lowerClampHits.increment();
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Registra a latência de uma chamada cujos eventos foram registrados com
+     * {@link #recordEvent(boolean, boolean, boolean, boolean)}.
+     *
+     * @param nanos duração da chamada em nanossegundos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Records the latency of a call whose events were recorded with
+     * {@link #recordEvent(boolean, boolean, boolean, boolean)}.
+     *
+     * @param nanos call duration in nanoseconds
+     */
+    public void recordLatency(final long nanos) {
+        calls.increment();
+        latency.record(nanos);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Copia o estado atual das métricas.
+     *
+     * @return cópia imutável dos contadores e do histograma
+     */
+
+    /**
+     *
+     * English
+     *
+     * Copies the current state of the metrics.
+     *
+     * @return immutable copy of the counters and histogram
+     */
+    public BatteryMetricsSnapshot snapshot() {
+        return new BatteryMetricsSnapshot(
+                calls.sum(),
+                eventsProcessed.sum(),
+                chargingEvents.sum(),
+                gamingEvents.sum(),
+                neutralEvents.sum(),
+                upperClampHits.sum(),
+                lowerClampHits.sum(),
+                latency.snapshot()
+        );
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Registra estas métricas no servidor de MBeans da plataforma.
+     *
+     * @param name valor da chave {@code name} do {@link ObjectName}
+     * @return nome sob o qual o MBean foi registrado
+     * @throws JMException se o nome for inválido ou já estiver registrado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Registers these metrics with the platform MBean server.
+     *
+     * @param name value of the {@code name} key of the {@link ObjectName}
+     * @return name under which the MBean was registered
+     * @throws JMException if the name is invalid or already registered
+     */
+    public ObjectName registerMBean(final String name) throws JMException {
+        final ObjectName objectName = new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getEventsProcessed() {
+        return eventsProcessed.sum();
+    }
+
+    @Override
+    public long getChargingEvents() {
+        return chargingEvents.sum();
+    }
+
+    @Override
+    public long getGamingEvents() {
+        return gamingEvents.sum();
+    }
+
+    @Override
+    public long getNeutralEvents() {
+        return neutralEvents.sum();
+    }
+
+    @Override
+    public long getUpperClampHits() {
+        return upperClampHits.sum();
+    }
+
+    @Override
+    public long getLowerClampHits() {
+        return lowerClampHits.sum();
+    }
+
+    @Override
+    public double getMeanLatencyNanos() {
+        return latency.snapshot().mean();
+    }
+
+    @Override
+    public long getP50LatencyNanos() {
+        return latency.snapshot().valueAtPercentile(50.0);
+    }
+
+    @Override
+    public long getP99LatencyNanos() {
+        return latency.snapshot().valueAtPercentile(99.0);
+    }
+
+    @Override
+    public long getP999LatencyNanos() {
+        return latency.snapshot().valueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getMaxLatencyNanos() {
+        return latency.snapshot().max();
+    }
+
+    @Override
+    public void reset() {
+        calls.reset();
+        eventsProcessed.reset();
+        chargingEvents.reset();
+        gamingEvents.reset();
+        neutralEvents.reset();
+        upperClampHits.reset();
+        lowerClampHits.reset();
+        latency.reset();
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.metrics;
+
+/**
+ *
+ * Português
+ *
+ * Interface JMX de {@link BatteryMetrics}. Latências em nanossegundos.
+ */
+
+/**
+ *
+ * English
+ *
+ * JMX interface of {@link BatteryMetrics}. Latencies in nanoseconds.
+ */
+public interface BatteryMetricsMXBean {
+
+    long getCalls();
+
+    long getEventsProcessed();
+
+    long getChargingEvents();
+
+    long getGamingEvents();
+
+    long getNeutralEvents();
+
+    long getUpperClampHits();
+
+    long getLowerClampHits();
+
+    double getMeanLatencyNanos();
+
+    long getP50LatencyNanos();
+
+    long getP99LatencyNanos();
+
+    long getP999LatencyNanos();
+
+    long getMaxLatencyNanos();
+
+    void reset();
+}
@@ -0,0 +1,94 @@
+package org.example.metrics;
+
+/**
+ *
+ * Português
+ *
+ * Cópia imutável dos contadores e do histograma de latência de um {@link BatteryMetrics}.
+ */
+
+/**
+ *
+ * English
+ *
+ * Immutable copy of the counters and latency histogram of a {@link BatteryMetrics}.
+ */
+public final class BatteryMetricsSnapshot {
+
+    private final long calls;
+    private final long eventsProcessed;
+    private final long chargingEvents;
+    private final long gamingEvents;
+    private final long neutralEvents;
+    private final long upperClampHits;
+    private final long lowerClampHits;
+    private final LatencySnapshot latency;
+
+    BatteryMetricsSnapshot(
+            final long calls,
+            final long eventsProcessed,
+            final long chargingEvents,
+            final long gamingEvents,
+            final long neutralEvents,
+            final long upperClampHits,
+            final long lowerClampHits,
+            final LatencySnapshot latency
+    ) {
+        this.calls = calls;
+        this.eventsProcessed = eventsProcessed;
+        this.chargingEvents = chargingEvents;
+        this.gamingEvents = gamingEvents;
+        this.neutralEvents = neutralEvents;
+        this.upperClampHits = upperClampHits;
+        this.lowerClampHits = lowerClampHits;
+        this.latency = latency;
+    }
+
+    /**
+     * Português: chamadas instrumentadas. English: instrumented calls. */
+    public long calls() {
+        return calls;
+    }
+
+    /**
+     * Português: eventos processados. English: processed events. */
+    public long eventsProcessed() {
+        return eventsProcessed;
+    }
+
+    /**
+     * Português: eventos de carregamento. English: charging events. */
+    public long chargingEvents() {
+        return chargingEvents;
+    }
+
+    /**
+     * Português: eventos de jogo. English: gaming events. */
+    public long gamingEvents() {
+        return gamingEvents;
+    }
+
+    /**
+     * Português: eventos neutros. English: neutral events. */
+    public long neutralEvents() {
+        return neutralEvents;
+    }
+
+    /**
+     * Português: vezes em que o limite de 100% foi aplicado. English: times the 100% cap fired. */
+    public long upperClampHits() {
+        return upperClampHits;
+    }
+
+    /**
+     * Português: vezes em que o limite de 0% foi aplicado. English: times the 0% floor fired. */
+    public long lowerClampHits() {
+        return lowerClampHits;
+    }
+
+    /**
+     * Português: latência por chamada. English: per-call latency. */
+    public LatencySnapshot latency() {
+        return latency;
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *
+ * Português
+ *
+ * Histograma de latências no estilo HDR, com buckets log-lineares de tamanho fixo.
+ *
+ * <p>Valores abaixo de 32 ns têm um bucket cada; acima disso, cada potência de dois é dividida em 32
+ * sub-buckets, o que limita o erro relativo dos percentis a cerca de 3% em toda a faixa de um
+ * {@code long}, com menos de 2.000 contadores. A gravação é um cálculo de índice com bits e um incremento
+ * atômico, sem alocação nem lock. Seguro para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * HDR-style latency histogram with fixed-size log-linear buckets.
+ *
+ * <p>Values below 32 ns get one bucket each; above that, every power of two is split into 32
+ * sub-buckets, which bounds the relative error of percentiles to about 3% over the whole {@code long}
+ * range, with fewer than 2,000 counters. Recording is a bit-twiddling index computation and one atomic
+ * increment, with no allocation or lock. Safe for concurrent use.</p>
+ */
+public class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     *
+     * Português
+     *
+     * Registra uma latência.
+     *
+     * @param nanos duração em nanossegundos (valores negativos contam como 0)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Records one latency.
+     *
+     * @param nanos duration in nanoseconds (negative values count as 0)
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0L, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Copia o estado atual do histograma. Gravações concorrentes podem ou não ser incluídas.
+     *
+     * @return cópia imutável do histograma
+     */
+
+    /**
+     *
+     * English
+     *
+     * Copies the current state of the histogram. Concurrent recordings may or may not be included.
+     *
+     * @return immutable copy of the histogram
+     */
+    public LatencySnapshot snapshot() {
+        final long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new LatencySnapshot(copy, count, sum.sum(), max.get());
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Zera o histograma.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Clears the histogram.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    static long bucketUpperBound(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        final long lower = (long) (SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,129 @@
+package org.example.metrics;
+
+/**
+ *
+ * Português
+ *
+ * Cópia imutável de um {@link LatencyHistogram}, com contagem, média, máximo e percentis.
+ */
+
+/**
+ *
+ * English
+ *
+ * Immutable copy of a {@link LatencyHistogram}, with count, mean, maximum and percentiles.
+ */
+public final class LatencySnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    LatencySnapshot(final long[] counts, final long count, final long sum, final long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de latências registradas.
+     *
+     * @return número de registros
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of recorded latencies.
+     *
+     * @return number of recordings
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a latência média.
+     *
+     * @return média em nanossegundos, ou 0 sem registros
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the mean latency.
+     *
+     * @return mean in nanoseconds, or 0 without recordings
+     */
+    public double mean() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a maior latência registrada.
+     *
+     * @return máximo em nanossegundos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the largest recorded latency.
+     *
+     * @return maximum in nanoseconds
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a latência no percentil informado, com erro relativo de cerca de 3%.
+     *
+     * @param percentile percentil entre 0 e 100
+     * @return latência em nanossegundos, ou 0 sem registros
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the latency at the given percentile, with a relative error of about 3%.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return latency in nanoseconds, or 0 without recordings
+     */
+    public long valueAtPercentile(final double percentile) {
+        if (percentile < 0.0 || percentile > 100.0) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, LatencyHistogram.bucketUpperBound(i));
+            }
+        }
+        return max;
+    }
+}
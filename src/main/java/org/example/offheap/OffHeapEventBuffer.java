@@ -0,0 +1,495 @@
+package org.example.offheap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ *
+ * Português
+ *
+ * Buffer de eventos fora do heap, com índices {@code long}, para históricos com mais de
+ * {@code Integer.MAX_VALUE} eventos.
+ *
+ * <p>Os eventos ficam em páginas de {@code 2^pageShift} inteiros, cada uma um
+ * {@link MappedByteBuffer} na ordem nativa sobre uma região de um arquivo temporário; um índice
+ * {@code long} vira (página, deslocamento) com um shift e uma máscara. As páginas são mapeadas sob demanda
+ * à medida que eventos são acrescentados, então a capacidade declarada não reserva memória. O conteúdo não
+ * é varrido pelo GC e, ao contrário de buffers diretos, não conta para {@code -XX:MaxDirectMemorySize}
+ * (que por padrão é igual a {@code -Xmx}): o sistema operacional mantém as páginas no cache de páginas e
+ * as grava no arquivo sob pressão de memória, de modo que o histórico pode ser maior que o heap e que a
+ * RAM. O arquivo é removido ao abrir, para não sobrar após uma queda (em sistemas que não apagam arquivos
+ * abertos, {@code DELETE_ON_CLOSE} o remove depois), e truncado em {@link #close()}, o que libera
+ * imediatamente suas páginas; os intervalos de endereço são desmapeados quando o GC coleta os buffers. Escritas não são
+ * seguras para uso concorrente; leituras concorrentes de um buffer que não está mais sendo escrito
+ * são.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Off-heap event buffer with {@code long} indices, for histories with more than
+ * {@code Integer.MAX_VALUE} events.
+ *
+ * <p>Events live in pages of {@code 2^pageShift} ints, each a native-order {@link MappedByteBuffer} over
+ * a region of a temporary file; a {@code long} index becomes (page, offset) with one shift and one mask.
+ * Pages are mapped on demand as events are appended, so the declared capacity reserves no memory. The
+ * content is not scanned by the GC and, unlike direct buffers, does not count against
+ * {@code -XX:MaxDirectMemorySize} (which defaults to {@code -Xmx}): the operating system keeps the pages
+ * in its page cache and writes them to the file under memory pressure, so the history can be larger than
+ * the heap and than RAM. The file is deleted as soon as it is opened, so nothing is left after a crash (on
+ * systems that cannot delete open files, {@code DELETE_ON_CLOSE} removes it later), and truncated on
+ * {@link #close()}, which releases its pages immediately; the address ranges are unmapped when the GC collects the
+ * buffers. Writes are not safe for concurrent use; concurrent reads of a buffer that is no longer being
+ * written are.</p>
+ */
+public final class OffHeapEventBuffer implements AutoCloseable {
+
+    /**
+     * Português
+     *
+     * Páginas padrão de 2^28 eventos (1 GB), abaixo do limite de 2 GB de um {@link MappedByteBuffer}. */
+
+    /**
+     * English
+     *
+     * Default pages of 2^28 events (1 GB), below the 2 GB limit of a {@link MappedByteBuffer}. */
+
+    public static final int DEFAULT_PAGE_SHIFT = 28;
+
+    private static final int MAX_PAGE_SHIFT = 28;
+
+    private static final String FILE_PREFIX = "battery-events-";
+    private static final String FILE_SUFFIX = ".bin";
+
+    private final long capacity;
+    private final int pageShift;
+    private final int pageMask;
+    private final Path directory;
+    private FileChannel file;
+    private IntBuffer[] pages;
+    private int allocatedPages;
+    private long size;
+
+    private OffHeapEventBuffer(final long capacity, final int pageShift, final Path directory) {
+        this.capacity = capacity;
+        this.directory = directory;
+        this.pageShift = pageShift;
+        this.pageMask = (1 << pageShift) - 1;
+        this.pages = new IntBuffer[(int) ((capacity + pageMask) >>> pageShift)];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um buffer com páginas de tamanho padrão.
+     *
+     * @param capacity quantidade máxima de eventos
+     * @return buffer vazio
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a buffer with default-size pages.
+     *
+     * @param capacity maximum number of events
+     * @return empty buffer
+     */
+    public static OffHeapEventBuffer allocate(final long capacity) {
+        return allocate(capacity, DEFAULT_PAGE_SHIFT);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um buffer com páginas de {@code 2^pageShift} eventos.
+     *
+     * @param capacity  quantidade máxima de eventos
+     * @param pageShift logaritmo na base 2 do tamanho da página (entre 0 e 28)
+     * @return buffer vazio
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a buffer with pages of {@code 2^pageShift} events.
+     *
+     * @param capacity  maximum number of events
+     * @param pageShift base-2 logarithm of the page size (between 0 and 28)
+     * @return empty buffer
+     */
+    public static OffHeapEventBuffer allocate(final long capacity, final int pageShift) {
+        return allocate(capacity, pageShift, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um buffer cujo arquivo de apoio fica em {@code directory}. Em um diretório {@code tmpfs} as
+     * páginas ficam na RAM e na swap; para históricos maiores que a RAM, use um disco.
+     *
+     * @param capacity  quantidade máxima de eventos
+     * @param pageShift logaritmo na base 2 do tamanho da página (entre 0 e 28)
+     * @param directory diretório do arquivo temporário
+     * @return buffer vazio
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a buffer whose backing file lives in {@code directory}. On a {@code tmpfs} directory pages
+     * stay in RAM and swap; for histories larger than RAM, use a disk.
+     *
+     * @param capacity  maximum number of events
+     * @param pageShift base-2 logarithm of the page size (between 0 and 28)
+     * @param directory directory of the temporary file
+     * @return empty buffer
+     */
+    public static OffHeapEventBuffer allocate(final long capacity, final int pageShift, final Path directory) {
+        Objects.requireNonNull(directory, "directory");
+        if (pageShift < 0 || pageShift > MAX_PAGE_SHIFT) {
+            throw new IllegalArgumentException("Page shift must be between 0 and " + MAX_PAGE_SHIFT + ": " + pageShift);
+        }
+        if (capacity < 0 || ((capacity + (1L << pageShift) - 1) >>> pageShift) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid capacity: " + capacity);
+        }
+        return new OffHeapEventBuffer(capacity, pageShift, directory);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Acrescenta um evento ao final.
+     *
+     * @param event duração do evento
+     * @throws IllegalStateException se o buffer estiver cheio ou fechado
+     * @throws UncheckedIOException  se uma nova página não puder ser mapeada
+     */
+
+    /**
+     *
+     * English
+     *
+     * Appends one event at the end.
+     *
+     * @param event event duration
+     * @throws IllegalStateException if the buffer is full or closed
+     * @throws UncheckedIOException  if a new page cannot be mapped
+     */
+    public void append(final int event) {
+        ensureCapacity(size + 1);
+        pages[(int) (size >>> pageShift)].put((int) size & pageMask, event);
+        size++;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Acrescenta um trecho de um array de eventos ao final, página a página.
+     *
+     * @param events array de eventos
+     * @param off    índice do primeiro evento
+     * @param len    quantidade de eventos
+     * @throws IllegalStateException se o buffer não comportar os eventos ou estiver fechado
+     * @throws UncheckedIOException  se uma nova página não puder ser mapeada
+     */
+
+    /**
+     *
+     * English
+     *
+     * Appends a range of an events array at the end, page by page.
+     *
+     * @param events events array
+     * @param off    index of the first event
+     * @param len    number of events
+     * @throws IllegalStateException if the buffer cannot hold the events or is closed
+     * @throws UncheckedIOException  if a new page cannot be mapped
+     */
+    public void append(final int[] events, final int off, final int len) {
+        Objects.checkFromIndexSize(off, len, events.length);
+        ensureCapacity(size + len);
+        int copied = 0;
+        while (copied < len) {
+            final int offset = (int) size & pageMask;
+            final int count = Math.min(len - copied, pageMask + 1 - offset);
+            pages[(int) (size >>> pageShift)].put(offset, events, off + copied, count);
+            copied += count;
+            size += count;
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Lê um evento.
+     *
+     * @param index índice do evento
+     * @return duração do evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Reads one event.
+     *
+     * @param index event index
+     * @return event duration
+     */
+    public int get(final long index) {
+        checkIndex(index);
+        return pages[(int) (index >>> pageShift)].get((int) index & pageMask);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Substitui um evento já acrescentado.
+     *
+     * @param index índice do evento
+     * @param event nova duração do evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Replaces an already appended event.
+     *
+     * @param index event index
+     * @param event new event duration
+     */
+    public void set(final long index, final int event) {
+        checkIndex(index);
+        pages[(int) (index >>> pageShift)].put((int) index & pageMask, event);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a página que contém um índice, para laços que percorrem uma página por vez. Os eventos
+     * válidos da página vão até {@link #pageLength(int)}.
+     *
+     * @param page índice da página
+     * @return visão da página (não copiar nem alterar sua posição)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns one page, for loops that walk one page at a time. Valid events of the page go up to
+     * {@link #pageLength(int)}.
+     *
+     * @param page page index
+     * @return view of the page (do not copy it or change its position)
+     */
+    public IntBuffer page(final int page) {
+        if (page < 0 || page >= allocatedPages) {
+            throw new IndexOutOfBoundsException("Page " + page + " out of bounds for " + allocatedPages + " pages");
+        }
+        return pages[page];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de eventos válidos de uma página.
+     *
+     * @param page índice da página
+     * @return eventos válidos da página
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of valid events of one page.
+     *
+     * @param page page index
+     * @return valid events of the page
+     */
+    public int pageLength(final int page) {
+        return (int) Math.min(pageMask + 1, Math.max(0L, size - ((long) page << pageShift)));
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o logaritmo na base 2 do tamanho da página.
+     *
+     * @return logaritmo do tamanho da página
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the base-2 logarithm of the page size.
+     *
+     * @return page size logarithm
+     */
+    public int pageShift() {
+        return pageShift;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de páginas com eventos.
+     *
+     * @return quantidade de páginas
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of pages holding events.
+     *
+     * @return number of pages
+     */
+    public int pageCount() {
+        return (int) ((size + pageMask) >>> pageShift);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de eventos acrescentados.
+     *
+     * @return quantidade de eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of appended events.
+     *
+     * @return number of events
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade máxima de eventos.
+     *
+     * @return capacidade do buffer
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the maximum number of events.
+     *
+     * @return buffer capacity
+     */
+    public long capacity() {
+        return capacity;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Descarta as páginas e trunca o arquivo de apoio, liberando imediatamente o cache de páginas e o
+     * disco. Os intervalos de endereço são desmapeados quando o GC coleta os {@link MappedByteBuffer}s.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Drops the pages and truncates the backing file, releasing its page cache and disk space
+     * immediately. The address ranges are unmapped when the GC collects the {@link MappedByteBuffer}s.
+     *
+     * @throws UncheckedIOException if the backing file cannot be truncated or closed
+     */
+    @Override
+    public void close() {
+        pages = null;
+        allocatedPages = 0;
+        size = 0;
+        if (file != null) {
+            try (FileChannel channel = file) {
+                file = null;
+                channel.truncate(0L);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void ensureCapacity(final long required) {
+        if (pages == null) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+        if (required > capacity) {
+            throw new IllegalStateException("Buffer is full: capacity " + capacity);
+        }
+        final int requiredPages = (int) ((required + pageMask) >>> pageShift);
+        try {
+            while (allocatedPages < requiredPages) {
+                final long pageStart = (long) allocatedPages << pageShift;
+                final long pageEvents = Math.min(pageMask + 1L, capacity - pageStart);
+                pages[allocatedPages] = backingFile()
+                        .map(FileChannel.MapMode.READ_WRITE, pageStart * Integer.BYTES, pageEvents * Integer.BYTES)
+                        .order(ByteOrder.nativeOrder())
+                        .asIntBuffer();
+                allocatedPages++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map page " + allocatedPages, e);
+        }
+    }
+
+    private FileChannel backingFile() throws IOException {
+        if (file == null) {
+            final Path path = Files.createTempFile(directory, FILE_PREFIX, FILE_SUFFIX);
+            file = FileChannel.open(path,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+            try {
+                Files.delete(path);
+            } catch (IOException e) {
+            }
+        }
+        return file;
+    }
+
+    private void checkIndex(final long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.example.persistence;
+
+import org.example.fleet.DeviceLevelMap;
+import org.example.fleet.FleetBatteryEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ *
+ * Português
+ *
+ * Snapshots binários do nível de todos os dispositivos de um {@link FleetBatteryEngine}.
+ *
+ * <p>Formato (little-endian): cabeçalho de 16 bytes (magic, versão, quantidade de dispositivos e bytes
+ * reservados), a sequência do write-ahead log coberta pelo snapshot, um registro de 9 bytes por
+ * dispositivo (deviceId e nível) e um CRC32C final de todo o conteúdo. O arquivo é gravado em um
+ * temporário, sincronizado e renomeado atomicamente para {@code snapshot-<sequência>.snap}; apenas os
+ * {@link #RETAINED_SNAPSHOTS} mais recentes são mantidos.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Binary snapshots of the level of every device of a {@link FleetBatteryEngine}.
+ *
+ * <p>Format (little-endian): 16-byte header (magic, version, device count and reserved bytes), the
+ * write-ahead log sequence covered by the snapshot, one 9-byte record per device (deviceId and level)
+ * and a trailing CRC32C of the whole content. The file is written to a temporary file, synced and
+ * atomically renamed to {@code snapshot-<sequence>.snap}; only the {@link #RETAINED_SNAPSHOTS} most
+ * recent ones are kept.</p>
+ */
+public final class BatterySnapshotFile {
+
+    public static final int MAGIC = 0x50534D42;
+    public static final byte VERSION = 1;
+    public static final int RETAINED_SNAPSHOTS = 2;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE = Long.BYTES + Byte.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".snap";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private BatterySnapshotFile() {
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava um snapshot do motor cobrindo os registros do log anteriores a {@code walSeq}.
+     *
+     * @param directory diretório dos snapshots
+     * @param engine    motor cujos níveis serão gravados
+     * @param walSeq    sequência do primeiro registro do log ainda não refletido no motor
+     * @return caminho do snapshot gravado
+     * @throws IOException se o snapshot não puder ser gravado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes a snapshot of the engine covering the log records before {@code walSeq}.
+     *
+     * @param directory snapshots directory
+     * @param engine    engine whose levels are written
+     * @param walSeq    sequence of the first log record not reflected in the engine yet
+     * @return path of the written snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static Path write(final Path directory, final FleetBatteryEngine engine, final long walSeq)
+            throws IOException {
+        return write(directory, engine.copyLevels(), walSeq);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava um snapshot de níveis já copiados do motor, cobrindo os registros do log anteriores a
+     * {@code walSeq}. Permite gravar o snapshot fora da thread que aplica os eventos.
+     *
+     * @param directory diretório dos snapshots
+     * @param levels    cópia dos níveis a gravar
+     * @param walSeq    sequência do primeiro registro do log não refletido em {@code levels}
+     * @return caminho do snapshot gravado
+     * @throws IOException se o snapshot não puder ser gravado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes a snapshot of levels already copied from the engine, covering the log records before
+     * {@code walSeq}. It allows writing the snapshot off the thread applying events.
+     *
+     * @param directory snapshots directory
+     * @param levels    copy of the levels to write
+     * @param walSeq    sequence of the first log record not reflected in {@code levels}
+     * @return path of the written snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public static Path write(final Path directory, final DeviceLevelMap levels, final long walSeq)
+            throws IOException {
+        final Path target = snapshotPath(directory, walSeq);
+        final Path temp = directory.resolve(target.getFileName() + TEMP_SUFFIX);
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        final CRC32C checksum = new CRC32C();
+
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buffer.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0)
+                    .putInt(levels.size()).putInt(0)
+                    .putLong(walSeq);
+
+            final IOException[] failure = new IOException[1];
+            levels.forEach((deviceId, level) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    if (buffer.remaining() < ENTRY_SIZE) {
+                        drain(channel, buffer, checksum);
+                    }
+                    buffer.putLong(deviceId).put((byte) level);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+
+            drain(channel, buffer, checksum);
+            buffer.putInt((int) checksum.getValue()).flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        WriteAheadLog.forceDirectory(directory);
+
+        final List<Long> sequences = snapshotSequences(directory);
+        for (int i = 0; i < sequences.size() - RETAINED_SNAPSHOTS; i++) {
+            Files.deleteIfExists(snapshotPath(directory, sequences.get(i)));
+        }
+        return target;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Carrega no motor o snapshot válido mais recente do diretório. Snapshots com CRC inválido ou
+     * truncados são ignorados.
+     *
+     * @param directory diretório dos snapshots
+     * @param engine    motor que recebe os níveis
+     * @return sequência do log coberta pelo snapshot carregado, ou 0 se nenhum foi encontrado
+     * @throws IOException se o diretório não puder ser lido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Loads the most recent valid snapshot of the directory into the engine. Snapshots with an invalid
+     * CRC or truncated ones are skipped.
+     *
+     * @param directory snapshots directory
+     * @param engine    engine receiving the levels
+     * @return log sequence covered by the loaded snapshot, or 0 if none was found
+     * @throws IOException if the directory cannot be read
+     */
+    public static long loadLatest(final Path directory, final FleetBatteryEngine engine) throws IOException {
+        final List<Long> sequences = snapshotSequences(directory);
+        for (int i = sequences.size() - 1; i >= 0; i--) {
+            final ByteBuffer content = readValid(snapshotPath(directory, sequences.get(i)));
+            if (content == null) {
+                continue;
+            }
+            final int deviceCount = content.getInt(8);
+            final long walSeq = content.getLong(16);
+            content.position(HEADER_SIZE + Long.BYTES);
+            for (int d = 0; d < deviceCount; d++) {
+                engine.restore(content.getLong(), content.get());
+            }
+            return walSeq;
+        }
+        return 0L;
+    }
+
+    private static ByteBuffer readValid(final Path path) throws IOException {
+        final byte[] bytes = Files.readAllBytes(path);
+        if (bytes.length < HEADER_SIZE + Long.BYTES + Integer.BYTES) {
+            return null;
+        }
+        final ByteBuffer content = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        final int deviceCount = content.getInt(8);
+        if (content.getInt(0) != MAGIC || content.get(4) != VERSION || deviceCount < 0
+                || bytes.length != HEADER_SIZE + Long.BYTES + (long) deviceCount * ENTRY_SIZE + Integer.BYTES) {
+            return null;
+        }
+        final CRC32C checksum = new CRC32C();
+        checksum.update(bytes, 0, bytes.length - Integer.BYTES);
+        return (int) checksum.getValue() == content.getInt(bytes.length - Integer.BYTES) ? content : null;
+    }
+
+    private static void drain(final FileChannel channel, final ByteBuffer buffer, final CRC32C checksum)
+            throws IOException {
+        buffer.flip();
+        checksum.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static Path snapshotPath(final Path directory, final long walSeq) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, walSeq, SUFFIX));
+    }
+
+    private static List<Long> snapshotSequences(final Path directory) throws IOException {
+        final List<Long> sequences = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return sequences;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .forEach(name -> sequences.add(Long.parseLong(
+                            name.substring(PREFIX.length(), name.length() - SUFFIX.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+}
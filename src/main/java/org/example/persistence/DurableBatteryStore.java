@@ -0,0 +1,450 @@
+package org.example.persistence;
+
+import org.example.fleet.DeviceLevelConsumer;
+import org.example.fleet.DeviceLevelMap;
+import org.example.fleet.FleetBatteryEngine;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * Português
+ *
+ * Estado de bateria por dispositivo durável, combinando {@link FleetBatteryEngine},
+ * {@link WriteAheadLog} e {@link BatterySnapshotFile}.
+ *
+ * <p>Cada evento é acrescentado ao log antes de ser aplicado ao motor. A cada
+ * {@code snapshotIntervalEvents} eventos (ou em {@link #snapshot()}) os níveis são copiados em bloco sob o
+ * lock e uma thread de fundo grava essa cópia em um snapshot e remove os segmentos do log já cobertos pelo
+ * snapshot anterior; a gravação e os {@code fsync} ficam fora do caminho de cada evento. Antes de publicar
+ * o snapshot, a thread de fundo torna duráveis todos os registros que ele cobre, de modo que a sequência
+ * gravada nunca ultrapassa o log durável. Se um snapshot ainda estiver sendo gravado quando o próximo
+ * vencer, a captura espera por ele, o que limita a memória a uma cópia pendente. A falha de um snapshot
+ * automático é relatada pela próxima chamada a {@link #apply(long, int)}, antes de registrar o evento; o
+ * log continua completo e o snapshot seguinte tenta de novo. Na abertura, o snapshot
+ * válido mais recente é carregado e apenas a cauda do log posterior a ele é reproduzida, de modo que o tempo
+ * de reinício depende do número de dispositivos e dos eventos desde o último snapshot, e não do histórico
+ * completo.</p>
+ *
+ * <p>{@link #apply(long, int)} retorna assim que o evento está no buffer do log; o evento só sobrevive a
+ * uma queda após o próximo group commit. {@link #applyDurable(long, int)} espera por esse commit antes de
+ * retornar o nível.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Durable per-device battery state, combining {@link FleetBatteryEngine}, {@link WriteAheadLog} and
+ * {@link BatterySnapshotFile}.
+ *
+ * <p>Every event is appended to the log before being applied to the engine. Every
+ * {@code snapshotIntervalEvents} events (or on {@link #snapshot()}) the levels are bulk-copied under the
+ * lock and a background thread writes that copy to a snapshot and deletes the log segments covered by the
+ * previous snapshot; writing and {@code fsync} stay off the per-event path. Before publishing the snapshot,
+ * the background thread makes every record it covers durable, so the recorded sequence never runs ahead of
+ * the durable log. If a snapshot is still being written when the next one is due, the capture waits for
+ * it, which bounds memory to one pending copy. A failed automatic snapshot is reported by the next call to
+ * {@link #apply(long, int)}, before logging the event; the log stays complete and the following snapshot
+ * tries again. On open, the most recent valid
+ * snapshot is loaded and only the log tail after it is replayed, so restart time depends on the number of
+ * devices and the events since the last snapshot, not on the full history.</p>
+ *
+ * <p>{@link #apply(long, int)} returns as soon as the event is in the log buffer; the event only survives
+ * a crash after the next group commit. {@link #applyDurable(long, int)} waits for that commit before
+ * returning the level.</p>
+ */
+public class DurableBatteryStore implements AutoCloseable {
+
+    public static final long DEFAULT_SNAPSHOT_INTERVAL_EVENTS = 1_000_000L;
+
+    private final Path directory;
+    private final FleetBatteryEngine engine;
+    private final WriteAheadLog wal;
+    private final long snapshotIntervalEvents;
+    private final long replayedEvents;
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(
+            task -> Thread.ofPlatform().daemon().name("battery-snapshot-writer").unstarted(task));
+    private long previousSnapshotSeq;
+    private long eventsSinceSnapshot;
+    private Future<Void> pendingSnapshot;
+    private volatile IOException snapshotFailure;
+
+    private DurableBatteryStore(
+            final Path directory,
+            final FleetBatteryEngine engine,
+            final WriteAheadLog wal,
+            final long snapshotIntervalEvents,
+            final long replayedEvents,
+            final long snapshotSeq
+    ) {
+        this.directory = directory;
+        this.engine = engine;
+        this.wal = wal;
+        this.snapshotIntervalEvents = snapshotIntervalEvents;
+        this.replayedEvents = replayedEvents;
+        this.previousSnapshotSeq = snapshotSeq;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre (ou cria) o armazenamento com as configurações padrão.
+     *
+     * @param directory diretório do log e dos snapshots
+     * @return armazenamento recuperado
+     * @throws IOException se a recuperação ou a abertura do log falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens (or creates) the store with the default settings.
+     *
+     * @param directory log and snapshots directory
+     * @return recovered store
+     * @throws IOException if recovery or opening the log fails
+     */
+    public static DurableBatteryStore open(final Path directory) throws IOException {
+        return open(directory, WriteAheadLog.DEFAULT_SEGMENT_BYTES,
+                WriteAheadLog.DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_SNAPSHOT_INTERVAL_EVENTS);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Abre (ou cria) o armazenamento, recuperando o último snapshot e reproduzindo a cauda do log.
+     *
+     * @param directory              diretório do log e dos snapshots
+     * @param maxSegmentBytes        tamanho a partir do qual um novo segmento de log é iniciado
+     * @param flushIntervalMillis    intervalo entre group commits do log
+     * @param snapshotIntervalEvents eventos entre snapshots automáticos
+     * @return armazenamento recuperado
+     * @throws IOException se a recuperação ou a abertura do log falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens (or creates) the store, recovering the latest snapshot and replaying the log tail.
+     *
+     * @param directory              log and snapshots directory
+     * @param maxSegmentBytes        size from which a new log segment is started
+     * @param flushIntervalMillis    interval between log group commits
+     * @param snapshotIntervalEvents events between automatic snapshots
+     * @return recovered store
+     * @throws IOException if recovery or opening the log fails
+     */
+    public static DurableBatteryStore open(
+            final Path directory,
+            final long maxSegmentBytes,
+            final long flushIntervalMillis,
+            final long snapshotIntervalEvents
+    ) throws IOException {
+        if (snapshotIntervalEvents <= 0) {
+            throw new IllegalArgumentException("snapshotIntervalEvents must be positive: " + snapshotIntervalEvents);
+        }
+        Files.createDirectories(directory);
+
+        final FleetBatteryEngine engine = new FleetBatteryEngine();
+        final long snapshotSeq = BatterySnapshotFile.loadLatest(directory, engine);
+        final long[] replayed = new long[1];
+        final long walEnd = WriteAheadLog.replay(directory, snapshotSeq, (deviceId, event) -> {
+            engine.apply(deviceId, event);
+            replayed[0]++;
+        });
+
+        final WriteAheadLog wal = new WriteAheadLog(directory, Math.max(snapshotSeq, walEnd),
+                maxSegmentBytes, flushIntervalMillis);
+        return new DurableBatteryStore(directory, engine, wal, snapshotIntervalEvents, replayed[0], snapshotSeq);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Registra um evento no log e o aplica ao dispositivo, sem esperar que o evento esteja durável.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento (positivo carrega, negativo consome)
+     * @return nível do dispositivo após o evento
+     * @throws IOException se o log falhar, ou se o último snapshot automático falhou (o evento não é
+     *                     aplicado)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Logs an event and applies it to the device, without waiting for the event to be durable.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration (positive charges, negative drains)
+     * @return device level after the event
+     * @throws IOException if the log fails, or if the last automatic snapshot failed (the event is not
+     *                     applied)
+     */
+    public synchronized int apply(final long deviceId, final int event) throws IOException {
+        checkSnapshotFailure();
+        wal.append(deviceId, event);
+        final int level = engine.apply(deviceId, event);
+        if (++eventsSinceSnapshot >= snapshotIntervalEvents) {
+            scheduleSnapshot(true);
+        }
+        return level;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Registra um evento no log, o aplica ao dispositivo e espera até que o evento esteja durável. Chamadas
+     * concorrentes compartilham o mesmo group commit.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento (positivo carrega, negativo consome)
+     * @return nível do dispositivo após o evento
+     * @throws IOException se o log falhar, se o último snapshot automático falhou (o evento não é
+     *                     aplicado) ou se a espera for interrompida
+     */
+
+    /**
+     *
+     * English
+     *
+     * Logs an event, applies it to the device and waits until the event is durable. Concurrent calls share
+     * the same group commit.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration (positive charges, negative drains)
+     * @return device level after the event
+     * @throws IOException if the log fails, if the last automatic snapshot failed (the event is not
+     *                     applied) or if the wait is interrupted
+     */
+    public int applyDurable(final long deviceId, final int event) throws IOException {
+        final long seq;
+        final int level;
+        synchronized (this) {
+            checkSnapshotFailure();
+            seq = wal.append(deviceId, event);
+            level = engine.apply(deviceId, event);
+            if (++eventsSinceSnapshot >= snapshotIntervalEvents) {
+                scheduleSnapshot(true);
+            }
+        }
+
+        try {
+            wal.awaitDurable(seq);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for event " + seq + " to be durable");
+        }
+        return level;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível atual de um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @return nível atual, ou a carga inicial se o dispositivo nunca recebeu eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the current level of a device.
+     *
+     * @param deviceId device identifier
+     * @return current level, or the initial charge if the device never received events
+     */
+    public synchronized int level(final long deviceId) {
+        return engine.level(deviceId);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Percorre os níveis de todos os dispositivos conhecidos.
+     *
+     * @param consumer consumidor dos pares (dispositivo, nível)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Iterates over the levels of all known devices.
+     *
+     * @param consumer consumer of (device, level) pairs
+     */
+    public synchronized void forEachDevice(final DeviceLevelConsumer consumer) {
+        engine.forEachDevice(consumer);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava um snapshot do estado atual e remove os segmentos do log cobertos pelo snapshot anterior, que
+     * continua disponível caso o novo esteja corrompido. Apenas a captura dos níveis bloqueia os produtores;
+     * esta chamada espera a gravação em segundo plano terminar.
+     *
+     * @throws IOException se o snapshot ou a limpeza do log falhar, ou se a espera for interrompida
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes a snapshot of the current state and deletes the log segments covered by the previous snapshot,
+     * which remains available in case the new one is corrupted. Only capturing the levels blocks producers;
+     * this call waits for the background write to finish.
+     *
+     * @throws IOException if the snapshot or the log cleanup fails, or if the wait is interrupted
+     */
+    public void snapshot() throws IOException {
+        final Future<Void> snapshot;
+        synchronized (this) {
+            snapshot = scheduleSnapshot(false);
+        }
+        await(snapshot);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Torna duráveis todos os eventos aplicados até agora.
+     *
+     * @throws IOException se a gravação ou o {@code fsync} do log falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Makes every event applied so far durable.
+     *
+     * @throws IOException if writing or {@code fsync} of the log fails
+     */
+    public void sync() throws IOException {
+        wal.sync();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna quantos eventos do log foram reproduzidos na abertura.
+     *
+     * @return eventos reproduzidos na recuperação
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns how many log events were replayed on open.
+     *
+     * @return events replayed during recovery
+     */
+    public long replayedEvents() {
+        return replayedEvents;
+    }
+
+    @Override
+    public void close() throws IOException {
+        snapshotWriter.shutdown();
+        try {
+            snapshotWriter.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            wal.close();
+        }
+    }
+
+    private Future<Void> scheduleSnapshot(final boolean automatic) {
+        if (pendingSnapshot != null) {
+            awaitPrevious(pendingSnapshot);
+        }
+        final long seq = wal.nextSequence();
+        final DeviceLevelMap levels = engine.copyLevels();
+        eventsSinceSnapshot = 0;
+        pendingSnapshot = snapshotWriter.submit(() -> {
+            try {
+                writeSnapshot(levels, seq);
+            } catch (IOException e) {
+                if (automatic) {
+                    snapshotFailure = e;
+                }
+                throw e;
+            }
+            return null;
+        });
+        return pendingSnapshot;
+    }
+
+    private void writeSnapshot(final DeviceLevelMap levels, final long seq) throws IOException {
+        wal.sync();
+        BatterySnapshotFile.write(directory, levels, seq);
+        wal.deleteSegmentsBefore(previousSnapshotSeq);
+        previousSnapshotSeq = seq;
+    }
+
+    private void checkSnapshotFailure() throws IOException {
+        final IOException cause = snapshotFailure;
+        if (cause != null) {
+            snapshotFailure = null;
+            throw new IOException("Automatic snapshot failed", cause);
+        }
+    }
+
+    private static void awaitPrevious(final Future<Void> snapshot) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                snapshot.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(final Future<Void> snapshot) throws IOException {
+        try {
+            snapshot.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a snapshot");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Snapshot failed", e.getCause());
+        }
+    }
+}
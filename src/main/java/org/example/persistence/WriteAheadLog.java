@@ -0,0 +1,478 @@
+package org.example.persistence;
+
+import org.example.io.EventRecordConsumer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ *
+ * Português
+ *
+ * Write-ahead log segmentado de eventos (dispositivo, evento) com group commit.
+ *
+ * <p>Cada registro ocupa 16 bytes (deviceId, evento e CRC32C) e recebe um número de sequência implícito.
+ * {@link #append(long, int)} apenas copia o registro para um buffer em memória; uma thread de fundo
+ * (ou {@link #sync()}) troca os buffers, grava o lote inteiro e executa um único {@code fsync}, de modo que
+ * o custo do {@code fsync} é dividido entre todos os eventos do lote. Os segmentos se chamam
+ * {@code wal-<primeira sequência>.log}; na leitura, um registro incompleto ou com CRC inválido encerra o
+ * segmento (cauda truncada por queda).</p>
+ *
+ * <p>Uma falha de gravação ou de {@code fsync} é definitiva: o lote que falhou não é marcado como durável
+ * e todas as chamadas seguintes a {@link #append(long, int)}, {@link #sync()} e
+ * {@link #awaitDurable(long)} lançam {@link IOException}.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Segmented write-ahead log of (device, event) records with group commit.
+ *
+ * <p>Each record takes 16 bytes (deviceId, event and CRC32C) and gets an implicit sequence number.
+ * {@link #append(long, int)} only copies the record into an in-memory buffer; a background thread
+ * (or {@link #sync()}) swaps buffers, writes the whole batch and issues a single {@code fsync}, so the
+ * {@code fsync} cost is shared by every event in the batch. Segments are named
+ * {@code wal-<first sequence>.log}; when reading, an incomplete record or one with an invalid CRC ends
+ * the segment (tail torn by a crash).</p>
+ *
+ * <p>A write or {@code fsync} failure is final: the failed batch is never marked durable and every later
+ * call to {@link #append(long, int)}, {@link #sync()} and {@link #awaitDurable(long)} throws
+ * {@link IOException}.</p>
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L << 20;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+
+    private static final int RECORD_SIZE = 16;
+    private static final int PAYLOAD_SIZE = 12;
+    private static final int BUFFER_SIZE = RECORD_SIZE << 16;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Object durableMonitor = new Object();
+    private final Object flushSignal = new Object();
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+
+    private ByteBuffer active = newBuffer();
+    private ByteBuffer spare = newBuffer();
+    private long nextSeq;
+    private long bufferStartSeq;
+    private long durableSeq;
+    private boolean closed;
+    private volatile IOException failure;
+    private volatile boolean running = true;
+
+    private FileChannel segment;
+    private long segmentBytes;
+
+    /**
+     *
+     * Português
+     *
+     * Abre o log para novas gravações a partir de {@code startSeq}, criando um novo segmento.
+     *
+     * @param directory           diretório dos segmentos
+     * @param startSeq            sequência do próximo registro
+     * @param maxSegmentBytes     tamanho a partir do qual um novo segmento é iniciado
+     * @param flushIntervalMillis intervalo entre group commits da thread de fundo
+     * @throws IOException se o segmento não puder ser criado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Opens the log for new writes starting at {@code startSeq}, creating a new segment.
+     *
+     * @param directory           segments directory
+     * @param startSeq            sequence of the next record
+     * @param maxSegmentBytes     size from which a new segment is started
+     * @param flushIntervalMillis interval between background group commits
+     * @throws IOException if the segment cannot be created
+     */
+    public WriteAheadLog(
+            final Path directory,
+            final long startSeq,
+            final long maxSegmentBytes,
+            final long flushIntervalMillis
+    ) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.nextSeq = startSeq;
+        this.bufferStartSeq = startSeq;
+        this.durableSeq = startSeq;
+        openSegment(startSeq);
+
+        this.flusher = Thread.ofPlatform().daemon().name("battery-wal-flusher").start(() -> {
+            while (running) {
+                try {
+                    synchronized (flushSignal) {
+                        flushSignal.wait(flushIntervalMillis);
+                    }
+                    flush();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        });
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Reproduz os registros válidos com sequência maior ou igual a {@code fromSeq}, em ordem.
+     *
+     * @param directory diretório dos segmentos
+     * @param fromSeq   primeira sequência a entregar
+     * @param consumer  consumidor dos registros
+     * @return sequência seguinte ao último registro válido (no mínimo {@code fromSeq})
+     * @throws IOException se um segmento não puder ser lido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Replays valid records with sequence greater than or equal to {@code fromSeq}, in order.
+     *
+     * @param directory segments directory
+     * @param fromSeq   first sequence to deliver
+     * @param consumer  record consumer
+     * @return sequence following the last valid record (at least {@code fromSeq})
+     * @throws IOException if a segment cannot be read
+     */
+    public static long replay(final Path directory, final long fromSeq, final EventRecordConsumer consumer)
+            throws IOException {
+        long end = fromSeq;
+        final CRC32C checksum = new CRC32C();
+        final ByteBuffer buffer = newBuffer();
+
+        for (long firstSeq : segmentSequences(directory)) {
+            long seq = firstSeq;
+            try (FileChannel channel = FileChannel.open(segmentPath(directory, firstSeq), StandardOpenOption.READ)) {
+                buffer.clear();
+                boolean valid = true;
+                while (valid && channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    while (buffer.remaining() >= RECORD_SIZE) {
+                        final int start = buffer.position();
+                        final long deviceId = buffer.getLong();
+                        final int event = buffer.getInt();
+                        final int storedCrc = buffer.getInt();
+                        checksum.reset();
+                        checksum.update(buffer.array(), start, PAYLOAD_SIZE);
+                        if ((int) checksum.getValue() != storedCrc) {
+                            valid = false;
+                            break;
+                        }
+                        if (seq >= fromSeq) {
+                            consumer.accept(deviceId, event);
+                        }
+                        seq++;
+                    }
+                    buffer.compact();
+                }
+            }
+            end = Math.max(end, seq);
+        }
+        return end;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Acrescenta um registro ao buffer do log. Só é durável após o próximo group commit.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento
+     * @return sequência atribuída ao registro
+     * @throws IOException se um flush forçado pelo buffer cheio falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Appends a record to the log buffer. It is durable only after the next group commit.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration
+     * @return sequence assigned to the record
+     * @throws IOException if a flush forced by a full buffer fails
+     */
+    public long append(final long deviceId, final int event) throws IOException {
+        while (true) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("Write-ahead log is closed");
+                }
+                checkFailure();
+                if (active.remaining() >= RECORD_SIZE) {
+                    final int start = active.position();
+                    active.putLong(deviceId).putInt(event);
+                    crc.reset();
+                    crc.update(active.array(), start, PAYLOAD_SIZE);
+                    active.putInt((int) crc.getValue());
+                    return nextSeq++;
+                }
+            }
+            flush();
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Grava e sincroniza em disco todos os registros acrescentados até agora.
+     *
+     * @throws IOException se a gravação ou o {@code fsync} falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes and syncs to disk every record appended so far.
+     *
+     * @throws IOException if writing or {@code fsync} fails
+     */
+    public void sync() throws IOException {
+        flush();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Bloqueia até que o registro {@code seq} esteja durável (group commit da thread de fundo).
+     *
+     * @param seq sequência do registro
+     * @throws IOException          se o group commit em segundo plano falhou
+     * @throws InterruptedException se a espera for interrompida
+     */
+
+    /**
+     *
+     * English
+     *
+     * Blocks until record {@code seq} is durable (background group commit).
+     *
+     * @param seq record sequence
+     * @throws IOException          if the background group commit failed
+     * @throws InterruptedException if the wait is interrupted
+     */
+    public void awaitDurable(final long seq) throws IOException, InterruptedException {
+        synchronized (durableMonitor) {
+            while (durableSeq <= seq) {
+                checkFailure();
+                durableMonitor.wait();
+            }
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a sequência do próximo registro.
+     *
+     * @return próxima sequência
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the sequence of the next record.
+     *
+     * @return next sequence
+     */
+    public synchronized long nextSequence() {
+        return nextSeq;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Remove os segmentos cujos registros são todos anteriores a {@code seq} (já cobertos por um snapshot).
+     *
+     * @param seq primeira sequência que ainda precisa ser mantida
+     * @throws IOException se um segmento não puder ser removido
+     */
+
+    /**
+     *
+     * English
+     *
+     * Deletes segments whose records all precede {@code seq} (already covered by a snapshot).
+     *
+     * @param seq first sequence that must still be kept
+     * @throws IOException if a segment cannot be deleted
+     */
+    public void deleteSegmentsBefore(final long seq) throws IOException {
+        flushLock.lock();
+        try {
+            final List<Long> sequences = segmentSequences(directory);
+            for (int i = 0; i + 1 < sequences.size() && sequences.get(i + 1) <= seq; i++) {
+                Files.deleteIfExists(segmentPath(directory, sequences.get(i)));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        synchronized (flushSignal) {
+            flushSignal.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closed = true;
+        }
+        try {
+            flush();
+        } finally {
+            segment.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        flushLock.lock();
+        try {
+            checkFailure();
+            final ByteBuffer batch;
+            final long batchStartSeq;
+            final long batchEndSeq;
+            synchronized (this) {
+                if (active.position() == 0) {
+                    return;
+                }
+                batch = active;
+                active = spare;
+                batchStartSeq = bufferStartSeq;
+                batchEndSeq = nextSeq;
+                bufferStartSeq = nextSeq;
+            }
+
+            try {
+                if (segmentBytes >= maxSegmentBytes) {
+                    segment.close();
+                    openSegment(batchStartSeq);
+                }
+                batch.flip();
+                while (batch.hasRemaining()) {
+                    segmentBytes += segment.write(batch);
+                }
+                segment.force(false);
+            } catch (IOException e) {
+                failure = e;
+                synchronized (durableMonitor) {
+                    durableMonitor.notifyAll();
+                }
+                throw e;
+            } finally {
+                batch.clear();
+                spare = batch;
+            }
+
+            synchronized (durableMonitor) {
+                durableSeq = batchEndSeq;
+                durableMonitor.notifyAll();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        final IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Write-ahead log flush failed", cause);
+        }
+    }
+
+    private void openSegment(final long firstSeq) throws IOException {
+        segment = FileChannel.open(segmentPath(directory, firstSeq),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segmentBytes = 0;
+        forceDirectory(directory);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Sincroniza a entrada de diretório de arquivos recém-criados ou renomeados, sem a qual o arquivo pode
+     * desaparecer após uma queda mesmo com o conteúdo sincronizado.
+     *
+     * @param directory diretório a sincronizar
+     * @throws IOException se o {@code fsync} do diretório falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Syncs the directory entry of newly created or renamed files, without which the file may vanish after
+     * a crash even with its content synced.
+     *
+     * @param directory directory to sync
+     * @throws IOException if the directory {@code fsync} fails
+     */
+    static void forceDirectory(final Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static ByteBuffer newBuffer() {
+        return ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static Path segmentPath(final Path directory, final long firstSeq) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+    }
+
+    private static List<Long> segmentSequences(final Path directory) throws IOException {
+        final List<Long> sequences = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return sequences;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .forEach(name -> sequences.add(Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))));
+        }
+        sequences.sort(null);
+        return sequences;
+    }
+}
@@ -0,0 +1,410 @@
+package org.example.pipeline;
+
+import org.example.BatteryMonitor;
+import org.example.fleet.DeviceLevelConsumer;
+import org.example.fleet.DeviceLevelMap;
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.updater.BatteryLevelUpdater;
+import org.example.io.EventChunk;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.LatencySnapshot;
+
+/**
+ *
+ * Português
+ *
+ * Pipeline em estágios no estilo Disruptor: decodificação (o produtor), cálculo da variação, atualização
+ * com limites e o {@link BatteryPipelineSink}, cada estágio consumidor em sua própria thread.
+ *
+ * <p>Os estágios compartilham um único anel pré-alocado de slots primitivos (arrays paralelos de
+ * dispositivo, evento, variação, nível, limite e instante de publicação); nenhum objeto é criado por
+ * evento. Cada estágio acompanha a sequência do anterior e processa de uma vez todos os slots
+ * disponíveis, publicando a própria sequência uma vez por lote; o produtor só reutiliza um slot depois
+ * que o sink o liberou. O nível de cada dispositivo pertence à thread do estágio de atualização e segue
+ * as regras lineares de {@link BatteryChangeCalculator}, como o
+ * {@link org.example.fleet.FleetBatteryEngine}. A latência ponta a ponta (da publicação ao fim do lote no
+ * sink) de cada evento vai para um {@link LatencyHistogram}.</p>
+ *
+ * <p>Há um único produtor: {@code publish} e {@link #close()} devem ser chamados sempre pela mesma
+ * thread. Uma exceção em um estágio para o pipeline em vez de travar o produtor: {@code publish} e
+ * {@link #close()} passam a lançar {@link IllegalStateException}.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Disruptor-style staged pipeline: decoding (the producer), change calculation, update with limits and
+ * the {@link BatteryPipelineSink}, each consumer stage on its own thread.
+ *
+ * <p>Stages share a single preallocated ring of primitive slots (parallel arrays of device, event,
+ * change, level, clamp flag and publish time); no object is created per event. Each stage follows the
+ * sequence of the previous one and processes every available slot at once, publishing its own sequence
+ * once per batch; the producer only reuses a slot after the sink released it. Each device's level is
+ * owned by the update stage's thread and follows the linear {@link BatteryChangeCalculator} rules, like
+ * {@link org.example.fleet.FleetBatteryEngine}. The end-to-end latency (from publication to the end of
+ * the sink's batch) of every event goes into a {@link LatencyHistogram}.</p>
+ *
+ * <p>There is a single producer: {@code publish} and {@link #close()} must always be called from the
+ * same thread. An exception in a stage stops the pipeline instead of blocking the producer:
+ * {@code publish} and {@link #close()} then throw {@link IllegalStateException}.</p>
+ */
+public class BatteryPipeline implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final int bufferSize;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final BatteryPipelineSink sink;
+
+    private final BatteryChangeCalculator changeCalculator = new BatteryChangeCalculator();
+    private final BatteryLevelUpdater levelUpdater = new BatteryLevelUpdater();
+    private final BatteryLimitsApplier limitsApplier = new BatteryLimitsApplier();
+    private final DeviceLevelMap deviceLevels = new DeviceLevelMap();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final long[] deviceIds;
+    private final int[] events;
+    private final int[] changes;
+    private final int[] levels;
+    private final boolean[] clamped;
+    private final long[] publishNanos;
+
+    private final PaddedSequence published = new PaddedSequence(-1L);
+    private final PaddedSequence calculated = new PaddedSequence(-1L);
+    private final PaddedSequence updated = new PaddedSequence(-1L);
+    private final PaddedSequence sunk = new PaddedSequence(-1L);
+
+    private final Thread[] threads;
+    private volatile boolean running = true;
+    private volatile RuntimeException failure;
+
+    private long nextSequence;
+    private long cachedSunk = -1L;
+
+    /**
+     *
+     * Português
+     *
+     * Cria o pipeline e inicia as threads dos estágios.
+     *
+     * @param bufferSize   quantidade de slots do anel (potência de dois)
+     * @param waitStrategy como os estágios e o produtor esperam por slots
+     * @param sink         último estágio
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the pipeline and starts the stage threads.
+     *
+     * @param bufferSize   number of ring slots (a power of two)
+     * @param waitStrategy how stages and the producer wait for slots
+     * @param sink         last stage
+     */
+    public BatteryPipeline(final int bufferSize, final WaitStrategy waitStrategy, final BatteryPipelineSink sink) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.mask = bufferSize - 1;
+        this.waitStrategy = waitStrategy;
+        this.sink = sink;
+        this.deviceIds = new long[bufferSize];
+        this.events = new int[bufferSize];
+        this.changes = new int[bufferSize];
+        this.levels = new int[bufferSize];
+        this.clamped = new boolean[bufferSize];
+        this.publishNanos = new long[bufferSize];
+
+        this.threads = new Thread[]{
+                stageThread("battery-pipeline-calculate", published, calculated, this::calculate),
+                stageThread("battery-pipeline-update", calculated, updated, this::update),
+                stageThread("battery-pipeline-sink", updated, sunk, this::drain)
+        };
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Publica um evento, esperando se o anel estiver cheio.
+     *
+     * @param deviceId identificador do dispositivo
+     * @param event    duração do evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Publishes one event, waiting if the ring is full.
+     *
+     * @param deviceId device identifier
+     * @param event    event duration
+     */
+    public void publish(final long deviceId, final int event) {
+        final long sequence = nextSequence;
+        awaitFreeSlots(sequence);
+        final int slot = (int) sequence & mask;
+        deviceIds[slot] = deviceId;
+        events[slot] = event;
+        publishNanos[slot] = System.nanoTime();
+        nextSequence = sequence + 1;
+        published.set(sequence);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Publica todos os registros de um bloco, preenchendo de uma vez os slots livres e publicando a
+     * sequência uma vez por grupo de slots.
+     *
+     * @param chunk registros a publicar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Publishes every record of a chunk, filling the free slots at once and publishing the sequence once
+     * per group of slots.
+     *
+     * @param chunk records to publish
+     */
+    public void publish(final EventChunk chunk) {
+        int index = 0;
+        while (index < chunk.size()) {
+            final long first = nextSequence;
+            awaitFreeSlots(first);
+            final long last = Math.min(cachedSunk + bufferSize, first + chunk.size() - index - 1);
+            final long now = System.nanoTime();
+            for (long sequence = first; sequence <= last; sequence++) {
+                final int slot = (int) sequence & mask;
+                deviceIds[slot] = chunk.deviceId(index);
+                events[slot] = chunk.event(index);
+                publishNanos[slot] = now;
+                index++;
+            }
+            nextSequence = last + 1;
+            published.set(last);
+        }
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível de um dispositivo. Só é confiável depois de {@link #close()}.
+     *
+     * @param deviceId identificador do dispositivo
+     * @return nível atual, ou o nível inicial se o dispositivo nunca foi visto
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the level of one device. Only reliable after {@link #close()}.
+     *
+     * @param deviceId device identifier
+     * @return current level, or the initial level if the device was never seen
+     */
+    public int level(final long deviceId) {
+        return deviceLevels.get(deviceId, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Percorre os níveis de todos os dispositivos. Só é confiável depois de {@link #close()}.
+     *
+     * @param consumer consumidor de (dispositivo, nível)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Walks the levels of every device. Only reliable after {@link #close()}.
+     *
+     * @param consumer (device, level) consumer
+     */
+    public void forEachDevice(final DeviceLevelConsumer consumer) {
+        deviceLevels.forEach(consumer);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna quantos eventos já passaram pelo sink.
+     *
+     * @return eventos processados
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns how many events have gone through the sink.
+     *
+     * @return processed events
+     */
+    public long processedEvents() {
+        return sunk.get() + 1;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Copia o histograma de latência ponta a ponta.
+     *
+     * @return cópia imutável das latências em nanossegundos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Copies the end-to-end latency histogram.
+     *
+     * @return immutable copy of the latencies in nanoseconds
+     */
+    public LatencySnapshot latency() {
+        return latency.snapshot();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Espera o sink processar todos os eventos publicados e encerra as threads dos estágios.
+     */
+
+    /**
+     *
+     * English
+     *
+     * Waits for the sink to process every published event and stops the stage threads.
+     */
+    @Override
+    public void close() {
+        int attempt = 0;
+        while (running && sunk.get() < nextSequence - 1) {
+            waitStrategy.idle(attempt++);
+        }
+        running = false;
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Pipeline stage failed", failure);
+        }
+    }
+
+    private void awaitFreeSlots(final long sequence) {
+        if (!running) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+        final long wrapPoint = sequence - bufferSize;
+        int attempt = 0;
+        while (wrapPoint > cachedSunk) {
+            cachedSunk = sunk.get();
+            if (wrapPoint > cachedSunk) {
+                if (!running) {
+                    throw new IllegalStateException("Pipeline stage failed", failure);
+                }
+                waitStrategy.idle(attempt++);
+            }
+        }
+    }
+
+    private void calculate(final long from, final long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            final int slot = (int) sequence & mask;
+            changes[slot] = changeCalculator.calculateBatteryChange(events[slot]);
+        }
+    }
+
+    private void update(final long from, final long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            final int slot = (int) sequence & mask;
+            final long deviceId = deviceIds[slot];
+            final int level = deviceLevels.get(deviceId, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+            final int uncappedLevel = levelUpdater.updateBatteryLevel(level, changes[slot]);
+            final int limitedLevel = limitsApplier.applyBatteryLimits(uncappedLevel);
+            deviceLevels.put(deviceId, limitedLevel);
+            levels[slot] = limitedLevel;
+            clamped[slot] = uncappedLevel != limitedLevel;
+        }
+    }
+
+    private void drain(final long from, final long to) {
+        for (long sequence = from; sequence <= to; sequence++) {
+            final int slot = (int) sequence & mask;
+            sink.onLevel(deviceIds[slot], events[slot], levels[slot], clamped[slot], sequence == to);
+        }
+        final long now = System.nanoTime();
+        for (long sequence = from; sequence <= to; sequence++) {
+            latency.record(now - publishNanos[(int) sequence & mask]);
+        }
+    }
+
+    private Thread stageThread(
+            final String name,
+            final PaddedSequence dependency,
+            final PaddedSequence own,
+            final StageBody body
+    ) {
+        final Thread thread = new Thread(() -> {
+            long next = 0L;
+            int attempt = 0;
+            while (true) {
+                final long available = dependency.get();
+                if (available >= next) {
+                    try {
+                        body.process(next, available);
+                    } catch (RuntimeException e) {
+                        failure = e;
+                        running = false;
+                        return;
+                    }
+                    own.set(available);
+                    next = available + 1;
+                    attempt = 0;
+                } else if (running) {
+                    waitStrategy.idle(attempt++);
+                } else {
+                    return;
+                }
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @FunctionalInterface
+    private interface StageBody {
+        void process(long from, long to);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.pipeline;
+
+/**
+ *
+ * Português
+ *
+ * Último estágio do {@link BatteryPipeline}: recebe cada evento já com o nível resultante, na ordem de
+ * publicação, sempre pela mesma thread.
+ */
+
+/**
+ *
+ * English
+ *
+ * Last stage of the {@link BatteryPipeline}: receives every event along with the resulting level, in
+ * publication order, always on the same thread.
+ */
+@FunctionalInterface
+public interface BatteryPipelineSink {
+
+    /**
+     *
+     * Português
+     *
+     * Recebe um evento processado.
+     *
+     * @param deviceId   identificador do dispositivo
+     * @param event      duração do evento
+     * @param level      nível da bateria (0-100) após o evento
+     * @param clamped    {@code true} se o limite de 0% ou 100% alterou o nível
+     * @param endOfBatch {@code true} no último evento do lote disponível, ponto indicado para descarregar
+     *                   gravações em lote (por exemplo, {@code sync} de persistência)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Receives one processed event.
+     *
+     * @param deviceId   device identifier
+     * @param event      event duration
+     * @param level      battery level (0-100) after the event
+     * @param clamped    {@code true} if the 0% or 100% limit changed the level
+     * @param endOfBatch {@code true} on the last event of the available batch, the place to flush batched
+     *                   writes (for example, a persistence {@code sync})
+     */
+    void onLevel(long deviceId, int event, int level, boolean clamped, boolean endOfBatch);
+}
@@ -0,0 +1,48 @@
+package org.example.pipeline;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ *
+ * Português
+ *
+ * Contador de sequência publicado com semântica release/acquire e cercado por campos de preenchimento,
+ * para que sequências de estágios diferentes não compartilhem a mesma linha de cache.
+ */
+
+/**
+ *
+ * English
+ *
+ * Sequence counter published with release/acquire semantics and surrounded by padding fields, so that
+ * sequences of different stages do not share a cache line.
+ */
+final class PaddedSequence {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(PaddedSequence.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    long p1, p2, p3, p4, p5, p6, p7;
+    private long value;
+    long p9, p10, p11, p12, p13, p14, p15;
+
+    PaddedSequence(final long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    long get() {
+        return (long) VALUE.getAcquire(this);
+    }
+
+    void set(final long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *
+ * Português
+ *
+ * Como um estágio do {@link BatteryPipeline} espera quando não há slots disponíveis.
+ *
+ * <p>As estratégias trocam latência por uso de CPU: {@link #BUSY_SPIN} reage mais rápido mas ocupa um
+ * núcleo por estágio; {@link #YIELD} cede o núcleo após algumas voltas; {@link #PARK} dorme por
+ * intervalos curtos e quase não consome CPU ociosa. Nenhuma precisa de sinalização entre threads.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * How a {@link BatteryPipeline} stage waits when no slots are available.
+ *
+ * <p>Strategies trade latency for CPU usage: {@link #BUSY_SPIN} reacts fastest but keeps one core per
+ * stage busy; {@link #YIELD} gives the core away after a few spins; {@link #PARK} sleeps for short
+ * intervals and uses almost no idle CPU. None of them needs signalling between threads.</p>
+ */
+public enum WaitStrategy {
+
+    /**
+     * Português
+     *
+     * Gira com {@link Thread#onSpinWait()}, sem ceder o núcleo. */
+
+    /**
+     * English
+     *
+     * Spins with {@link Thread#onSpinWait()}, never giving the core away. */
+
+    BUSY_SPIN {
+        @Override
+        void idle(final int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /**
+     * Português
+     *
+     * Gira por algumas voltas e depois chama {@link Thread#yield()}. */
+
+    /**
+     * English
+     *
+     * Spins for a few rounds, then calls {@link Thread#yield()}. */
+
+    YIELD {
+        @Override
+        void idle(final int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * Português
+     *
+     * Gira por algumas voltas e depois dorme 50 µs com {@link LockSupport#parkNanos(long)}. */
+
+    /**
+     * English
+     *
+     * Spins for a few rounds, then sleeps 50 µs with {@link LockSupport#parkNanos(long)}. */
+
+    PARK {
+        @Override
+        void idle(final int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final long PARK_NANOS = 50_000L;
+
+    /**
+     *
+     * Português
+     *
+     * Espera uma vez.
+     *
+     * @param attempt quantas vezes o estágio já esperou sem encontrar slots (zera ao encontrar)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Waits once.
+     *
+     * @param attempt how many times the stage already waited without finding slots (reset when found)
+     */
+    abstract void idle(int attempt);
+}
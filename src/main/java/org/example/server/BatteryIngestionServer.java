@@ -0,0 +1,407 @@
+package org.example.server;
+
+import org.example.BatteryMonitor;
+import org.example.fleet.DeviceLevelMap;
+import org.example.stream.BatterySession;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *
+ * Português
+ *
+ * Servidor TCP de ingestão de eventos com uma virtual thread por conexão.
+ *
+ * <p>Protocolo de linhas em ASCII; cada comando recebe uma linha de resposta:
+ * <pre>
+ *  EVENT &lt;deviceId&gt; &lt;minutos&gt;  -&gt; &lt;nível após o evento&gt;
+ *  LEVEL &lt;deviceId&gt;             -&gt; &lt;nível atual&gt;
+ *  QUIT                          -&gt; encerra a conexão
+ * </pre>
+ * Linhas inválidas recebem {@code ERR <mensagem>}. Linhas com mais de {@link #MAX_LINE_LENGTH} bytes
+ * recebem {@code ERR line too long} e encerram a conexão, de modo que um cliente sem quebras de linha não
+ * consome memória além de um buffer fixo. As respostas são descarregadas quando não há mais comandos no
+ * buffer de entrada, então clientes que enviam vários comandos seguidos recebem as respostas em bloco.</p>
+ *
+ * <p>Os níveis ficam em {@link #STRIPES} faixas de {@link DeviceLevelMap}, sem boxing nem objetos por
+ * dispositivo, cada uma protegida por um {@link ReentrantLock} (um bloco {@code synchronized} prenderia a
+ * virtual thread à thread portadora no JDK 21) e avaliada com as regras do {@link BatteryMonitor}. Os
+ * níveis não são despejados, pois isso reiniciaria dispositivos silenciosamente; em vez disso, o número de
+ * dispositivos é limitado a {@code maxDevices} e eventos de dispositivos novos acima do limite recebem
+ * {@code ERR device limit reached}. Falhas de {@code accept} (por exemplo, limite de descritores) são
+ * registradas e repetidas com espera crescente até o servidor ser fechado.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * TCP event ingestion server with one virtual thread per connection.
+ *
+ * <p>ASCII line protocol; every command gets one response line:
+ * <pre>
+ *  EVENT &lt;deviceId&gt; &lt;minutes&gt;  -&gt; &lt;level after the event&gt;
+ *  LEVEL &lt;deviceId&gt;             -&gt; &lt;current level&gt;
+ *  QUIT                          -&gt; closes the connection
+ * </pre>
+ * Invalid lines get {@code ERR <message>}. Lines longer than {@link #MAX_LINE_LENGTH} bytes get
+ * {@code ERR line too long} and close the connection, so a client sending no line breaks uses no memory
+ * beyond a fixed buffer. Responses are flushed when no more commands are buffered, so clients pipelining
+ * several commands receive their responses in one block.</p>
+ *
+ * <p>Levels are kept in {@link #STRIPES} stripes of {@link DeviceLevelMap}, with no boxing or per-device
+ * objects, each guarded by a {@link ReentrantLock} (a {@code synchronized} block would pin the virtual
+ * thread to its carrier on JDK 21) and evaluated with the {@link BatteryMonitor} rules. Levels are not
+ * evicted, since that would silently reset devices; instead the number of devices is capped at
+ * {@code maxDevices}, and events for new devices beyond the cap get {@code ERR device limit reached}.
+ * {@code accept} failures (for example, the file descriptor limit) are logged and retried with growing
+ * back-off until the server is closed.</p>
+ */
+public class BatteryIngestionServer implements AutoCloseable {
+
+    public static final int MAX_LINE_LENGTH = 64;
+    public static final int STRIPES = 64;
+    public static final int DEFAULT_MAX_DEVICES = 1 << 22;
+
+    private static final int END_OF_STREAM = -1;
+    private static final int LINE_TOO_LONG = -2;
+    private static final int UNKNOWN_LEVEL = -1;
+    private static final int STRIPE_SHIFT = Long.SIZE - Integer.numberOfTrailingZeros(STRIPES);
+    private static final System.Logger LOGGER = System.getLogger(BatteryIngestionServer.class.getName());
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1_000;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final DeviceStripe[] stripes = new DeviceStripe[STRIPES];
+    private final int maxDevices;
+    private final AtomicInteger deviceCount = new AtomicInteger();
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean running;
+
+    /**
+     *
+     * Português
+     *
+     * Cria o servidor escutando em uma porta do endereço de loopback.
+     *
+     * @param port porta TCP ({@code 0} para escolher uma porta livre)
+     * @throws IOException se a porta não puder ser aberta
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the server listening on a port of the loopback address.
+     *
+     * @param port TCP port ({@code 0} to pick a free port)
+     * @throws IOException if the port cannot be opened
+     */
+    public BatteryIngestionServer(final int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), new BatteryMonitor());
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria o servidor escutando no endereço informado e usando as regras de um monitor.
+     *
+     * @param address endereço de escuta
+     * @param monitor monitor cujas regras são aplicadas aos eventos
+     * @throws IOException se o endereço não puder ser aberto
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the server listening on the given address and using a monitor's rules.
+     *
+     * @param address listen address
+     * @param monitor monitor whose rules are applied to events
+     * @throws IOException if the address cannot be opened
+     */
+    public BatteryIngestionServer(final InetSocketAddress address, final BatteryMonitor monitor) throws IOException {
+        this(address, monitor, DEFAULT_MAX_DEVICES);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria o servidor escutando no endereço informado, usando as regras de um monitor e limitando o número
+     * de dispositivos acompanhados.
+     *
+     * @param address    endereço de escuta
+     * @param monitor    monitor cujas regras são aplicadas aos eventos
+     * @param maxDevices quantidade máxima de dispositivos
+     * @throws IOException se o endereço não puder ser aberto
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the server listening on the given address, using a monitor's rules and capping the number of
+     * tracked devices.
+     *
+     * @param address    listen address
+     * @param monitor    monitor whose rules are applied to events
+     * @param maxDevices maximum number of devices
+     * @throws IOException if the address cannot be opened
+     */
+    public BatteryIngestionServer(final InetSocketAddress address, final BatteryMonitor monitor, final int maxDevices)
+            throws IOException {
+        if (maxDevices <= 0) {
+            throw new IllegalArgumentException("maxDevices must be positive: " + maxDevices);
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new DeviceStripe(monitor.openSession());
+        }
+        this.maxDevices = maxDevices;
+        this.serverSocket = new ServerSocket();
+        try {
+            this.serverSocket.bind(address, 4096);
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Inicia a aceitação de conexões em uma virtual thread. Só pode ser chamado uma vez.
+     *
+     * @throws IllegalStateException se o servidor já foi iniciado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Starts accepting connections on a virtual thread. It can only be called once.
+     *
+     * @throws IllegalStateException if the server was already started
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Server already started");
+        }
+        running = true;
+        executor.submit(this::acceptLoop);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a porta em que o servidor está escutando.
+     *
+     * @return porta TCP
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the port the server is listening on.
+     *
+     * @return TCP port
+     */
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível atual de um dispositivo.
+     *
+     * @param deviceId identificador do dispositivo
+     * @return nível atual, ou a carga inicial se o dispositivo nunca recebeu eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the current level of a device.
+     *
+     * @param deviceId device identifier
+     * @return current level, or the initial charge if the device never received events
+     */
+    public int level(final long deviceId) {
+        final DeviceStripe stripe = stripeOf(deviceId);
+        stripe.lock.lock();
+        try {
+            return stripe.levels.get(deviceId, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (Socket client : clients) {
+            client.close();
+        }
+        executor.close();
+    }
+
+    private void acceptLoop() {
+        long backoffMillis = MIN_ACCEPT_BACKOFF_MILLIS;
+        while (running) {
+            try {
+                final Socket client = serverSocket.accept();
+                clients.add(client);
+                executor.submit(() -> serve(client));
+                backoffMillis = MIN_ACCEPT_BACKOFF_MILLIS;
+            } catch (IOException e) {
+                if (!running || serverSocket.isClosed()) {
+                    return;
+                }
+                LOGGER.log(System.Logger.Level.WARNING,
+                        "accept failed, retrying in " + backoffMillis + " ms", e);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMillis = Math.min(MAX_ACCEPT_BACKOFF_MILLIS, backoffMillis * 2);
+            }
+        }
+    }
+
+    private void serve(final Socket client) {
+        try (client;
+             InputStream in = new BufferedInputStream(client.getInputStream());
+             BufferedWriter out = new BufferedWriter(
+                     new OutputStreamWriter(client.getOutputStream(), StandardCharsets.US_ASCII))) {
+            final byte[] buffer = new byte[MAX_LINE_LENGTH];
+            int length;
+            while ((length = readLine(in, buffer)) != END_OF_STREAM) {
+                if (length == LINE_TOO_LONG) {
+                    out.write("ERR line too long");
+                    out.newLine();
+                    break;
+                }
+                final String line = new String(buffer, 0, length, StandardCharsets.US_ASCII);
+                if (line.equals("QUIT")) {
+                    break;
+                }
+                out.write(handle(line));
+                out.newLine();
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            LOGGER.log(System.Logger.Level.DEBUG, "connection closed", e);
+        } finally {
+            clients.remove(client);
+        }
+    }
+
+    private static int readLine(final InputStream in, final byte[] buffer) throws IOException {
+        int length = 0;
+        int next;
+        while ((next = in.read()) != -1) {
+            if (next == '\n') {
+                return length;
+            }
+            if (next == '\r') {
+                continue;
+            }
+            if (length == buffer.length) {
+                return LINE_TOO_LONG;
+            }
+            buffer[length++] = (byte) next;
+        }
+        return length == 0 ? END_OF_STREAM : length;
+    }
+
+    private String handle(final String line) {
+        try {
+            if (line.startsWith("EVENT ")) {
+                final int separator = line.indexOf(' ', 6);
+                if (separator < 0) {
+                    return "ERR expected EVENT <deviceId> <minutes>";
+                }
+                final long deviceId = Long.parseLong(line, 6, separator, 10);
+                final int minutes = Integer.parseInt(line, separator + 1, line.length(), 10);
+                final int level = apply(deviceId, minutes);
+                return level == UNKNOWN_LEVEL ? "ERR device limit reached" : Integer.toString(level);
+            }
+            if (line.startsWith("LEVEL ")) {
+                return Integer.toString(level(Long.parseLong(line, 6, line.length(), 10)));
+            }
+            return "ERR unknown command";
+        } catch (NumberFormatException e) {
+            return "ERR invalid number";
+        }
+    }
+
+    private int apply(final long deviceId, final int minutes) {
+        final DeviceStripe stripe = stripeOf(deviceId);
+        stripe.lock.lock();
+        try {
+            int level = stripe.levels.get(deviceId, UNKNOWN_LEVEL);
+            if (level == UNKNOWN_LEVEL) {
+                if (deviceCount.getAndIncrement() >= maxDevices) {
+                    deviceCount.decrementAndGet();
+                    return UNKNOWN_LEVEL;
+                }
+                level = BatteryMonitor.INITIAL_BATTERY_LEVEL;
+            }
+            stripe.session.restore(level);
+            level = stripe.session.accept(minutes);
+            stripe.levels.put(deviceId, level);
+            return level;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private DeviceStripe stripeOf(final long deviceId) {
+        final long hash = deviceId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> STRIPE_SHIFT)];
+    }
+
+    private static final class DeviceStripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final DeviceLevelMap levels = new DeviceLevelMap();
+        private final BatterySession session;
+
+        private DeviceStripe(final BatterySession session) {
+            this.session = session;
+        }
+    }
+}
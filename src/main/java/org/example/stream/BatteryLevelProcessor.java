@@ -0,0 +1,282 @@
+package org.example.stream;
+
+import org.example.BatteryMonitor;
+import org.example.fleet.DeviceLevelMap;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.rate.BatteryRateModel;
+import org.example.functions.rate.LinearRateModel;
+import org.example.functions.updater.BatteryLevelUpdater;
+import org.example.io.EventChunk;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *
+ * Português
+ *
+ * {@link Flow.Processor} que recebe lotes primitivos de eventos ({@link EventChunk}), aplica as regras da
+ * bateria por dispositivo de forma incremental e publica um {@link BatteryLevelUpdates} por lote.
+ *
+ * <p>Cada lote recebido gera no máximo um lote publicado, então o processador só pede ao produtor tantos
+ * lotes quanto o assinante pediu, limitados a {@code prefetch} pendentes; com demanda grande, os pedidos
+ * são agrupados até metade do {@code prefetch} ser consumida. Um assinante lento reduz o ritmo da
+ * ingestão em vez de acumular lotes: o processador não tem fila. Lotes que não geram atualizações (em
+ * {@link LevelEmission#CHANGED_ONLY}) não consomem a demanda do assinante e são repostos ao produtor.
+ * Os pedidos ao produtor vêm tanto da thread do assinante quanto da do produtor, então são serializados
+ * por um contador de trabalho pendente: {@code request} nunca é chamado de forma concorrente nem
+ * reentrante (regra 2.7). Um término vindo do produtor durante o {@code onSubscribe} do assinante fica
+ * pendente e só é publicado depois que ele retorna (regra 1.9). Aceita um único assinante.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * {@link Flow.Processor} that receives primitive event batches ({@link EventChunk}), applies the battery
+ * rules per device incrementally and publishes one {@link BatteryLevelUpdates} per batch.
+ *
+ * <p>Each received batch produces at most one published batch, so the processor only asks the producer
+ * for as many batches as the subscriber asked for, capped at {@code prefetch} outstanding; with large
+ * demand, requests are grouped until half of the {@code prefetch} is consumed. A slow subscriber slows
+ * ingestion down instead of piling up batches: the processor has no queue. Batches that produce no
+ * updates (in {@link LevelEmission#CHANGED_ONLY}) do not use the subscriber's demand and are replaced
+ * from the producer. Requests to the producer come from both the subscriber's and the producer's threads,
+ * so they are serialized by a work-in-progress counter: {@code request} is never called concurrently or
+ * reentrantly (rule 2.7). A termination from the producer during the subscriber's {@code onSubscribe} is
+ * held back and only published after it returns (rule 1.9). Accepts a single subscriber.</p>
+ */
+public class BatteryLevelProcessor implements Flow.Processor<EventChunk, BatteryLevelUpdates> {
+
+    public static final int DEFAULT_PREFETCH = 16;
+
+    private final BatteryRateModel rateModel;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+    private final LevelEmission emission;
+    private final int prefetch;
+    private final DeviceLevelMap deviceLevels = new DeviceLevelMap();
+
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscriber<? super BatteryLevelUpdates>> downstream = new AtomicReference<>();
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final AtomicInteger replenishWip = new AtomicInteger();
+
+    private long[] deviceIdScratch = new long[64];
+    private int[] levelScratch = new int[64];
+
+    private volatile boolean cancelled;
+    private boolean subscribed;
+    private boolean terminated;
+    private boolean pendingTerminal;
+    private Throwable pendingError;
+
+    public BatteryLevelProcessor() {
+        this(new LinearRateModel(), LevelEmission.EVERY_EVENT, DEFAULT_PREFETCH);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria o processador.
+     *
+     * @param rateModel modelo de taxa de carga/consumo
+     * @param emission  quais atualizações publicar
+     * @param prefetch  máximo de lotes pedidos ao produtor e ainda não recebidos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates the processor.
+     *
+     * @param rateModel charge/drain rate model
+     * @param emission  which updates to publish
+     * @param prefetch  maximum number of batches requested from the producer and not yet received
+     */
+    public BatteryLevelProcessor(final BatteryRateModel rateModel, final LevelEmission emission, final int prefetch) {
+        if (prefetch < 1) {
+            throw new IllegalArgumentException("Prefetch must be positive: " + prefetch);
+        }
+        this.rateModel = rateModel;
+        this.levelUpdater = new BatteryLevelUpdater();
+        this.limitsApplier = new BatteryLimitsApplier();
+        this.emission = emission;
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(final Flow.Subscriber<? super BatteryLevelUpdates> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(final long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("BatteryLevelProcessor accepts a single subscriber"));
+            return;
+        }
+
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(final long n) {
+                onRequest(n);
+            }
+
+            @Override
+            public void cancel() {
+                onCancel();
+            }
+        });
+        synchronized (this) {
+            subscribed = true;
+            if (pendingTerminal) {
+                terminated = true;
+                signalTerminal(subscriber, pendingError);
+            }
+        }
+        replenish();
+    }
+
+    @Override
+    public void onSubscribe(final Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription");
+        if (!upstream.compareAndSet(null, subscription) || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        replenish();
+    }
+
+    @Override
+    public void onNext(final EventChunk chunk) {
+        Objects.requireNonNull(chunk, "chunk");
+        if (cancelled) {
+            return;
+        }
+        final BatteryLevelUpdates updates = apply(chunk);
+        if (updates != null) {
+            emit(updates);
+        }
+        outstanding.decrementAndGet();
+        replenish();
+    }
+
+    @Override
+    public void onError(final Throwable throwable) {
+        terminate(Objects.requireNonNull(throwable, "throwable"));
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(null);
+    }
+
+    private BatteryLevelUpdates apply(final EventChunk chunk) {
+        final int size = chunk.size();
+        if (deviceIdScratch.length < size) {
+            deviceIdScratch = new long[size];
+            levelScratch = new int[size];
+        }
+
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final long deviceId = chunk.deviceId(i);
+            final int level = deviceLevels.get(deviceId, BatteryMonitor.INITIAL_BATTERY_LEVEL);
+            final int batteryChange = rateModel.calculateBatteryChange(level, chunk.event(i));
+            final int newLevel = limitsApplier.applyBatteryLimits(levelUpdater.updateBatteryLevel(level, batteryChange));
+            deviceLevels.put(deviceId, newLevel);
+            if (emission == LevelEmission.EVERY_EVENT || newLevel != level) {
+                deviceIdScratch[count] = deviceId;
+                levelScratch[count] = newLevel;
+                count++;
+            }
+        }
+        return count == 0 ? null
+                : new BatteryLevelUpdates(Arrays.copyOf(deviceIdScratch, count), Arrays.copyOf(levelScratch, count));
+    }
+
+    private synchronized void emit(final BatteryLevelUpdates updates) {
+        if (terminated) {
+            return;
+        }
+        requested.getAndUpdate(r -> r == Long.MAX_VALUE ? r : r - 1);
+        downstream.get().onNext(updates);
+    }
+
+    private void onRequest(final long n) {
+        if (n <= 0) {
+            terminate(new IllegalArgumentException("Non-positive request: " + n));
+            onCancel();
+            return;
+        }
+        requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+        replenish();
+    }
+
+    private void onCancel() {
+        cancelled = true;
+        final Flow.Subscription subscription = upstream.get();
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    private void replenish() {
+        if (replenishWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            final Flow.Subscription subscription = upstream.get();
+            if (subscription != null && downstream.get() != null && !cancelled) {
+                final long current = outstanding.get();
+                final long target = Math.min(requested.get(), prefetch);
+                final long missing = target - current;
+                if (missing > 0 && (target < prefetch || current <= prefetch / 2)) {
+                    outstanding.addAndGet(missing);
+                    subscription.request(missing);
+                }
+            }
+            missed = replenishWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private synchronized void terminate(final Throwable error) {
+        if (terminated || pendingTerminal) {
+            return;
+        }
+        if (cancelled) {
+            terminated = true;
+            return;
+        }
+        if (!subscribed) {
+            pendingTerminal = true;
+            pendingError = error;
+            return;
+        }
+        terminated = true;
+        signalTerminal(downstream.get(), error);
+    }
+
+    private static void signalTerminal(final Flow.Subscriber<? super BatteryLevelUpdates> subscriber,
+                                       final Throwable error) {
+        if (error == null) {
+            subscriber.onComplete();
+        } else {
+            subscriber.onError(error);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.stream;
+
+/**
+ *
+ * Português
+ *
+ * Lote imutável de atualizações (dispositivo, nível) publicado pelo {@link BatteryLevelProcessor}, em
+ * arrays primitivos paralelos.
+ */
+
+/**
+ *
+ * English
+ *
+ * Immutable batch of (device, level) updates published by the {@link BatteryLevelProcessor}, in
+ * parallel primitive arrays.
+ */
+public final class BatteryLevelUpdates {
+
+    private final long[] deviceIds;
+    private final int[] levels;
+
+    BatteryLevelUpdates(final long[] deviceIds, final int[] levels) {
+        this.deviceIds = deviceIds;
+        this.levels = levels;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de atualizações.
+     *
+     * @return quantidade de atualizações
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of updates.
+     *
+     * @return number of updates
+     */
+    public int size() {
+        return levels.length;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o dispositivo de uma atualização.
+     *
+     * @param index índice da atualização
+     * @return identificador do dispositivo
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the device of one update.
+     *
+     * @param index update index
+     * @return device identifier
+     */
+    public long deviceId(final int index) {
+        return deviceIds[index];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível de uma atualização.
+     *
+     * @param index índice da atualização
+     * @return nível da bateria (0-100) após o evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the level of one update.
+     *
+     * @param index update index
+     * @return battery level (0-100) after the event
+     */
+    public int level(final int index) {
+        return levels[index];
+    }
+}
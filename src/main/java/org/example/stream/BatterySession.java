@@ -0,0 +1,172 @@
+package org.example.stream;
+
+import org.example.BatteryMonitor;
+import org.example.functions.calculator.BatteryChangeCalculator;
+import org.example.functions.limits.BatteryLimitsApplier;
+import org.example.functions.rate.BatteryRateModel;
+import org.example.functions.rate.LinearRateModel;
+import org.example.functions.updater.BatteryLevelUpdater;
+
+/**
+ *
+ * Português
+ *
+ * Sessão de bateria de um dispositivo que processa eventos à medida que chegam.
+ *
+ * <p>Mantém apenas o nível atual (memória constante) e aplica as mesmas regras de
+ * {@link BatteryMonitor#getBattery(int[])}, sem exigir o histórico completo em memória.
+ * Não é segura para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Battery session of one device that processes events as they arrive.
+ *
+ * <p>It keeps only the current level (constant memory) and applies the same rules as
+ * {@link BatteryMonitor#getBattery(int[])}, without requiring the full history in memory.
+ * Not safe for concurrent use.</p>
+ */
+public class BatterySession {
+
+    private final BatteryRateModel rateModel;
+    private final BatteryLevelUpdater levelUpdater;
+    private final BatteryLimitsApplier limitsApplier;
+
+    private int currentBatteryLevel;
+
+    public BatterySession() {
+        this(new BatteryChangeCalculator(), new BatteryLevelUpdater(), new BatteryLimitsApplier());
+    }
+
+    public BatterySession(
+            final BatteryChangeCalculator changeCalculator,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier
+    ) {
+        this(new LinearRateModel(changeCalculator), levelUpdater, limitsApplier);
+    }
+
+    public BatterySession(
+            final BatteryRateModel rateModel,
+            final BatteryLevelUpdater levelUpdater,
+            final BatteryLimitsApplier limitsApplier
+    ) {
+        this.rateModel = rateModel;
+        this.levelUpdater = levelUpdater;
+        this.limitsApplier = limitsApplier;
+        this.currentBatteryLevel = BatteryMonitor.INITIAL_BATTERY_LEVEL;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Processa um único evento.
+     *
+     * @param event duração do evento (positivo carrega, negativo consome)
+     * @return nível da bateria após o evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Processes a single event.
+     *
+     * @param event event duration (positive charges, negative drains)
+     * @return battery level after the event
+     */
+    public int accept(final int event) {
+        int batteryChange = rateModel.calculateBatteryChange(currentBatteryLevel, event);
+        int level = levelUpdater.updateBatteryLevel(currentBatteryLevel, batteryChange);
+        currentBatteryLevel = limitsApplier.applyBatteryLimits(level);
+        return currentBatteryLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Processa {@code len} eventos do array a partir da posição {@code off}.
+     *
+     * @param events array de eventos
+     * @param off    posição inicial
+     * @param len    quantidade de eventos
+     * @return nível da bateria após os eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Processes {@code len} events of the array starting at position {@code off}.
+     *
+     * @param events events array
+     * @param off    start position
+     * @param len    number of events
+     * @return battery level after the events
+     */
+    public int acceptAll(final int[] events, final int off, final int len) {
+        if (off < 0 || len < 0 || off > events.length - len) {
+            throw new IndexOutOfBoundsException(
+                    "Range [" + off + ", " + off + " + " + len + ") out of bounds for length " + events.length);
+        }
+
+        int level = currentBatteryLevel;
+        for (int i = off, end = off + len; i < end; i++) {
+            int batteryChange = rateModel.calculateBatteryChange(level, events[i]);
+            level = levelUpdater.updateBatteryLevel(level, batteryChange);
+            level = limitsApplier.applyBatteryLimits(level);
+        }
+        currentBatteryLevel = level;
+        return level;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível atual da bateria.
+     *
+     * @return nível atual (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the current battery level.
+     *
+     * @return current level (0-100)
+     */
+    public int currentLevel() {
+        return currentBatteryLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Define o nível atual, por exemplo para reutilizar a sessão com o estado de outro dispositivo.
+     *
+     * @param level nível da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Sets the current level, for example to reuse the session with another device's state.
+     *
+     * @param level battery level (0-100)
+     */
+    public void restore(final int level) {
+        if (level < BatteryLimitsApplier.MIN_BATTERY || level > BatteryLimitsApplier.MAX_BATTERY) {
+            throw new IllegalArgumentException("Battery level must be between " + BatteryLimitsApplier.MIN_BATTERY
+                    + " and " + BatteryLimitsApplier.MAX_BATTERY + ": " + level);
+        }
+        currentBatteryLevel = level;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.stream;
+
+/**
+ *
+ * Português
+ *
+ * Quais atualizações de nível o {@link BatteryLevelProcessor} publica.
+ */
+
+/**
+ *
+ * English
+ *
+ * Which level updates the {@link BatteryLevelProcessor} publishes.
+ */
+public enum LevelEmission {
+
+    /**
+     * Português
+     *
+     * Uma atualização por evento, mesmo quando o nível não muda. */
+
+    /**
+     * English
+     *
+     * One update per event, even when the level does not change. */
+
+    EVERY_EVENT,
+
+    /**
+     * Português
+     *
+     * Apenas eventos que mudaram o nível do dispositivo; lotes sem mudanças não são publicados. */
+
+    /**
+     * English
+     *
+     * Only events that changed the device's level; batches without changes are not published. */
+
+    CHANGED_ONLY
+}
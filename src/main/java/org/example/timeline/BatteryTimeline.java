@@ -0,0 +1,253 @@
+package org.example.timeline;
+
+import java.util.Arrays;
+
+/**
+ *
+ * Português
+ *
+ * Buffer reutilizável com a linha do tempo de uma avaliação: o nível após cada evento e um bitset com os
+ * eventos em que o limite de 0% ou 100% alterou o nível.
+ *
+ * <p>Os arrays só crescem; avaliar históricos de tamanho parecido com o mesmo buffer não aloca nada.
+ * {@link #levels()} e {@link #clampHits()} expõem os arrays internos, válidos até {@link #size()}, para
+ * que o chamador os leia sem cópia. Não é seguro para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Reusable buffer holding the timeline of one evaluation: the level after every event and a bitset of
+ * the events where the 0% or 100% limit changed the level.
+ *
+ * <p>Arrays only grow; evaluating histories of similar size with the same buffer allocates nothing.
+ * {@link #levels()} and {@link #clampHits()} expose the backing arrays, valid up to {@link #size()}, so
+ * the caller can read them without copying. Not safe for concurrent use.</p>
+ */
+public final class BatteryTimeline {
+
+    private int[] levels;
+    private long[] clampHits;
+    private int size;
+    private int initialLevel;
+
+    public BatteryTimeline() {
+        this(0);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Cria um buffer com capacidade inicial.
+     *
+     * @param capacity quantidade de eventos comportada sem crescer
+     */
+
+    /**
+     *
+     * English
+     *
+     * Creates a buffer with an initial capacity.
+     *
+     * @param capacity number of events held without growing
+     */
+    public BatteryTimeline(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.levels = new int[capacity];
+        this.clampHits = new long[wordCount(capacity)];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Prepara o buffer para uma nova avaliação, crescendo os arrays se necessário.
+     *
+     * @param eventCount   quantidade de eventos da avaliação
+     * @param initialLevel nível antes do primeiro evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Prepares the buffer for a new evaluation, growing the arrays if needed.
+     *
+     * @param eventCount   number of events of the evaluation
+     * @param initialLevel level before the first event
+     */
+    public void reset(final int eventCount, final int initialLevel) {
+        if (levels.length < eventCount) {
+            levels = Arrays.copyOf(levels, Math.max(eventCount, levels.length + (levels.length >>> 1)));
+            clampHits = new long[wordCount(levels.length)];
+        }
+        this.size = eventCount;
+        this.initialLevel = initialLevel;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna a quantidade de eventos da última avaliação.
+     *
+     * @return quantidade de eventos
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the number of events of the last evaluation.
+     *
+     * @return number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível após um evento.
+     *
+     * @param index índice do evento
+     * @return nível da bateria (0-100) após o evento
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the level after one event.
+     *
+     * @param index event index
+     * @return battery level (0-100) after the event
+     */
+    public int level(final int index) {
+        return levels[checkIndex(index)];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Indica se o limite de 0% ou 100% alterou o nível no evento.
+     *
+     * @param index índice do evento
+     * @return {@code true} se o nível foi limitado
+     */
+
+    /**
+     *
+     * English
+     *
+     * Tells whether the 0% or 100% limit changed the level at the event.
+     *
+     * @param index event index
+     * @return {@code true} if the level was clamped
+     */
+    public boolean isClamped(final int index) {
+        return (clampHits[checkIndex(index) >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o nível após o último evento, ou o nível inicial se não houve eventos.
+     *
+     * @return nível final da bateria (0-100)
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the level after the last event, or the initial level when there were no events.
+     *
+     * @return final battery level (0-100)
+     */
+    public int finalLevel() {
+        return size == 0 ? initialLevel : levels[size - 1];
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o array interno de níveis; apenas os primeiros {@link #size()} valores são válidos.
+     *
+     * @return array interno de níveis
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the backing levels array; only the first {@link #size()} values are valid.
+     *
+     * @return backing levels array
+     */
+    public int[] levels() {
+        return levels;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Retorna o bitset interno de limites, com o bit {@code i % 64} da palavra {@code i / 64} marcando o
+     * evento {@code i}; bits a partir de {@link #size()} não têm significado.
+     *
+     * @return bitset interno de limites
+     */
+
+    /**
+     *
+     * English
+     *
+     * Returns the backing clamp bitset, where bit {@code i % 64} of word {@code i / 64} marks event
+     * {@code i}; bits from {@link #size()} onwards are meaningless.
+     *
+     * @return backing clamp bitset
+     */
+    public long[] clampHits() {
+        return clampHits;
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Calcula quantas palavras de 64 bits o bitset precisa para uma quantidade de eventos.
+     *
+     * @param eventCount quantidade de eventos
+     * @return tamanho mínimo do bitset
+     */
+
+    /**
+     *
+     * English
+     *
+     * Computes how many 64-bit words the bitset needs for a number of events.
+     *
+     * @param eventCount number of events
+     * @return minimum bitset length
+     */
+    public static int wordCount(final int eventCount) {
+        return (eventCount + Long.SIZE - 1) >>> 6;
+    }
+
+    private int checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,243 @@
+package org.example.utills;
+
+import org.example.functions.calculator.BatteryChangeCalculator;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * Português
+ *
+ * Destino de rastreamento com buffer, alternativa ao {@link PrintUtils} para históricos longos.
+ *
+ * <p>Produz o mesmo texto que {@link PrintUtils} (em UTF-8), mas formata números e rótulos pré-codificados
+ * diretamente em um buffer de bytes reutilizável e grava em blocos grandes em um
+ * {@link WritableByteChannel}, sem criar {@code String}s por evento nem disputar o lock do
+ * {@code System.out}. Não é seguro para uso concorrente.</p>
+ */
+
+/**
+ *
+ * English
+ *
+ * Buffered trace sink, an alternative to {@link PrintUtils} for long histories.
+ *
+ * <p>It produces the same text as {@link PrintUtils} (in UTF-8), but formats numbers and pre-encoded
+ * labels directly into a reusable byte buffer and writes large blocks to a {@link WritableByteChannel},
+ * without creating per-event {@code String}s or contending on the {@code System.out} lock.
+ * Not safe for concurrent use.</p>
+ */
+public class TraceSink implements Flushable, Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_RECORD_SIZE = 256;
+
+    private static final byte[] INITIAL_STATUS = bytes("1. Carga inicial: ");
+    private static final byte[] PERCENT_LINE = bytes("%" + System.lineSeparator());
+    private static final byte[] EVENT_OPEN = bytes(". Evento [");
+    private static final byte[] EVENT_CLOSE = bytes("] -> ");
+    private static final byte[] CHARGING_TYPE = bytes(" minutos carregando -> ");
+    private static final byte[] GAMING_TYPE = bytes(" minutos jogando -> ");
+    private static final byte[] NEUTRAL_TYPE = bytes(" evento neutro -> ");
+    private static final byte[] CHARGING_OP = bytes("% +");
+    private static final byte[] GAMING_OP = bytes("% -");
+    private static final byte[] NEUTRAL_OP = bytes("% ");
+    private static final byte[] EQUALS = bytes("% = ");
+    private static final byte[] MAX_LIMIT_NOTE = bytes("% (limite máximo)\n");
+    private static final byte[] MIN_LIMIT_NOTE = bytes("% (limite mínimo)\n");
+    private static final byte[] NO_LIMIT_NOTE = bytes("%\n");
+    private static final byte[] ARRAY_SEPARATOR = bytes(", ");
+
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer view;
+    private int position;
+
+    public TraceSink(final WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public TraceSink(final WritableByteChannel channel, final int bufferSize) {
+        if (bufferSize < MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Buffer size must be at least " + MAX_RECORD_SIZE);
+        }
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.view = ByteBuffer.wrap(buffer);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Escreve o status inicial da bateria, como {@link PrintUtils#printInitialBatteryStatus(int)}.
+     *
+     * @param initialLevel Valor inicial da bateria (em %).
+     * @throws IOException se a gravação no canal falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes the initial battery status, like {@link PrintUtils#printInitialBatteryStatus(int)}.
+     *
+     * @param initialLevel Initial battery value (in %).
+     * @throws IOException if writing to the channel fails
+     */
+    public void initialBatteryStatus(final int initialLevel) throws IOException {
+        ensureCapacity(MAX_RECORD_SIZE);
+        put(INITIAL_STATUS);
+        putInt(initialLevel);
+        put(PERCENT_LINE);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Escreve os detalhes de um evento, como
+     * {@link PrintUtils#printEventDetails(int, int, int, int, int, int, BatteryChangeCalculator)}.
+     *
+     * @param index                Índice do evento.
+     * @param event                Valor do evento (positivo para carga, negativo para uso).
+     * @param previousBattery      Nível anterior da bateria.
+     * @param change               Variação de bateria causada pelo evento.
+     * @param uncappedBatteryLevel Nível antes da aplicação de limites.
+     * @param finalBatteryLevel    Nível final da bateria após limites.
+     * @param calculator           Calculadora usada para determinar o tipo do evento.
+     * @throws IOException se a gravação no canal falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes the details of one event, like
+     * {@link PrintUtils#printEventDetails(int, int, int, int, int, int, BatteryChangeCalculator)}.
+     *
+     * @param index                Event index.
+     * @param event                Event value (positive for charging, negative for use).
+     * @param previousBattery      Previous battery level.
+     * @param change               Battery change caused by the event.
+     * @param uncappedBatteryLevel Level before caps were applied.
+     * @param finalBatteryLevel    Final battery level after caps.
+     * @param calculator           Calculator used to determine the event type.
+     * @throws IOException if writing to the channel fails
+     */
+    public void eventDetails(
+            final int index,
+            final int event,
+            final int previousBattery,
+            final int change,
+            final int uncappedBatteryLevel,
+            final int finalBatteryLevel,
+            final BatteryChangeCalculator calculator
+    ) throws IOException {
+        ensureCapacity(MAX_RECORD_SIZE);
+
+        final boolean charging = calculator.isChargingEvent(event);
+        final boolean gaming = !charging && calculator.isGamingEvent(event);
+
+        putInt(index + 2);
+        put(EVENT_OPEN);
+        putInt(index);
+        put(EVENT_CLOSE);
+        putInt(Math.abs(event));
+        put(charging ? CHARGING_TYPE : gaming ? GAMING_TYPE : NEUTRAL_TYPE);
+        putInt(previousBattery);
+        put(charging ? CHARGING_OP : gaming ? GAMING_OP : NEUTRAL_OP);
+        putInt(Math.abs(change));
+        put(EQUALS);
+        putInt(finalBatteryLevel);
+        put((uncappedBatteryLevel > 100 && finalBatteryLevel == 100) ? MAX_LIMIT_NOTE
+                : (uncappedBatteryLevel < 0 && finalBatteryLevel == 0) ? MIN_LIMIT_NOTE
+                : NO_LIMIT_NOTE);
+    }
+
+    /**
+     *
+     * Português
+     *
+     * Escreve um array no formato [a, b, c], como {@link PrintUtils#printFormattedArray(int[])}.
+     *
+     * @param array Array a ser escrito.
+     * @throws IOException se a gravação no canal falhar
+     */
+
+    /**
+     *
+     * English
+     *
+     * Writes an array in the format [a, b, c], like {@link PrintUtils#printFormattedArray(int[])}.
+     *
+     * @param array Array to write.
+     * @throws IOException if writing to the channel fails
+     */
+    public void formattedArray(final int[] array) throws IOException {
+        ensureCapacity(MAX_RECORD_SIZE);
+        buffer[position++] = '[';
+        for (int i = 0; i < array.length; i++) {
+            ensureCapacity(MAX_RECORD_SIZE);
+            putInt(array[i]);
+            if (i < array.length - 1) put(ARRAY_SEPARATOR);
+        }
+        buffer[position++] = ']';
+    }
+
+    @Override
+    public void flush() throws IOException {
+        view.clear().limit(position);
+        while (view.hasRemaining()) {
+            channel.write(view);
+        }
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void ensureCapacity(final int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            flush();
+        }
+    }
+
+    private void put(final byte[] label) {
+        System.arraycopy(label, 0, buffer, position, label.length);
+        position += label.length;
+    }
+
+    private void putInt(final int value) {
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[position++] = '-';
+            remaining = -remaining;
+        }
+
+        int digits = 1;
+        for (long limit = 10; limit <= remaining; limit *= 10) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        position += digits;
+    }
+
+    private static byte[] bytes(final String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
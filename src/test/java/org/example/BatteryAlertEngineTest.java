@@ -0,0 +1,128 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.alert.BatteryAlertEngine;
+import org.example.alert.BatteryThreshold;
+import org.example.fleet.FleetBatteryEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class BatteryAlertEngineTest {
+
+    private static final BatteryThreshold LOW = BatteryThreshold.falling("low", 15, 5);
+    private static final BatteryThreshold FULL = BatteryThreshold.rising("full", 100, 5);
+
+    private List<String> alerts;
+    private BatteryAlertEngine alertEngine;
+    private FleetBatteryEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        alerts = new ArrayList<>();
+        alertEngine = new BatteryAlertEngine(List.of(LOW, FULL),
+                (deviceId, threshold, level) -> alerts.add(deviceId + ":" + threshold.name() + "@" + level));
+        engine = new FleetBatteryEngine(0, alertEngine);
+    }
+
+    @Test
+    public void testProblemExampleHitsFullCharge() {
+        int result = 0;
+        for (int event : new int[]{10, -20, 61, -15}) {
+            result = engine.apply(1L, event);
+        }
+        System.out.println("[testProblemExampleHitsFullCharge] Resultado da bateria: " + result);
+        assertEquals(85, result, "Alerts do not change the result");
+        assertEquals(List.of("1:full@100"), alerts, "Clamp at 100% fires the full charge alert");
+        assertTrue(alertEngine.isArmed(1L, 1), "85 is below 100 - 5, so the alert is re-armed");
+    }
+
+    @Test
+    public void testHysteresisSuppressesOscillation() {
+        for (int event : new int[]{-35, -5, 8, -5, 4, -10, 6, -10}) {
+            engine.apply(7L, event);
+        }
+        assertEquals(List.of("7:low@15"), alerts, "Levels between 15 and 20 do not re-arm the alert");
+
+        engine.apply(7L, 20);
+        engine.apply(7L, -20);
+        assertEquals(List.of("7:low@15", "7:low@3"), alerts, "Going above 20 re-arms the alert");
+    }
+
+    @Test
+    public void testRestoreDoesNotFire() {
+        engine.restore(3L, 10);
+        engine.apply(3L, -5);
+        assertTrue(alerts.isEmpty(), "Restoring below the threshold disarms it silently");
+        assertFalse(alertEngine.isArmed(3L, 0), "Low battery stays disarmed");
+        assertTrue(alertEngine.isArmed(3L, 1), "Full charge stays armed");
+    }
+
+    @Test
+    public void testRandomFleetMatchesBruteForce() {
+        List<BatteryThreshold> thresholds = new ArrayList<>();
+        Random random = new Random(25);
+        for (int t = 0; t < BatteryAlertEngine.MAX_THRESHOLDS; t++) {
+            int level = random.nextInt(101);
+            int hysteresis = random.nextInt(10);
+            thresholds.add(random.nextBoolean()
+                    ? BatteryThreshold.falling("f" + t, level, hysteresis)
+                    : BatteryThreshold.rising("r" + t, level, hysteresis));
+        }
+        List<String> fired = new ArrayList<>();
+        FleetBatteryEngine fleet = new FleetBatteryEngine(0, new BatteryAlertEngine(thresholds,
+                (deviceId, threshold, level) -> fired.add(deviceId + ":" + threshold.name() + "@" + level)));
+
+        int devices = 50;
+        int[] levels = new int[devices];
+        boolean[][] armed = new boolean[devices][thresholds.size()];
+        for (int d = 0; d < devices; d++) {
+            levels[d] = BatteryMonitor.INITIAL_BATTERY_LEVEL;
+            for (int t = 0; t < thresholds.size(); t++) {
+                armed[d][t] = !thresholds.get(t).firesAt(levels[d]);
+            }
+        }
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int d = random.nextInt(devices);
+            int event = random.nextInt(61) - 30;
+            levels[d] = fleet.apply(d, event);
+            for (int t = 0; t < thresholds.size(); t++) {
+                BatteryThreshold threshold = thresholds.get(t);
+                if (armed[d][t] && threshold.firesAt(levels[d])) {
+                    armed[d][t] = false;
+                    expected.add(d + ":" + threshold.name() + "@" + levels[d]);
+                } else if (threshold.rearmsAt(levels[d])) {
+                    armed[d][t] = true;
+                }
+            }
+        }
+        Collections.sort(expected);
+        Collections.sort(fired);
+        System.out.println("[testRandomFleetMatchesBruteForce] Alertas: " + fired.size());
+        assertEquals(expected, fired, "Band tables match a per-threshold scan");
+    }
+
+    @Test
+    public void testInvalidThresholds() {
+        assertThrows(IllegalArgumentException.class, () -> BatteryThreshold.falling("x", 101, 0),
+                "Level above 100");
+        assertThrows(IllegalArgumentException.class, () -> BatteryThreshold.rising("x", 50, -1),
+                "Negative hysteresis");
+        assertThrows(IllegalArgumentException.class, () -> new BatteryAlertEngine(
+                Collections.nCopies(BatteryAlertEngine.MAX_THRESHOLDS + 1, LOW), (deviceId, threshold, level) -> {
+                }), "Too many thresholds");
+        assertThrows(IllegalArgumentException.class, () -> new BatteryAlertEngine(List.of(LOW),
+                (deviceId, threshold, level) -> {
+                }, Integer.MAX_VALUE), "State map capacity would overflow");
+    }
+}
@@ -0,0 +1,118 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.functions.rate.CompiledRateModel;
+import org.example.functions.rate.RateCurve;
+import org.example.functions.rate.Workload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatteryBatchTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testProblemExample() {
+        int[] events = {10, -20, 61, -15, 30, -60};
+        int[] offsets = {0, 4, 4, 6};
+        int[] result = monitor.getBatteryBatch(events, offsets);
+        System.out.println("[testProblemExample] Resultado da bateria: " + Arrays.toString(result));
+        assertArrayEquals(new int[]{85, 50, 20}, result, "Each slice is evaluated from 50%");
+    }
+
+    @Test
+    public void testRandomBatchMatchesGetBattery() {
+        Random random = new Random(18);
+        int[][] devices = randomDevices(random, 5_000);
+        int[] offsets = offsetsOf(devices);
+        int[] events = flatten(devices, offsets);
+
+        int[] result = monitor.getBatteryBatch(events, offsets);
+        for (int device = 0; device < devices.length; device++) {
+            assertEquals(monitor.getBattery(devices[device]), result[device], "Device " + device + " matches");
+        }
+    }
+
+    @Test
+    public void testCustomPoolParallelism() {
+        Random random = new Random(19);
+        int[][] devices = randomDevices(random, 2_000);
+        int[] offsets = offsetsOf(devices);
+        int[] events = flatten(devices, offsets);
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            assertArrayEquals(monitor.getBatteryBatch(events, offsets),
+                    monitor.getBatteryBatch(events, offsets, pool), "Parallelism does not change the result");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testNonLinearModelMatchesGetBattery() {
+        BatteryMonitor curved = new BatteryMonitor(CompiledRateModel.forWorkload(
+                new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25}), Workload.GAMING));
+        Random random = new Random(20);
+        int[][] devices = randomDevices(random, 1_000);
+        int[] offsets = offsetsOf(devices);
+        int[] result = curved.getBatteryBatch(flatten(devices, offsets), offsets);
+        for (int device = 0; device < devices.length; device++) {
+            assertEquals(curved.getBattery(devices[device]), result[device], "Device " + device + " matches");
+        }
+    }
+
+    @Test
+    public void testEmptyBatch() {
+        assertEquals(0, monitor.getBatteryBatch(new int[0], new int[]{0}).length, "No devices, no levels");
+    }
+
+    @Test
+    public void testInvalidOffsets() {
+        int[] events = {10, -20, 61};
+        assertThrows(IllegalArgumentException.class, () -> monitor.getBatteryBatch(events, new int[0]));
+        assertThrows(IllegalArgumentException.class, () -> monitor.getBatteryBatch(events, new int[]{0, 4}));
+        assertThrows(IllegalArgumentException.class, () -> monitor.getBatteryBatch(events, new int[]{-1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> monitor.getBatteryBatch(events, new int[]{0, 2, 1}));
+    }
+
+    private static int[][] randomDevices(Random random, int deviceCount) {
+        int[][] devices = new int[deviceCount][];
+        for (int device = 0; device < deviceCount; device++) {
+            int size = random.nextInt(10) == 0 ? 0 : random.nextInt(10) == 0 ? 50_000 : random.nextInt(200);
+            devices[device] = new int[size];
+            for (int i = 0; i < size; i++) {
+                devices[device][i] = random.nextInt(20) == 0 ? random.nextInt() : random.nextInt(41) - 20;
+            }
+        }
+        return devices;
+    }
+
+    private static int[] offsetsOf(int[][] devices) {
+        int[] offsets = new int[devices.length + 1];
+        for (int device = 0; device < devices.length; device++) {
+            offsets[device + 1] = offsets[device] + devices[device].length;
+        }
+        return offsets;
+    }
+
+    private static int[] flatten(int[][] devices, int[] offsets) {
+        int[] events = new int[offsets[devices.length]];
+        for (int device = 0; device < devices.length; device++) {
+            System.arraycopy(devices[device], 0, events, offsets[device], devices[device].length);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,99 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.fleet.FleetBatteryEngine;
+import org.example.io.BatteryEventFileReader;
+import org.example.io.BatteryEventFileWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class BatteryEventFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testFixedWidthReplayMatchesGetBattery() throws IOException {
+        assertSingleDeviceReplay(false);
+    }
+
+    @Test
+    public void testVarintReplayMatchesGetBattery() throws IOException {
+        assertSingleDeviceReplay(true);
+    }
+
+    @Test
+    public void testDeviceFileReplayIntoFleet() throws IOException {
+        Path file = tempDir.resolve("fleet.bat");
+        int[][] history = {{10, -20, 61, -15}, {5, 10}, {-30, -25}};
+        long[] ids = {7L, -3L, Long.MAX_VALUE};
+        try (BatteryEventFileWriter writer = BatteryEventFileWriter.create(file, true, true)) {
+            for (int t = 0; t < 4; t++) {
+                for (int d = 0; d < ids.length; d++) {
+                    if (t < history[d].length) {
+                        writer.write(ids[d], history[d][t]);
+                    }
+                }
+            }
+        }
+
+        FleetBatteryEngine engine = new FleetBatteryEngine();
+        try (BatteryEventFileReader reader = BatteryEventFileReader.open(file, 64)) {
+            reader.replay(engine);
+        }
+        for (int d = 0; d < ids.length; d++) {
+            System.out.println("[testDeviceFileReplayIntoFleet] Dispositivo " + ids[d] + ": " + engine.level(ids[d]));
+            assertEquals(monitor.getBattery(history[d]), engine.level(ids[d]), "Fleet replay matches getBattery");
+        }
+    }
+
+    @Test
+    public void testTruncatedFileIsRejected() throws IOException {
+        Path file = tempDir.resolve("truncated.bat");
+        try (BatteryEventFileWriter writer = BatteryEventFileWriter.create(file, false, false)) {
+            writer.writeAll(new int[]{1, 2, 3, 4});
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        try (BatteryEventFileReader reader = BatteryEventFileReader.open(file)) {
+            assertThrows(EOFException.class, () -> reader.replay(monitor.openSession()), "Truncated file fails");
+        }
+    }
+
+    private void assertSingleDeviceReplay(boolean varint) throws IOException {
+        Path file = tempDir.resolve(varint ? "varint.bat" : "fixed.bat");
+        Random random = new Random(21);
+        int[] events = new int[100_000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = random.nextInt(2001) - 1000;
+        }
+        try (BatteryEventFileWriter writer = BatteryEventFileWriter.create(file, varint, false)) {
+            writer.writeAll(events);
+        }
+
+        try (BatteryEventFileReader reader = BatteryEventFileReader.open(file, 4096)) {
+            assertEquals(events.length, reader.recordCount(), "Header stores the record count");
+            int result = reader.replay(monitor.openSession());
+            System.out.println("[assertSingleDeviceReplay] Resultado da bateria: " + result);
+            assertEquals(monitor.getBattery(events), result, "File replay matches getBattery");
+        }
+    }
+}
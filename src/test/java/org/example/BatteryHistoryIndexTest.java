@@ -0,0 +1,104 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.history.BatteryHistoryIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BatteryHistoryIndexTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testLevelAfterEachEventOfProblemExample() {
+        BatteryHistoryIndex index = new BatteryHistoryIndex(new int[]{10, -20, 61, -15});
+        int[] expected = {60, 40, 100, 85};
+        for (int k = 0; k < expected.length; k++) {
+            int result = index.levelAfter(k);
+            System.out.println("[testLevelAfterEachEventOfProblemExample] Evento " + k + ": " + result);
+            assertEquals(expected[k], result, "Level after event " + k);
+        }
+    }
+
+    @Test
+    public void testPrefixQueriesMatchGetBattery() {
+        int[] events = randomEvents(new Random(3), 1000);
+        BatteryHistoryIndex index = new BatteryHistoryIndex(events);
+        for (int k = 0; k < events.length; k++) {
+            assertEquals(monitor.getBattery(Arrays.copyOf(events, k + 1)), index.levelAfter(k),
+                    "Prefix query matches getBattery on copied prefix");
+        }
+    }
+
+    @Test
+    public void testRangeQueriesFromArbitraryLevel() {
+        int[] events = randomEvents(new Random(5), 300);
+        BatteryHistoryIndex index = new BatteryHistoryIndex(events);
+        Random random = new Random(9);
+        for (int round = 0; round < 2000; round++) {
+            int from = random.nextInt(events.length + 1);
+            int to = from + random.nextInt(events.length - from + 1);
+            int startLevel = random.nextInt(101);
+            int expected = startLevel;
+            for (int i = from; i < to; i++) {
+                expected = Math.min(100, Math.max(0, expected + events[i]));
+            }
+            assertEquals(expected, index.applyRange(startLevel, from, to), "Range query matches scan");
+        }
+    }
+
+    @Test
+    public void testPointUpdate() {
+        int[] events = {10, -20, 61, -15};
+        BatteryHistoryIndex index = new BatteryHistoryIndex(events);
+        index.update(2, 20);
+        int result = index.levelAfter(3);
+        System.out.println("[testPointUpdate] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(new int[]{10, -20, 20, -15}), result, "Corrected event is applied");
+    }
+
+    @Test
+    public void testOverflowingEventsMatchGetBattery() {
+        int[] events = randomEvents(new Random(4), 300);
+        events[299] = Integer.MAX_VALUE;
+        events[150] = Integer.MAX_VALUE - 100;
+        events[7] = Integer.MAX_VALUE - 99;
+        BatteryHistoryIndex index = new BatteryHistoryIndex(events);
+        int result = index.levelAfter(299);
+        System.out.println("[testOverflowingEventsMatchGetBattery] Resultado da bateria: " + result);
+        for (int k = 0; k < events.length; k++) {
+            assertEquals(monitor.getBattery(Arrays.copyOf(events, k + 1)), index.levelAfter(k),
+                    "Prefix " + k + " wraps like getBattery");
+        }
+
+        index.update(150, -5);
+        events[150] = -5;
+        assertEquals(monitor.getBattery(events), index.levelAfter(299), "Update keeps raw events in sync");
+    }
+
+    @Test
+    public void testInvalidIndex() {
+        BatteryHistoryIndex index = new BatteryHistoryIndex(new int[]{});
+        assertThrows(IndexOutOfBoundsException.class, () -> index.levelAfter(0), "Empty history has no events");
+        assertThrows(IllegalArgumentException.class, () -> index.applyRange(101, 0, 0), "Start level above 100");
+        assertThrows(IllegalArgumentException.class, () -> index.applyRange(-1, 0, 0), "Start level below 0");
+    }
+
+    private int[] randomEvents(Random random, int length) {
+        int[] events = new int[length];
+        for (int i = 0; i < length; i++) {
+            events[i] = random.nextInt(121) - 60;
+        }
+        return events;
+    }
+}
@@ -0,0 +1,170 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.server.BatteryIngestionServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.BindException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class BatteryIngestionServerTest {
+
+    private BatteryMonitor monitor;
+    private BatteryIngestionServer server;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        monitor = new BatteryMonitor();
+        server = new BatteryIngestionServer(0);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testProblemExampleOverOneConnection() throws IOException {
+        try (Socket socket = connect();
+             PrintWriter out = writer(socket);
+             BufferedReader in = reader(socket)) {
+            for (int event : new int[]{10, -20, 61, -15}) {
+                out.println("EVENT 42 " + event);
+            }
+            out.println("LEVEL 42");
+            out.println("LEVEL 7");
+            out.println("EVENT 42");
+            out.println("EVENT x 1");
+            out.flush();
+
+            assertEquals("60", in.readLine(), "Level after event 0");
+            assertEquals("40", in.readLine(), "Level after event 1");
+            assertEquals("100", in.readLine(), "Level after event 2");
+            assertEquals("85", in.readLine(), "Level after event 3");
+            String result = in.readLine();
+            System.out.println("[testProblemExampleOverOneConnection] Resultado da bateria: " + result);
+            assertEquals("85", result, "Queried level");
+            assertEquals("50", in.readLine(), "Unknown device reports the initial charge");
+            assertEquals("ERR expected EVENT <deviceId> <minutes>", in.readLine(), "Missing argument");
+            assertEquals("ERR invalid number", in.readLine(), "Invalid device id");
+        }
+    }
+
+    @Test
+    public void testBindFailureKeepsRunningServer() throws IOException {
+        assertThrows(BindException.class, () -> new BatteryIngestionServer(server.port()), "Port already in use");
+        try (Socket socket = connect();
+             PrintWriter out = writer(socket);
+             BufferedReader in = reader(socket)) {
+            out.println("EVENT 9 -30");
+            out.flush();
+            String result = in.readLine();
+            System.out.println("[testBindFailureKeepsRunningServer] Resultado da bateria: " + result);
+            assertEquals("20", result, "Original server still accepts clients");
+        }
+    }
+
+    @Test
+    public void testOverlongLineClosesConnection() throws IOException {
+        try (Socket socket = connect();
+             PrintWriter out = writer(socket);
+             BufferedReader in = reader(socket)) {
+            out.print("EVENT 1 " + "9".repeat(200));
+            out.flush();
+            String result = in.readLine();
+            System.out.println("[testOverlongLineClosesConnection] Resposta: " + result);
+            assertEquals("ERR line too long", result, "Line above the limit is rejected");
+            assertNull(in.readLine(), "Connection is closed");
+        }
+        assertEquals(BatteryMonitor.INITIAL_BATTERY_LEVEL, server.level(1L), "Rejected line is not applied");
+    }
+
+    @Test
+    public void testDeviceLimitAndSingleStart() throws IOException {
+        assertThrows(IllegalStateException.class, server::start, "Second start is rejected");
+        try (BatteryIngestionServer limited = new BatteryIngestionServer(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), monitor, 2)) {
+            limited.start();
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), limited.port());
+                 PrintWriter out = writer(socket);
+                 BufferedReader in = reader(socket)) {
+                out.println("EVENT 1 10");
+                out.println("EVENT 2 10");
+                out.println("EVENT 3 10");
+                out.println("EVENT 1 10");
+                out.flush();
+                assertEquals("60", in.readLine(), "First device");
+                assertEquals("60", in.readLine(), "Second device");
+                String result = in.readLine();
+                System.out.println("[testDeviceLimitAndSingleStart] Resposta: " + result);
+                assertEquals("ERR device limit reached", result, "Third device exceeds the limit");
+                assertEquals("70", in.readLine(), "Known devices keep working");
+            }
+        }
+    }
+
+    @Test
+    public void testManyConcurrentClients() throws Exception {
+        int clients = 500;
+        int[] events = {20, -10, 30, -25, 15};
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                long deviceId = c;
+                results.add(executor.submit(() -> {
+                    try (Socket socket = connect();
+                         PrintWriter out = writer(socket);
+                         BufferedReader in = reader(socket)) {
+                        for (int event : events) {
+                            out.println("EVENT " + deviceId + " " + event);
+                        }
+                        out.println("QUIT");
+                        out.flush();
+                        String last = null;
+                        for (int i = 0; i < events.length; i++) {
+                            last = in.readLine();
+                        }
+                        return last;
+                    }
+                }));
+            }
+            for (Future<String> result : results) {
+                assertEquals(Integer.toString(monitor.getBattery(events)), result.get(), "Client sees final level");
+            }
+        }
+        for (int c = 0; c < clients; c++) {
+            assertEquals(monitor.getBattery(events), server.level(c), "Server keeps level of device " + c);
+        }
+        System.out.println("[testManyConcurrentClients] Clientes: " + clients);
+    }
+
+    private Socket connect() throws IOException {
+        return new Socket(InetAddress.getLoopbackAddress(), server.port());
+    }
+
+    private static PrintWriter writer(Socket socket) throws IOException {
+        return new PrintWriter(socket.getOutputStream(), false, StandardCharsets.US_ASCII);
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.jfr.BatteryLimitHitEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class BatteryJfrEventsTest {
+
+    private static final String BATCH_EVENT = "org.example.BatteryBatch";
+    private static final String LIMIT_HIT_EVENT = "org.example.BatteryLimitHit";
+
+    @TempDir
+    Path tempDir;
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testBatchEventCarriesFields() throws IOException {
+        List<RecordedEvent> events = record(true, false, () -> monitor.getBattery(new int[]{10, -20, 61, -15, -200}));
+
+        List<RecordedEvent> batches = events.stream().filter(e -> e.getEventType().getName().equals(BATCH_EVENT)).toList();
+        System.out.println("[testBatchEventCarriesFields] Eventos gravados: " + batches.size());
+        assertEquals(1, batches.size(), "One batch event per getBattery call");
+        RecordedEvent batch = batches.get(0);
+        assertEquals(5, batch.getInt("eventCount"), "Event count");
+        assertEquals(50, batch.getInt("startLevel"), "Start level");
+        assertEquals(0, batch.getInt("endLevel"), "End level");
+        assertEquals(1, batch.getInt("upperClampHits"), "Upper clamp hits");
+        assertEquals(1, batch.getInt("lowerClampHits"), "Lower clamp hits");
+    }
+
+    @Test
+    public void testLimitHitEventIsSampled() throws IOException {
+        int[] saturating = new int[200_000];
+        for (int i = 0; i < saturating.length; i++) {
+            saturating[i] = (i & 1) == 0 ? 150 : -150;
+        }
+        List<RecordedEvent> events = record(false, true, () -> monitor.getBattery(saturating));
+
+        List<RecordedEvent> hits = events.stream().filter(e -> e.getEventType().getName().equals(LIMIT_HIT_EVENT)).toList();
+        System.out.println("[testLimitHitEventIsSampled] Amostras: " + hits.size());
+        assertTrue(hits.size() > 0, "Some limit hits are sampled");
+        assertTrue(hits.size() < saturating.length / 16, "Most limit hits are skipped");
+        for (RecordedEvent hit : hits) {
+            assertEquals(BatteryLimitHitEvent.SAMPLE_RATE, hit.getInt("sampleWeight"), "Weight allows scaling");
+            int limited = hit.getInt("limitedLevel");
+            assertTrue(limited == 0 || limited == 100, "Limited level is a bound");
+        }
+    }
+
+    @Test
+    public void testEventsAreDisabledByDefault() throws IOException {
+        List<RecordedEvent> events = record(false, false, () -> monitor.getBattery(new int[]{200, -300}));
+        assertTrue(events.stream().noneMatch(e -> e.getEventType().getName().startsWith("org.example.")),
+                "No battery events without enabling them");
+    }
+
+    private List<RecordedEvent> record(boolean batch, boolean limitHits, Runnable work) throws IOException {
+        Path file = tempDir.resolve("battery.jfr");
+        try (Recording recording = new Recording()) {
+            if (batch) {
+                recording.enable(BATCH_EVENT);
+            }
+            if (limitHits) {
+                recording.enable(LIMIT_HIT_EVENT);
+            }
+            recording.start();
+            work.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+}
@@ -0,0 +1,298 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.functions.rate.LinearRateModel;
+import org.example.io.EventChunk;
+import org.example.stream.BatteryLevelProcessor;
+import org.example.stream.BatteryLevelUpdates;
+import org.example.stream.LevelEmission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+public class BatteryLevelProcessorTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testProblemExample() {
+        BatteryLevelProcessor processor = new BatteryLevelProcessor();
+        RecordingUpstream upstream = new RecordingUpstream();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(upstream);
+        subscriber.subscription.request(1);
+
+        processor.onNext(chunk(7L, 10, -20, 61, -15));
+        processor.onComplete();
+
+        BatteryLevelUpdates updates = subscriber.received.get(0);
+        System.out.println("[testProblemExample] Resultado da bateria: " + updates.level(3));
+        assertEquals(4, updates.size(), "One update per event");
+        assertEquals(85, updates.level(3), "Processor matches the problem example");
+        assertTrue(subscriber.completed, "Completion is forwarded");
+    }
+
+    @Test
+    public void testUpstreamDemandFollowsDownstreamDemand() {
+        BatteryLevelProcessor processor = new BatteryLevelProcessor(new LinearRateModel(), LevelEmission.EVERY_EVENT, 4);
+        RecordingUpstream upstream = new RecordingUpstream();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.onSubscribe(upstream);
+        processor.subscribe(subscriber);
+        assertEquals(0, upstream.requested, "Nothing requested without downstream demand");
+
+        subscriber.subscription.request(2);
+        assertEquals(2, upstream.requested, "Upstream demand mirrors downstream demand");
+        processor.onNext(chunk(1L, 5));
+        processor.onNext(chunk(1L, 5));
+        assertEquals(2, upstream.requested, "Slow subscriber stops ingestion");
+
+        subscriber.subscription.request(100);
+        assertEquals(6, upstream.requested, "Outstanding batches capped by prefetch");
+        for (int i = 0; i < 2; i++) {
+            processor.onNext(chunk(1L, 1));
+        }
+        assertEquals(8, upstream.requested, "Refilled once half the prefetch is consumed");
+    }
+
+    @Test
+    public void testChangedOnlySkipsUnchangedBatches() {
+        BatteryLevelProcessor processor = new BatteryLevelProcessor(new LinearRateModel(), LevelEmission.CHANGED_ONLY, 4);
+        RecordingUpstream upstream = new RecordingUpstream();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(upstream);
+        subscriber.subscription.request(1);
+
+        processor.onNext(chunk(1L, 0, 0));
+        assertEquals(0, subscriber.received.size(), "Neutral batch is not published");
+        assertEquals(2, upstream.requested, "Unused demand is passed back upstream");
+
+        processor.onNext(chunk(1L, 60, 10, 0, -5));
+        BatteryLevelUpdates updates = subscriber.received.get(0);
+        assertEquals(2, updates.size(), "Only the 50 -> 100 and 100 -> 95 changes are published");
+        assertEquals(95, updates.level(1), "Last changed level");
+    }
+
+    @Test
+    public void testInvalidRequestSignalsError() {
+        BatteryLevelProcessor processor = new BatteryLevelProcessor();
+        RecordingUpstream upstream = new RecordingUpstream();
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(upstream);
+        subscriber.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error, "Rule 3.9");
+        assertTrue(upstream.cancelled, "Upstream is cancelled");
+
+        RecordingSubscriber second = new RecordingSubscriber();
+        processor.subscribe(second);
+        assertInstanceOf(IllegalStateException.class, second.error, "Single subscriber");
+    }
+
+    @Test
+    public void testTerminalSignalWaitsForOnSubscribe() throws InterruptedException {
+        BatteryLevelProcessor processor = new BatteryLevelProcessor();
+        processor.onSubscribe(new RecordingUpstream());
+        boolean[] completedDuringOnSubscribe = new boolean[1];
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                super.onSubscribe(subscription);
+                Thread producer = new Thread(processor::onComplete);
+                producer.start();
+                try {
+                    producer.join(TimeUnit.SECONDS.toMillis(10));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                completedDuringOnSubscribe[0] = completed;
+            }
+        };
+        processor.subscribe(subscriber);
+
+        System.out.println("[testTerminalSignalWaitsForOnSubscribe] Resultado da bateria: " + subscriber.completed);
+        assertFalse(completedDuringOnSubscribe[0], "Rule 1.9: no terminal signal before onSubscribe returns");
+        assertTrue(subscriber.completed, "Completion is published after onSubscribe returns");
+    }
+
+    @Test
+    public void testInvalidRequestInsideOnSubscribeSignalsError() {
+        BatteryLevelProcessor processor = new BatteryLevelProcessor();
+        RecordingUpstream upstream = new RecordingUpstream();
+        processor.onSubscribe(upstream);
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                super.onSubscribe(subscription);
+                subscription.request(-1);
+                assertNull(error, "Rule 1.9: onError waits for onSubscribe to return");
+            }
+        };
+        processor.subscribe(subscriber);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error, "Rule 3.9");
+        assertTrue(upstream.cancelled, "Upstream is cancelled");
+    }
+
+    @Test
+    public void testSynchronousUpstreamIsNotRequestedReentrantly() {
+        BatteryLevelProcessor processor = new BatteryLevelProcessor(new LinearRateModel(), LevelEmission.EVERY_EVENT, 4);
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        int[] remaining = {1_000};
+        boolean[] inRequest = new boolean[1];
+        boolean[] reentered = new boolean[1];
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                reentered[0] |= inRequest[0];
+                inRequest[0] = true;
+                for (long i = 0; i < n && remaining[0] > 0; i++) {
+                    remaining[0]--;
+                    processor.onNext(chunk(1L, 1));
+                }
+                inRequest[0] = false;
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.subscription.request(Long.MAX_VALUE);
+
+        int last = subscriber.received.get(subscriber.received.size() - 1).level(0);
+        System.out.println("[testSynchronousUpstreamIsNotRequestedReentrantly] Resultado da bateria: " + last);
+        assertFalse(reentered[0], "Rule 2.7: request is never called reentrantly");
+        assertEquals(1_000, subscriber.received.size(), "Every batch is delivered");
+        assertEquals(100, last, "Level saturates at the upper limit");
+    }
+
+    @Test
+    public void testSubmissionPublisherWithSlowSubscriber() throws InterruptedException {
+        Random random = new Random(32);
+        int deviceCount = 8;
+        Map<Long, List<Integer>> history = new HashMap<>();
+        Map<Long, Integer> lastLevels = new HashMap<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        BatteryLevelProcessor processor = new BatteryLevelProcessor(new LinearRateModel(), LevelEmission.CHANGED_ONLY, 2);
+        processor.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(BatteryLevelUpdates updates) {
+                for (int i = 0; i < updates.size(); i++) {
+                    lastLevels.put(updates.deviceId(i), updates.level(i));
+                }
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+
+        try (SubmissionPublisher<EventChunk> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int batch = 0; batch < 500; batch++) {
+                EventChunk chunk = new EventChunk();
+                for (int i = 0; i < 20; i++) {
+                    long deviceId = random.nextInt(deviceCount);
+                    int event = random.nextInt(41) - 20;
+                    history.computeIfAbsent(deviceId, id -> new ArrayList<>()).add(event);
+                    chunk.add(deviceId, event);
+                }
+                publisher.submit(chunk);
+            }
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS), "Stream completes");
+
+        for (Map.Entry<Long, List<Integer>> entry : history.entrySet()) {
+            int expected = monitor.getBattery(entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+            assertEquals(expected, lastLevels.getOrDefault(entry.getKey(), BatteryMonitor.INITIAL_BATTERY_LEVEL),
+                    "Device " + entry.getKey());
+        }
+    }
+
+    private static EventChunk chunk(long deviceId, int... events) {
+        EventChunk chunk = new EventChunk();
+        for (int event : events) {
+            chunk.add(deviceId, event);
+        }
+        return chunk;
+    }
+
+    private static final class RecordingUpstream implements Flow.Subscription {
+        long requested;
+        boolean cancelled;
+
+        @Override
+        public void request(long n) {
+            requested += n;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<BatteryLevelUpdates> {
+        final List<BatteryLevelUpdates> received = new ArrayList<>();
+        Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(BatteryLevelUpdates updates) {
+            received.add(updates);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+}
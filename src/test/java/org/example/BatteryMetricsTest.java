@@ -0,0 +1,100 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.functions.rate.LinearRateModel;
+import org.example.metrics.BatteryMetrics;
+import org.example.metrics.BatteryMetricsSnapshot;
+import org.example.metrics.LatencyHistogram;
+import org.example.metrics.LatencySnapshot;
+import org.example.utills.TraceSink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.channels.Channels;
+
+public class BatteryMetricsTest {
+
+    private BatteryMetrics metrics;
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        metrics = new BatteryMetrics();
+        monitor = new BatteryMonitor(new LinearRateModel(), metrics);
+    }
+
+    @Test
+    public void testGetBatteryCounters() {
+        int result = monitor.getBattery(new int[]{10, -20, 61, -15, 0});
+        monitor.getBattery(new int[]{-60});
+        System.out.println("[testGetBatteryCounters] Resultado da bateria: " + result);
+
+        BatteryMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(85, result, "Instrumentation does not change the result");
+        assertEquals(2, snapshot.calls(), "Two calls recorded");
+        assertEquals(6, snapshot.eventsProcessed(), "Every event is counted");
+        assertEquals(2, snapshot.chargingEvents(), "Charging events");
+        assertEquals(3, snapshot.gamingEvents(), "Gaming events");
+        assertEquals(1, snapshot.neutralEvents(), "Neutral events");
+        assertEquals(1, snapshot.upperClampHits(), "40 + 61 hits the cap");
+        assertEquals(1, snapshot.lowerClampHits(), "50 - 60 hits the floor");
+        assertEquals(2, snapshot.latency().count(), "One latency per call");
+    }
+
+    @Test
+    public void testDemonstrateProcessCounters() throws IOException {
+        int[] events = {60, -200, 5};
+        monitor.demonstrateProcess(events, new TraceSink(Channels.newChannel(new ByteArrayOutputStream())));
+
+        BatteryMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.calls(), "One call recorded");
+        assertEquals(3, snapshot.eventsProcessed(), "Every event is counted");
+        assertEquals(1, snapshot.upperClampHits(), "50 + 60 hits the cap");
+        assertEquals(1, snapshot.lowerClampHits(), "100 - 200 hits the floor");
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 10);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+        System.out.println("[testHistogramPercentiles] p99: " + snapshot.valueAtPercentile(99.0));
+
+        assertEquals(100_000, snapshot.count(), "Every value is counted");
+        assertEquals(1_000_000, snapshot.max(), "Max is exact");
+        assertEquals(500_005.0, snapshot.mean(), 1e-6, "Mean is exact");
+        assertWithinPercent(500_000, snapshot.valueAtPercentile(50.0));
+        assertWithinPercent(990_000, snapshot.valueAtPercentile(99.0));
+        assertWithinPercent(999_000, snapshot.valueAtPercentile(99.9));
+        assertEquals(1_000_000, snapshot.valueAtPercentile(100.0), "p100 is the max");
+    }
+
+    @Test
+    public void testMBeanExposesCounters() throws Exception {
+        ObjectName name = metrics.registerMBean("test-" + System.nanoTime());
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            monitor.getBattery(new int[]{10, -20, 61, -15});
+            assertEquals(4L, server.getAttribute(name, "EventsProcessed"), "Attribute reflects the counters");
+            assertEquals(1L, server.getAttribute(name, "Calls"), "Calls attribute");
+            server.invoke(name, "reset", null, null);
+            assertEquals(0L, metrics.getEventsProcessed(), "Reset over JMX clears the counters");
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+
+    private static void assertWithinPercent(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected * 0.03,
+                "Expected " + expected + " within 3% but was " + actual);
+    }
+}
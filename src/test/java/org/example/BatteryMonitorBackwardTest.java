@@ -0,0 +1,64 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BatteryMonitorBackwardTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testProblemExample() {
+        int result = monitor.getBatteryBackward(new int[]{10, -20, 61, -15});
+        System.out.println("[testProblemExample] Resultado da bateria: " + result);
+        assertEquals(85, result, "Backward scan matches the problem example");
+    }
+
+    @Test
+    public void testNoEvents() {
+        assertEquals(50, monitor.getBatteryBackward(new int[]{}), "No events keeps the initial charge");
+    }
+
+    @Test
+    public void testSaturatedSuffix() {
+        int[] events = {-30, 5, 200, 3, 4, -2, 1};
+        int result = monitor.getBatteryBackward(events);
+        System.out.println("[testSaturatedSuffix] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(events), result, "Suffix after the reset decides the level");
+    }
+
+    @Test
+    public void testOverflowingEventsMatchSequential() {
+        int[][] cases = {
+                {Integer.MAX_VALUE, -10},
+                {20, Integer.MAX_VALUE - 50, 3},
+                {Integer.MIN_VALUE, 5, Integer.MAX_VALUE},
+                {-5, Integer.MAX_VALUE - 100, Integer.MAX_VALUE - 99}
+        };
+        for (int[] events : cases) {
+            assertEquals(monitor.getBattery(events), monitor.getBatteryBackward(events), "Overflow case matches");
+        }
+    }
+
+    @Test
+    public void testRandomArraysMatchSequential() {
+        Random random = new Random(18);
+        for (int trial = 0; trial < 2000; trial++) {
+            int[] events = new int[random.nextInt(300)];
+            int bound = 1 + random.nextInt(150);
+            for (int i = 0; i < events.length; i++) {
+                events[i] = random.nextInt(200) == 0 ? random.nextInt() : random.nextInt(2 * bound + 1) - bound;
+            }
+            assertEquals(monitor.getBattery(events), monitor.getBatteryBackward(events), "Trial " + trial + " matches");
+        }
+    }
+}
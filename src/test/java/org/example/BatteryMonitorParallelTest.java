@@ -0,0 +1,101 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.functions.parallel.BatteryTransformTask;
+import org.example.functions.transform.BatteryTransformComposer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatteryMonitorParallelTest {
+
+    private BatteryMonitor monitor;
+    private BatteryTransformComposer composer;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+        composer = new BatteryTransformComposer();
+    }
+
+    @Test
+    public void testProblemExample() {
+        int[] events = {10, -20, 61, -15};
+        int result = monitor.getBatteryParallel(events);
+        System.out.println("[testProblemExample] Resultado da bateria: " + result);
+        assertEquals(85, result, "Battery after example sequence of events");
+    }
+
+    @Test
+    public void testComposedTransformMatchesSequentialOnSmallArrays() {
+        Random random = new Random(42);
+        for (int round = 0; round < 10_000; round++) {
+            int[] events = randomEvents(random, random.nextInt(12), 150);
+            int transform = BatteryTransformTask.composeRange(composer, events, 0, events.length);
+            for (int level = 0; level <= 100; level += 25) {
+                assertEquals(sequential(level, events), composer.apply(transform, level),
+                        "Composed transform matches sequential evaluation from " + level + "%");
+            }
+        }
+    }
+
+    @Test
+    public void testLargeRandomArrayMatchesSequential() {
+        int[] events = randomEvents(new Random(7), 2_000_000, 40);
+        int expected = monitor.getBattery(events);
+        int result = monitor.getBatteryParallel(events);
+        System.out.println("[testLargeRandomArrayMatchesSequential] Resultado da bateria: " + result);
+        assertEquals(expected, result, "Parallel result equals sequential result");
+    }
+
+    @Test
+    public void testOverflowingEventFallsBackToSequential() {
+        int[] events = randomEvents(new Random(8), 100_000, 40);
+        events[events.length - 1] = Integer.MAX_VALUE;
+        int expected = monitor.getBattery(events);
+        int result = monitor.getBatteryParallel(events);
+        System.out.println("[testOverflowingEventFallsBackToSequential] Resultado da bateria: " + result);
+        assertEquals(expected, result, "Wrapping addition is reproduced bit for bit");
+
+        events[events.length / 2] = Integer.MAX_VALUE - 100;
+        events[events.length - 1] = 5;
+        assertEquals(monitor.getBattery(events), monitor.getBatteryParallel(events), "Overflow in the middle");
+        assertEquals(BatteryTransformComposer.NOT_COMPOSABLE, composer.fromEvent(Integer.MAX_VALUE),
+                "Overflowing change is not composable");
+    }
+
+    @Test
+    public void testSaturatingArrayWithCustomPool() {
+        int[] events = new int[1_000_000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = (i / 1000) % 2 == 0 ? 7 : -3;
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int expected = monitor.getBattery(events);
+            int result = monitor.getBatteryParallel(events, pool);
+            System.out.println("[testSaturatingArrayWithCustomPool] Resultado da bateria: " + result);
+            assertEquals(expected, result, "Parallel result on saturating input equals sequential result");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private int sequential(int level, int[] events) {
+        for (int event : events) {
+            level = Math.min(100, Math.max(0, level + event));
+        }
+        return level;
+    }
+
+    private int[] randomEvents(Random random, int length, int bound) {
+        int[] events = new int[length];
+        for (int i = 0; i < length; i++) {
+            events[i] = random.nextInt(2 * bound + 1) - bound;
+        }
+        return events;
+    }
+}
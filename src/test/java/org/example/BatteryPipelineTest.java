@@ -0,0 +1,115 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.io.EventChunk;
+import org.example.metrics.LatencySnapshot;
+import org.example.pipeline.BatteryPipeline;
+import org.example.pipeline.WaitStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BatteryPipelineTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testProblemExample() {
+        int[] levels = new int[4];
+        AtomicInteger received = new AtomicInteger();
+        BatteryPipeline pipeline = new BatteryPipeline(8, WaitStrategy.PARK,
+                (deviceId, event, level, clamped, endOfBatch) -> levels[received.getAndIncrement()] = level);
+        for (int event : new int[]{10, -20, 61, -15}) {
+            pipeline.publish(7L, event);
+        }
+        pipeline.close();
+        System.out.println("[testProblemExample] Resultado da bateria: " + pipeline.level(7L));
+
+        assertEquals(85, pipeline.level(7L), "Pipeline matches the problem example");
+        assertEquals(4, received.get(), "Sink saw every event");
+        assertEquals(100, levels[2], "Sink sees the clamped level");
+        assertEquals(4, pipeline.latency().count(), "One latency per event");
+    }
+
+    @Test
+    public void testEveryWaitStrategyMatchesGetBattery() {
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            assertFleetMatches(strategy, false);
+            assertFleetMatches(strategy, true);
+        }
+    }
+
+    @Test
+    public void testSinkFailureStopsPipeline() {
+        BatteryPipeline pipeline = new BatteryPipeline(4, WaitStrategy.YIELD,
+                (deviceId, event, level, clamped, endOfBatch) -> {
+                    throw new IllegalStateException("sink down");
+                });
+        assertThrows(IllegalStateException.class, () -> {
+            for (int i = 0; i < 100; i++) {
+                pipeline.publish(1L, 1);
+            }
+        });
+        assertThrows(IllegalStateException.class, pipeline::close);
+    }
+
+    @Test
+    public void testBufferSizeMustBePowerOfTwo() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new BatteryPipeline(12, WaitStrategy.PARK, (deviceId, event, level, clamped, endOfBatch) -> { }));
+    }
+
+    private void assertFleetMatches(WaitStrategy strategy, boolean chunked) {
+        Random random = new Random(31);
+        int deviceCount = 16;
+        int length = 1_000;
+        int[][] history = new int[deviceCount][length];
+        AtomicInteger batches = new AtomicInteger();
+        long[] lastSequence = {-1L};
+        BatteryPipeline pipeline = new BatteryPipeline(1024, strategy, (deviceId, event, level, clamped, endOfBatch) -> {
+            if (endOfBatch) {
+                batches.incrementAndGet();
+            }
+            lastSequence[0]++;
+        });
+
+        EventChunk chunk = new EventChunk();
+        for (int t = 0; t < length; t++) {
+            for (int d = 0; d < deviceCount; d++) {
+                int event = random.nextInt(61) - 30;
+                history[d][t] = event;
+                if (chunked) {
+                    chunk.add(d, event);
+                } else {
+                    pipeline.publish(d, event);
+                }
+            }
+            if (chunked && chunk.size() >= 1_000) {
+                pipeline.publish(chunk);
+                chunk.clear();
+            }
+        }
+        pipeline.publish(chunk);
+        pipeline.close();
+
+        for (int d = 0; d < deviceCount; d++) {
+            assertEquals(monitor.getBattery(history[d]), pipeline.level(d), strategy + " device " + d);
+        }
+        LatencySnapshot latency = pipeline.latency();
+        assertEquals(deviceCount * (long) length, pipeline.processedEvents(), "Every event processed");
+        assertEquals(deviceCount * (long) length, latency.count(), "Every latency recorded");
+        assertEquals(deviceCount * (long) length - 1, lastSequence[0], "Sink called once per event");
+        assertTrue(batches.get() > 0, "Sink saw batch boundaries");
+        System.out.println("[assertFleetMatches] " + strategy + " p99 (ns): " + latency.valueAtPercentile(99.0));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.functions.rate.CompiledRateModel;
+import org.example.functions.rate.RateCurve;
+import org.example.functions.rate.Workload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BatteryRateModelTest {
+
+    private BatteryMonitor linearMonitor;
+    private BatteryMonitor fastChargeMonitor;
+
+    @BeforeEach
+    public void setup() {
+        linearMonitor = new BatteryMonitor();
+        RateCurve fastCharge = new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25});
+        fastChargeMonitor = new BatteryMonitor(CompiledRateModel.forWorkload(fastCharge, Workload.GAMING));
+    }
+
+    @Test
+    public void testCompiledConstantCurvesMatchDefaultModel() {
+        BatteryMonitor compiled = new BatteryMonitor(
+                new CompiledRateModel(RateCurve.constant(1.0), RateCurve.constant(1.0)));
+        Random random = new Random(17);
+        for (int round = 0; round < 1000; round++) {
+            int[] events = new int[random.nextInt(20)];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = random.nextInt(301) - 150;
+            }
+            assertEquals(linearMonitor.getBattery(events), compiled.getBattery(events),
+                    "1%/min compiled model matches the default model");
+        }
+    }
+
+    @Test
+    public void testFastChargeThenTrickle() {
+        int result = fastChargeMonitor.getBattery(new int[]{20});
+        System.out.println("[testFastChargeThenTrickle] Resultado da bateria: " + result);
+        assertEquals(81, result, "15 minutes at 2%/min to 80%, then 5 minutes at 0.25%/min");
+    }
+
+    @Test
+    public void testTrickleToFullAndGamingDrain() {
+        int result = fastChargeMonitor.getBattery(new int[]{Integer.MAX_VALUE, -15, Integer.MIN_VALUE, 10});
+        System.out.println("[testTrickleToFullAndGamingDrain] Resultado da bateria: " + result);
+        assertEquals(20, result, "Saturates at 100%, drains to 0%, then charges 10 minutes at 2%/min");
+    }
+
+    @Test
+    public void testParallelFallsBackForNonLinearModel() {
+        int[] events = new int[200_000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = i % 3 == 0 ? 7 : -3;
+        }
+        assertEquals(fastChargeMonitor.getBattery(events), fastChargeMonitor.getBatteryParallel(events),
+                "Parallel evaluation uses the sequential path for non-linear models");
+    }
+
+    @Test
+    public void testSlowCurvesAreRejectedOrComputedWithoutTable() {
+        assertThrows(IllegalArgumentException.class, () -> RateCurve.constant(1e-6), "Rate below the minimum");
+
+        CompiledRateModel slow = new CompiledRateModel(RateCurve.constant(RateCurve.MIN_PERCENT_PER_MINUTE),
+                RateCurve.constant(RateCurve.MIN_PERCENT_PER_MINUTE));
+        assertFalse(slow.isTabulated(), "100,000-minute curves exceed the table cap");
+        BatteryMonitor slowMonitor = new BatteryMonitor(slow);
+        int result = slowMonitor.getBattery(new int[]{999, 1_000, 12_345, -2_500, Integer.MIN_VALUE, 80_000});
+        System.out.println("[testSlowCurvesAreRejectedOrComputedWithoutTable] Resultado da bateria: " + result);
+        assertEquals(80, result, "1000 minutes per point: +0, +1, +12, -2, drained, then +80");
+
+        CompiledRateModel tabulated = new CompiledRateModel(RateCurve.constant(0.5), RateCurve.constant(0.5));
+        assertTrue(tabulated.isTabulated(), "Fast curves keep their tables");
+    }
+
+    @Test
+    public void testSessionUsesRateModel() {
+        int result = fastChargeMonitor.openSession().accept(20);
+        assertEquals(81, result, "Session applies the monitor's rate model");
+    }
+}
@@ -0,0 +1,109 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.functions.rate.CompiledRateModel;
+import org.example.functions.rate.RateCurve;
+import org.example.functions.rate.Workload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BatteryResponseCurveTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testInitialLevel() {
+        int result = monitor.getBattery(20, new int[]{10, -20, 61, -15});
+        System.out.println("[testInitialLevel] Resultado da bateria: " + result);
+        assertEquals(56, result, "From 20% no step reaches a limit: 30, 10, 71, 56");
+        assertEquals(monitor.getBattery(new int[]{10, -20, 61, -15}),
+                monitor.getBattery(BatteryMonitor.INITIAL_BATTERY_LEVEL, new int[]{10, -20, 61, -15}),
+                "Default initial level is 50");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> monitor.getBattery(101, new int[0]));
+        assertEquals("Initial level must be between 0 and 100: 101", error.getMessage(), "Message states the range");
+        assertThrows(IllegalArgumentException.class, () -> monitor.getBattery(-1, new int[0]));
+    }
+
+    @Test
+    public void testProblemExampleCurve() {
+        int[] events = {10, -20, 61, -15};
+        int[] curve = monitor.getResponseCurve(events);
+        System.out.println("[testProblemExampleCurve] Resultado da bateria: " + curve[50]);
+        assertEquals(101, curve.length, "One entry per initial level");
+        assertCurveMatches(monitor, events, curve, 0);
+    }
+
+    @Test
+    public void testEmptyHistoryIsIdentity() {
+        int[] curve = monitor.getResponseCurve(new int[0]);
+        for (int level = 0; level <= 100; level++) {
+            assertEquals(level, curve[level], "No events keep level " + level);
+        }
+    }
+
+    @Test
+    public void testRandomCurvesMatchGetBattery() {
+        Random random = new Random(28);
+        for (int trial = 0; trial < 100; trial++) {
+            int[] events = randomEvents(random, random.nextInt(400));
+            assertCurveMatches(monitor, events, monitor.getResponseCurve(events), 0);
+        }
+    }
+
+    @Test
+    public void testNonLinearModelCurve() {
+        BatteryMonitor curved = new BatteryMonitor(CompiledRateModel.forWorkload(
+                new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25}), Workload.GAMING));
+        Random random = new Random(29);
+        for (int trial = 0; trial < 50; trial++) {
+            int[] events = randomEvents(random, random.nextInt(1_000));
+            assertCurveMatches(curved, events, curved.getResponseCurve(events), 0);
+        }
+    }
+
+    @Test
+    public void testBatchCurves() {
+        Random random = new Random(30);
+        int[][] histories = new int[20][];
+        int[] offsets = new int[histories.length + 1];
+        for (int d = 0; d < histories.length; d++) {
+            histories[d] = randomEvents(random, random.nextInt(100));
+            offsets[d + 1] = offsets[d] + histories[d].length;
+        }
+        int[] events = new int[offsets[histories.length]];
+        for (int d = 0; d < histories.length; d++) {
+            System.arraycopy(histories[d], 0, events, offsets[d], histories[d].length);
+        }
+
+        int[] curves = monitor.getResponseCurves(events, offsets);
+        assertEquals(histories.length * 101, curves.length, "One curve per history");
+        for (int d = 0; d < histories.length; d++) {
+            assertCurveMatches(monitor, histories[d], curves, d * 101);
+        }
+        assertThrows(IllegalArgumentException.class, () -> monitor.getResponseCurves(events, new int[]{0, -1}));
+    }
+
+    private static void assertCurveMatches(BatteryMonitor monitor, int[] events, int[] curve, int offset) {
+        for (int level = 0; level <= 100; level++) {
+            assertEquals(monitor.getBattery(level, events), curve[offset + level], "Initial level " + level);
+        }
+    }
+
+    private static int[] randomEvents(Random random, int length) {
+        int[] events = new int[length];
+        for (int i = 0; i < length; i++) {
+            events[i] = random.nextInt(50) == 0 ? random.nextInt() : random.nextInt(61) - 30;
+        }
+        return events;
+    }
+}
@@ -0,0 +1,119 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.cache.BatteryResultCache;
+import org.example.functions.rate.CompiledRateModel;
+import org.example.functions.rate.LinearRateModel;
+import org.example.functions.rate.RateCurve;
+import org.example.functions.rate.Workload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class BatteryResultCacheTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testRepeatedArrayHitsCache() {
+        BatteryResultCache cache = monitor.newResultCache(100);
+        int[] events = {10, -20, 61, -15};
+
+        int first = cache.getBattery(events);
+        int second = cache.getBattery(events.clone());
+        System.out.println("[testRepeatedArrayHitsCache] Resultado da bateria: " + second);
+        assertEquals(85, first, "First call computes the result");
+        assertEquals(85, second, "Second call returns the cached result");
+        assertEquals(1, cache.misses(), "Only the first call misses");
+        assertEquals(1, cache.hits(), "Second call is a full hit");
+    }
+
+    @Test
+    public void testExtendedArrayResumesFromCheckpoint() {
+        BatteryResultCache cache = new BatteryResultCache(new LinearRateModel(), 1000, 100);
+        Random random = new Random(13);
+        int[] base = random.ints(1000, -40, 41).toArray();
+        int[] extended = Arrays.copyOf(base, 1010);
+        for (int i = base.length; i < extended.length; i++) {
+            extended[i] = random.nextInt(81) - 40;
+        }
+
+        assertEquals(monitor.getBattery(base), cache.getBattery(base), "Base array matches getBattery");
+        int result = cache.getBattery(extended);
+        System.out.println("[testExtendedArrayResumesFromCheckpoint] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(extended), result, "Extended array matches getBattery");
+        assertEquals(1, cache.prefixHits(), "Extended array resumes from the last checkpoint");
+
+        int[] shorter = Arrays.copyOf(extended, 550);
+        assertEquals(monitor.getBattery(shorter), cache.getBattery(shorter), "Shorter array matches getBattery");
+        assertEquals(2, cache.prefixHits(), "Shorter array resumes from an earlier checkpoint");
+        assertEquals(1, cache.misses(), "Only the first call misses");
+    }
+
+    @Test
+    public void testMidArrayEditIsDetected() {
+        BatteryResultCache cache = new BatteryResultCache(new LinearRateModel(), 1000, 100);
+        int[] events = new int[1000];
+        Arrays.fill(events, 1);
+        assertEquals(100, cache.getBattery(events), "Steady charging saturates");
+
+        int[] edited = events.clone();
+        Arrays.fill(edited, 450, 460, -40);
+        int result = cache.getBattery(edited);
+        System.out.println("[testMidArrayEditIsDetected] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(edited), result, "Edited array matches getBattery");
+        assertEquals(0, cache.hits(), "Edited array is never a full hit");
+        assertEquals(1, cache.prefixHits(), "Edited array resumes before the edit");
+
+        int[] singleEdit = events.clone();
+        singleEdit[3] = -100;
+        assertEquals(monitor.getBattery(singleEdit), cache.getBattery(singleEdit), "Early edit matches getBattery");
+        assertEquals(2, cache.misses(), "Edit before the first checkpoint is a miss");
+    }
+
+    @Test
+    public void testDistinctArraysNeverShareResults() {
+        BatteryResultCache cache = monitor.newResultCache(100);
+        int[] charging = {60};
+        int[] draining = {-60};
+
+        assertEquals(100, cache.getBattery(charging), "First array");
+        assertEquals(0, cache.getBattery(draining), "Same length, other content is evaluated");
+        assertEquals(2, cache.misses(), "No call reuses another array's level");
+    }
+
+    @Test
+    public void testEvictionKeepsSizeBounded() {
+        BatteryResultCache cache = monitor.newResultCache(8);
+        Random random = new Random(14);
+        for (int i = 0; i < 50; i++) {
+            int[] events = random.ints(20, -60, 61).toArray();
+            assertEquals(monitor.getBattery(events), cache.getBattery(events), "Array " + i + " matches getBattery");
+        }
+        System.out.println("[testEvictionKeepsSizeBounded] Despejos: " + cache.evictions());
+        assertEquals(8, cache.size(), "Size stays at the bound");
+        assertEquals(42, cache.evictions(), "Every entry past the bound evicts one");
+    }
+
+    @Test
+    public void testNonLinearModelMatchesMonitor() {
+        BatteryMonitor curved = new BatteryMonitor(CompiledRateModel.forWorkload(
+                new RateCurve(new int[] {0, 80, 100}, new double[] {2.0, 0.5}), Workload.VIDEO));
+        BatteryResultCache cache = curved.newResultCache(1000);
+        Random random = new Random(15);
+        int[] events = random.ints(20_000, -30, 31).toArray();
+
+        assertEquals(curved.getBattery(events), cache.getBattery(events), "First evaluation matches");
+        int[] extended = Arrays.copyOf(events, events.length + 3);
+        extended[events.length] = 7;
+        assertEquals(curved.getBattery(extended), cache.getBattery(extended), "Resumed evaluation matches");
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.stream.BatterySession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BatterySessionTest {
+
+    private BatteryMonitor monitor;
+    private BatterySession session;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+        session = monitor.openSession();
+    }
+
+    @Test
+    public void testNoEvents() {
+        int result = session.currentLevel();
+        System.out.println("[testNoEvents] Resultado da bateria: " + result);
+        assertEquals(50, result, "No events, battery remains at 50%");
+    }
+
+    @Test
+    public void testAcceptOneAtATime() {
+        int[] events = {10, -20, 61, -15};
+        for (int event : events) {
+            session.accept(event);
+        }
+        int result = session.currentLevel();
+        System.out.println("[testAcceptOneAtATime] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(events), result, "Streaming matches getBattery");
+    }
+
+    @Test
+    public void testAcceptAllInChunks() {
+        int[] events = {20, -10, 30, -25, 15, 0, 60, -200, 5};
+        session.acceptAll(events, 0, 4);
+        session.acceptAll(events, 4, 0);
+        session.acceptAll(events, 4, events.length - 4);
+        int result = session.currentLevel();
+        System.out.println("[testAcceptAllInChunks] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(events), result, "Chunked streaming matches getBattery");
+    }
+
+    @Test
+    public void testAcceptAllInvalidRange() {
+        assertThrows(IndexOutOfBoundsException.class, () -> session.acceptAll(new int[3], 2, 2),
+                "Range beyond array is rejected");
+    }
+}
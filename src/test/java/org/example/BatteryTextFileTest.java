@@ -0,0 +1,143 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.fleet.FleetBatteryEngine;
+import org.example.io.BatteryTextFileReader;
+import org.example.io.BatteryTextFormat;
+import org.example.io.EventChunk;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatteryTextFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testCsvProblemExample() throws IOException {
+        Path file = write("example.csv", "deviceId,timestamp,minutes\r\n"
+                + "7,2024-01-01T00:00:00Z,10\r\n"
+                + "7,2024-01-01T00:10:00Z,-20\r\n"
+                + "\r\n"
+                + " 7 , 1704068400 , 61 \r\n"
+                + "7,,-15");
+
+        FleetBatteryEngine engine = new FleetBatteryEngine();
+        try (BatteryTextFileReader reader = BatteryTextFileReader.open(file, BatteryTextFormat.CSV)) {
+            assertEquals(4, reader.replay(engine), "Header and blank lines are skipped");
+        }
+        System.out.println("[testCsvProblemExample] Resultado da bateria: " + engine.level(7L));
+        assertEquals(85, engine.level(7L), "CSV replay matches the problem example");
+    }
+
+    @Test
+    public void testNdjsonFieldsInAnyOrder() throws IOException {
+        Path file = write("example.ndjson",
+                "{\"deviceId\": 7, \"timestamp\": \"2024-01-01T00:00:00Z\", \"minutes\": 10}\n"
+                        + "{\"minutes\":-20,\"deviceId\":\"7\",\"meta\":{\"tags\":[\"a,b\",\"}\"]}}\n"
+                        + "{\"note\":\"esc \\\" quote\",\"deviceId\":7,\"minutes\":61,\"ok\":true}\n"
+                        + "{ \"deviceId\" : -3 , \"minutes\" : -60 }\n"
+                        + "{\"deviceId\":7,\"minutes\":-15,\"timestamp\":1704068400}\n");
+
+        FleetBatteryEngine engine = new FleetBatteryEngine();
+        try (BatteryTextFileReader reader = BatteryTextFileReader.open(file, BatteryTextFormat.NDJSON)) {
+            assertEquals(5, reader.replay(engine), "Every object is a record");
+        }
+        assertEquals(85, engine.level(7L), "NDJSON replay matches the problem example");
+        assertEquals(0, engine.level(-3L), "Negative device ids are accepted");
+    }
+
+    @Test
+    public void testParallelChunksMatchGetBattery() throws IOException {
+        Random random = new Random(25);
+        int deviceCount = 50;
+        int[][] history = new int[deviceCount][2_000];
+        StringBuilder csv = new StringBuilder();
+        StringBuilder ndjson = new StringBuilder();
+        for (int t = 0; t < 2_000; t++) {
+            for (int d = 0; d < deviceCount; d++) {
+                int event = random.nextInt(10) == 0 ? random.nextInt() : random.nextInt(61) - 30;
+                history[d][t] = event;
+                csv.append(d * 1_000_003L).append(',').append(t).append(',').append(event).append('\n');
+                ndjson.append("{\"deviceId\":").append(d * 1_000_003L).append(",\"minutes\":").append(event)
+                        .append('}').append('\n');
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (BatteryTextFormat format : BatteryTextFormat.values()) {
+                Path file = write("fleet." + format, (format == BatteryTextFormat.CSV ? csv : ndjson).toString());
+                FleetBatteryEngine engine = new FleetBatteryEngine();
+                try (BatteryTextFileReader reader = BatteryTextFileReader.open(file, format, 1 << 16, 1 << 10)) {
+                    assertEquals(deviceCount * 2_000L, reader.forEachRecord(engine::apply, pool), "Record count");
+                }
+                for (int d = 0; d < deviceCount; d++) {
+                    assertEquals(monitor.getBattery(history[d]), engine.level(d * 1_000_003L),
+                            format + " device " + d + " matches getBattery");
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testRecordsArriveInFileOrder() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 10_000; i++) {
+            csv.append(i).append(",0,").append(-i).append('\n');
+        }
+        Path file = write("order.csv", csv.toString());
+        EventChunk all = new EventChunk();
+        try (BatteryTextFileReader reader = BatteryTextFileReader.open(file, BatteryTextFormat.CSV, 4096, 100)) {
+            reader.forEachRecord(all::add, ForkJoinPool.commonPool());
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, all.deviceId(i), "Device order");
+            assertEquals(-i, all.event(i), "Event order");
+        }
+    }
+
+    @Test
+    public void testMalformedLinesAreRejected() throws IOException {
+        for (String content : Arrays.asList("7,0,10\n7,0,abc\n", "7,0\n", "7,0,99999999999\n",
+                "{\"deviceId\":7}\n", "{\"deviceId\":7,\"minutes\":1\n", "{\"deviceId\":7,\"minutes\":1} x\n")) {
+            BatteryTextFormat format = content.startsWith("{") ? BatteryTextFormat.NDJSON : BatteryTextFormat.CSV;
+            Path file = write("bad.txt", content);
+            try (BatteryTextFileReader reader = BatteryTextFileReader.open(file, format)) {
+                assertThrows(IOException.class, () -> reader.replay(new FleetBatteryEngine()), content);
+            }
+        }
+    }
+
+    @Test
+    public void testLineLongerThanWindow() throws IOException {
+        Path file = write("long.csv", "1,0," + "0".repeat(100) + "1\n2,0,1\n");
+        try (BatteryTextFileReader reader = BatteryTextFileReader.open(file, BatteryTextFormat.CSV, 64, 16)) {
+            assertThrows(IOException.class, () -> reader.replay(new FleetBatteryEngine()));
+        }
+    }
+
+    private Path write(String name, String content) throws IOException {
+        return Files.write(tempDir.resolve(name), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,147 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.functions.rate.CompiledRateModel;
+import org.example.functions.rate.RateCurve;
+import org.example.functions.rate.Workload;
+import org.example.timeline.BatteryTimeline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class BatteryTimelineTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testProblemExample() {
+        int[] events = {10, -20, 61, -15};
+        int[] levels = new int[events.length];
+        long[] clampHits = {-1L};
+        int result = monitor.getBatteryTimeline(events, levels, clampHits);
+        System.out.println("[testProblemExample] Resultado da bateria: " + Arrays.toString(levels));
+
+        assertEquals(85, result, "Final level matches getBattery");
+        assertArrayEquals(new int[]{60, 40, 100, 85}, levels, "Level after every event");
+        assertEquals(1L << 2, clampHits[0], "Only the 40 + 61 step is clamped; stale bits are cleared");
+    }
+
+    @Test
+    public void testReusableBufferGrows() {
+        BatteryTimeline timeline = new BatteryTimeline();
+        assertSame(timeline, monitor.getBatteryTimeline(new int[]{-60, 10}, timeline), "Buffer is returned");
+        assertEquals(2, timeline.size(), "Two events");
+        assertTrue(timeline.isClamped(0), "50 - 60 hits the floor");
+        assertFalse(timeline.isClamped(1), "0 + 10 is not clamped");
+        assertEquals(10, timeline.finalLevel(), "Final level");
+
+        int[] events = randomEvents(new Random(21), 1_000, 40);
+        monitor.getBatteryTimeline(events, timeline);
+        assertEquals(1_000, timeline.size(), "Buffer grew");
+        assertEquals(monitor.getBattery(events), timeline.finalLevel(), "Final level matches getBattery");
+
+        monitor.getBatteryTimeline(new int[0], timeline);
+        assertEquals(BatteryMonitor.INITIAL_BATTERY_LEVEL, timeline.finalLevel(), "No events keep 50%");
+        assertThrows(IndexOutOfBoundsException.class, () -> timeline.level(0));
+    }
+
+    @Test
+    public void testTimelineMatchesPrefixes() {
+        int[] events = randomEvents(new Random(22), 300, 60);
+        BatteryTimeline timeline = monitor.getBatteryTimeline(events, new BatteryTimeline());
+        int previous = BatteryMonitor.INITIAL_BATTERY_LEVEL;
+        for (int i = 0; i < events.length; i++) {
+            assertEquals(monitor.getBattery(Arrays.copyOf(events, i + 1)), timeline.level(i), "Level " + i);
+            long uncapped = (long) previous + events[i];
+            assertEquals(uncapped < 0 || uncapped > 100, timeline.isClamped(i), "Clamp bit " + i);
+            previous = timeline.level(i);
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        int[] events = randomEvents(new Random(23), 1_000_003, 40);
+        int[] expectedLevels = new int[events.length];
+        long[] expectedHits = new long[BatteryTimeline.wordCount(events.length)];
+        int expected = monitor.getBatteryTimeline(events, expectedLevels, expectedHits);
+
+        int[] levels = new int[events.length];
+        long[] clampHits = new long[expectedHits.length];
+        Arrays.fill(clampHits, -1L);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            int result = monitor.getBatteryTimelineParallel(events, levels, clampHits, pool);
+            System.out.println("[testParallelMatchesSequential] Resultado da bateria: " + result);
+            assertEquals(expected, result, "Same final level");
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expectedLevels, levels, "Same levels");
+        assertArrayEquals(expectedHits, clampHits, "Same clamp bits");
+    }
+
+    @Test
+    public void testParallelWithOverflowingEvent() {
+        int[] events = randomEvents(new Random(24), 200_000, 40);
+        events[70_001] = Integer.MAX_VALUE;
+        events[events.length - 1] = Integer.MAX_VALUE - 60;
+        int[] expectedLevels = new int[events.length];
+        long[] expectedHits = new long[BatteryTimeline.wordCount(events.length)];
+        int expected = monitor.getBatteryTimeline(events, expectedLevels, expectedHits);
+
+        int[] levels = new int[events.length];
+        long[] clampHits = new long[expectedHits.length];
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            assertEquals(expected, monitor.getBatteryTimelineParallel(events, levels, clampHits, pool),
+                    "Same final level");
+        } finally {
+            pool.shutdown();
+        }
+        assertArrayEquals(expectedLevels, levels, "Same levels");
+        assertArrayEquals(expectedHits, clampHits, "Same clamp bits");
+    }
+
+    @Test
+    public void testNonLinearModel() {
+        BatteryMonitor curved = new BatteryMonitor(CompiledRateModel.forWorkload(
+                new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25}), Workload.GAMING));
+        int[] events = randomEvents(new Random(24), 200_000, 30);
+        int[] levels = new int[events.length];
+        long[] clampHits = new long[BatteryTimeline.wordCount(events.length)];
+        int result = curved.getBatteryTimelineParallel(events, levels, clampHits, ForkJoinPool.commonPool());
+        assertEquals(curved.getBattery(events), result, "Falls back to the rate model");
+        assertEquals(result, levels[events.length - 1], "Last level is the result");
+    }
+
+    @Test
+    public void testOutputTooSmall() {
+        int[] events = new int[65];
+        assertThrows(IllegalArgumentException.class,
+                () -> monitor.getBatteryTimeline(events, new int[64], new long[2]));
+        assertThrows(IllegalArgumentException.class,
+                () -> monitor.getBatteryTimeline(events, new int[65], new long[1]));
+    }
+
+    private static int[] randomEvents(Random random, int length, int bound) {
+        int[] events = new int[length];
+        for (int i = 0; i < length; i++) {
+            events[i] = random.nextInt(2 * bound + 1) - bound;
+        }
+        return events;
+    }
+}
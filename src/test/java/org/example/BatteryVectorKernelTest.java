@@ -0,0 +1,74 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.functions.vector.BatteryVectorKernel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BatteryVectorKernelTest {
+
+    private BatteryMonitor monitor;
+    private BatteryVectorKernel kernel;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+        kernel = new BatteryVectorKernel();
+    }
+
+    @Test
+    public void testChallengeCasesAsOneBatch() {
+        int[][] perDevice = {
+                {10, -20, 61, -15},
+                {10, -20, 61, -16},
+                {5, 10},
+                {-30, -25},
+                {60},
+                {},
+                {0, 10, 0, -5},
+                {20, -10, 30, -25, 15}
+        };
+        assertMatchesGetBattery(perDevice);
+    }
+
+    @Test
+    public void testManyRandomDevicesIncludingScalarTail() {
+        Random random = new Random(13);
+        int[][] perDevice = new int[1003][];
+        for (int d = 0; d < perDevice.length; d++) {
+            perDevice[d] = new int[random.nextInt(64)];
+            for (int t = 0; t < perDevice[d].length; t++) {
+                perDevice[d][t] = random.nextInt(161) - 80;
+            }
+        }
+        assertMatchesGetBattery(perDevice);
+    }
+
+    @Test
+    public void testInvalidLayout() {
+        assertThrows(IllegalArgumentException.class, () -> kernel.evaluate(new int[5], 2, new int[2]),
+                "Events length must be a multiple of device count");
+    }
+
+    @Test
+    public void testEmptyInputReturnsEarly() {
+        int[] levels = new int[0];
+        kernel.evaluate(new int[0], 0, levels);
+        assertMatchesGetBattery(new int[0][]);
+        assertMatchesGetBattery(new int[][] {{}, {}, {}});
+        System.out.println("[testEmptyInputReturnsEarly] Resultado da bateria: " + monitor.getBattery(new int[0]));
+    }
+
+    private void assertMatchesGetBattery(int[][] perDevice) {
+        int[] levels = new int[perDevice.length];
+        kernel.evaluate(BatteryVectorKernel.interleave(perDevice), perDevice.length, levels);
+        for (int d = 0; d < perDevice.length; d++) {
+            assertEquals(monitor.getBattery(perDevice[d]), levels[d], "SIMD level matches getBattery for device " + d);
+        }
+        System.out.println("[assertMatchesGetBattery] Dispositivos verificados: " + perDevice.length);
+    }
+}
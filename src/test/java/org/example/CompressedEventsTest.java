@@ -0,0 +1,98 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.compress.CompressedEvents;
+import org.example.functions.rate.CompiledRateModel;
+import org.example.functions.rate.RateCurve;
+import org.example.functions.rate.Workload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class CompressedEventsTest {
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testProblemExample() {
+        CompressedEvents events = CompressedEvents.encode(new int[]{10, -20, 61, -15});
+        int result = monitor.getBattery(events);
+        System.out.println("[testProblemExample] Resultado da bateria: " + result);
+        assertEquals(85, result, "Compressed evaluation matches the problem example");
+        assertEquals(4, events.runCount(), "No repeats means one run per event");
+    }
+
+    @Test
+    public void testZeroEventRuns() {
+        int[] events = {0, 0, 0, 10, 0, -5, -5, -5};
+        CompressedEvents compressed = CompressedEvents.encode(events);
+        assertEquals(monitor.getBattery(events), monitor.getBattery(compressed), "Zero runs are no-ops");
+        assertEquals(4, compressed.runCount(), "Repeats are merged into runs");
+    }
+
+    @Test
+    public void testRoundTripWithExtremeValues() {
+        int[] events = {Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, -1, 0, 1, 1, 1};
+        CompressedEvents compressed = CompressedEvents.encode(events);
+        assertArrayEquals(events, compressed.decode(), "Decoding restores the original events");
+        assertEquals(monitor.getBattery(events), monitor.getBattery(compressed), "Extreme values match getBattery");
+    }
+
+    @Test
+    public void testRandomRunsMatchGetBattery() {
+        Random random = new Random(16);
+        for (int trial = 0; trial < 200; trial++) {
+            int[] events = randomRuns(random, 1 + random.nextInt(2000));
+            CompressedEvents compressed = CompressedEvents.encode(events);
+            assertArrayEquals(events, compressed.decode(), "Trial " + trial + " round-trips");
+            assertEquals(monitor.getBattery(events), monitor.getBattery(compressed), "Trial " + trial + " matches");
+        }
+    }
+
+    @Test
+    public void testRedundantStreamIsSmaller() {
+        int[] events = new int[100_000];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = (i / 1000) % 2 == 0 ? -1 : 0;
+        }
+        CompressedEvents compressed = CompressedEvents.encode(events);
+        System.out.println("[testRedundantStreamIsSmaller] Bytes comprimidos: " + compressed.encodedSize());
+        assertEquals(100, compressed.runCount(), "Each block of ticks is one run");
+        assertTrue(compressed.encodedSize() < events.length / 100, "Runs take a few bytes each");
+        assertEquals(monitor.getBattery(events), monitor.getBattery(compressed), "Tick runs match getBattery");
+    }
+
+    @Test
+    public void testNonLinearModelMatchesGetBattery() {
+        BatteryMonitor curved = new BatteryMonitor(CompiledRateModel.forWorkload(
+                new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25}), Workload.GAMING));
+        Random random = new Random(17);
+        for (int trial = 0; trial < 50; trial++) {
+            int[] events = randomRuns(random, 500);
+            assertEquals(curved.getBattery(events), curved.getBattery(CompressedEvents.encode(events)),
+                    "Trial " + trial + " matches the rate model");
+        }
+    }
+
+    private static int[] randomRuns(Random random, int size) {
+        int[] events = new int[size];
+        int i = 0;
+        while (i < size) {
+            int event = random.nextInt(5) == 0 ? random.nextInt() : random.nextInt(7) - 3;
+            int runEnd = Math.min(size, i + 1 + random.nextInt(50));
+            while (i < runEnd) {
+                events[i++] = event;
+            }
+        }
+        return events;
+    }
+}
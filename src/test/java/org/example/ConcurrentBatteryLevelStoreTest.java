@@ -0,0 +1,88 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.fleet.ConcurrentBatteryLevelStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class ConcurrentBatteryLevelStoreTest {
+
+    private BatteryMonitor monitor;
+    private ConcurrentBatteryLevelStore store;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+        store = new ConcurrentBatteryLevelStore(1024, true);
+    }
+
+    @Test
+    public void testSingleProducerMatchesGetBattery() {
+        int[] events = {10, -20, 61, -15};
+        for (int event : events) {
+            store.apply(0L, event);
+            store.apply(99L, event);
+        }
+        int result = store.level(0L);
+        System.out.println("[testSingleProducerMatchesGetBattery] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(events), result, "Device 0 matches getBattery");
+        assertEquals(monitor.getBattery(events), store.level(99L), "Device 99 matches getBattery");
+        assertEquals(50, store.level(5L), "Unknown device reports the initial charge");
+        assertEquals(2, store.deviceCount(), "Two devices registered");
+    }
+
+    @Test
+    public void testConcurrentProducersDoNotLoseUpdates() throws InterruptedException {
+        int producers = 8;
+        int pairsPerProducer = 50_000;
+        long[] devices = {1L, 2L, 3L};
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < pairsPerProducer; i++) {
+                    for (long device : devices) {
+                        store.apply(device, 1);
+                        store.apply(device, -1);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (long device : devices) {
+            int result = store.level(device);
+            System.out.println("[testConcurrentProducersDoNotLoseUpdates] Dispositivo " + device + ": " + result);
+            assertEquals(50, result, "Balanced +1/-1 events never clamp, so no update may be lost");
+        }
+        int[] visited = new int[1];
+        store.forEachDevice((deviceId, level) -> visited[0]++);
+        assertEquals(devices.length, visited[0], "Every device is visited");
+    }
+
+    @Test
+    public void testCapacityExceeded() {
+        ConcurrentBatteryLevelStore small = new ConcurrentBatteryLevelStore(1, false);
+        for (long device = 1; device <= 2; device++) {
+            small.apply(device, 1);
+        }
+        assertThrows(IllegalStateException.class, () -> small.apply(3L, 1), "Full table rejects new devices");
+    }
+}
@@ -0,0 +1,194 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.example.persistence.DurableBatteryStore;
+import org.example.persistence.WriteAheadLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+
+public class DurableBatteryStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testRestartReplaysLogWithoutSnapshot() throws IOException {
+        int[] events = {30, -10, 25, -70, 5};
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            for (int event : events) {
+                store.apply(42L, event);
+            }
+        }
+
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            System.out.println("[testRestartReplaysLogWithoutSnapshot] Resultado da bateria: " + store.level(42L));
+            assertEquals(monitor.getBattery(events), store.level(42L), "Recovered level matches getBattery");
+            assertEquals(events.length, store.replayedEvents(), "Every logged event is replayed");
+        }
+    }
+
+    @Test
+    public void testRestartReplaysOnlyTailAfterSnapshot() throws IOException {
+        int devices = 50;
+        int eventsPerDevice = 40;
+        Random random = new Random(12);
+        int[][] history = new int[devices][eventsPerDevice];
+        for (int[] events : history) {
+            for (int t = 0; t < eventsPerDevice; t++) {
+                events[t] = random.nextInt(121) - 60;
+            }
+        }
+
+        int snapshotInterval = 300;
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir, 4096, 1, snapshotInterval)) {
+            for (int t = 0; t < eventsPerDevice; t++) {
+                for (int d = 0; d < devices; d++) {
+                    store.apply(d, history[d][t]);
+                }
+            }
+        }
+
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            for (int d = 0; d < devices; d++) {
+                assertEquals(monitor.getBattery(history[d]), store.level(d), "Device " + d + " recovered");
+            }
+            System.out.println("[testRestartReplaysOnlyTailAfterSnapshot] Eventos reproduzidos: " + store.replayedEvents());
+            assertEquals((long) devices * eventsPerDevice % snapshotInterval, store.replayedEvents(),
+                    "Only events after the last snapshot are replayed");
+        }
+    }
+
+    @Test
+    public void testTornLogTailIsIgnored() throws IOException {
+        int[] events = {20, -35, 15, 40};
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            for (int event : events) {
+                store.apply(7L, event);
+            }
+        }
+
+        Path segment = lastFile("wal-");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+            channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), channel.size());
+        }
+
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            int[] survivors = Arrays.copyOf(events, events.length - 1);
+            assertEquals(monitor.getBattery(survivors), store.level(7L), "Torn record is dropped");
+            store.apply(7L, -50);
+        }
+
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            int[] expected = {20, -35, 15, -50};
+            assertEquals(monitor.getBattery(expected), store.level(7L), "Log continues after the torn tail");
+        }
+    }
+
+    @Test
+    public void testCorruptSnapshotFallsBackToPrevious() throws IOException {
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            store.apply(1L, 30);
+            store.snapshot();
+            store.apply(1L, -45);
+            store.snapshot();
+        }
+
+        Path latest = lastFile("snapshot-");
+        byte[] bytes = Files.readAllBytes(latest);
+        bytes[bytes.length - 6] ^= 0x7F;
+        Files.write(latest, bytes);
+
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            assertEquals(monitor.getBattery(new int[] {30, -45}), store.level(1L),
+                    "Previous snapshot plus log tail restores the state");
+        }
+    }
+
+    @Test
+    public void testAutomaticSnapshotCoversOnlyDurableEvents() throws IOException {
+        int[] events = new int[25];
+        Arrays.fill(events, -3);
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir, 4096, 60_000, 10)) {
+            for (int event : events) {
+                store.apply(9L, event);
+            }
+        }
+
+        Path latest = lastFile("snapshot-");
+        long[] logged = new long[1];
+        WriteAheadLog.replay(tempDir, 0, (deviceId, event) -> logged[0]++);
+        System.out.println("[testAutomaticSnapshotCoversOnlyDurableEvents] Snapshot: " + latest.getFileName());
+        assertTrue(latest.getFileName().toString().contains("00000000000000000020"), "Last snapshot covers 20 events");
+        assertTrue(logged[0] >= 20, "Every event covered by the snapshot is in the log");
+
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir)) {
+            assertEquals(monitor.getBattery(events), store.level(9L), "Snapshot plus log tail restores the state");
+            assertEquals(5, store.replayedEvents(), "Only events after the last snapshot are replayed");
+        }
+    }
+
+    @Test
+    public void testApplyDurableIsOnDiskBeforeReturning() throws IOException {
+        try (DurableBatteryStore store = DurableBatteryStore.open(tempDir, 4096, 1_000, 1_000)) {
+            int result = store.applyDurable(5L, 30);
+            store.applyDurable(5L, -12);
+            System.out.println("[testApplyDurableIsOnDiskBeforeReturning] Resultado da bateria: " + result);
+
+            long[] logged = new long[1];
+            WriteAheadLog.replay(tempDir, 0, (deviceId, event) -> logged[0]++);
+            assertEquals(2, logged[0], "Both events are in the log without close or sync");
+        }
+    }
+
+    @Test
+    public void testFlushFailureIsSticky() throws IOException, InterruptedException {
+        Path walDir = tempDir.resolve("wal");
+        WriteAheadLog wal = new WriteAheadLog(walDir, 0, 16, 60_000);
+        wal.append(1L, 10);
+        wal.sync();
+        try (Stream<Path> files = Files.list(walDir)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(walDir);
+
+        long seq = wal.append(1L, 20);
+        assertThrows(IOException.class, wal::sync, "Opening the next segment fails");
+        assertThrows(IOException.class, () -> wal.append(1L, 30), "Appends are refused after a failure");
+        assertThrows(IOException.class, wal::sync, "Syncs are refused after a failure");
+        assertThrows(IOException.class, () -> wal.awaitDurable(seq), "The failed batch is never durable");
+        assertThrows(IOException.class, wal::close, "Close reports the failure");
+    }
+
+    private Path lastFile(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix))
+                    .max(Comparator.naturalOrder())
+                    .orElseThrow();
+        }
+    }
+}
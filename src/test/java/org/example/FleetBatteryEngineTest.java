@@ -0,0 +1,104 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.fleet.DeviceLevelMap;
+import org.example.fleet.FleetBatteryEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class FleetBatteryEngineTest {
+
+    private BatteryMonitor monitor;
+    private FleetBatteryEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+        engine = new FleetBatteryEngine();
+    }
+
+    @Test
+    public void testUnknownDeviceStartsAtInitialLevel() {
+        int result = engine.level(123L);
+        System.out.println("[testUnknownDeviceStartsAtInitialLevel] Resultado da bateria: " + result);
+        assertEquals(50, result, "Unknown device reports the initial charge");
+        assertEquals(0, engine.deviceCount(), "Reading does not register a device");
+    }
+
+    @Test
+    public void testInterleavedDevicesMatchGetBattery() {
+        int devices = 5000;
+        int eventsPerDevice = 20;
+        Random random = new Random(11);
+        int[][] history = new int[devices][eventsPerDevice];
+        long[] ids = new long[devices];
+        for (int d = 0; d < devices; d++) {
+            ids[d] = d == 0 ? 0L : random.nextLong();
+            for (int t = 0; t < eventsPerDevice; t++) {
+                history[d][t] = random.nextInt(81) - 40;
+            }
+        }
+
+        long[] batchIds = new long[devices * eventsPerDevice];
+        int[] batchEvents = new int[devices * eventsPerDevice];
+        int position = 0;
+        for (int t = 0; t < eventsPerDevice; t++) {
+            for (int d = 0; d < devices; d++) {
+                batchIds[position] = ids[d];
+                batchEvents[position++] = history[d][t];
+            }
+        }
+        engine.applyBatch(batchIds, batchEvents, 0, position);
+
+        assertEquals(devices, engine.deviceCount(), "Every device is registered once");
+        for (int d = 0; d < devices; d++) {
+            assertEquals(monitor.getBattery(history[d]), engine.level(ids[d]),
+                    "Fleet level matches getBattery for device " + Arrays.toString(history[d]));
+        }
+    }
+
+    @Test
+    public void testForEachDeviceVisitsAllDevices() {
+        engine.apply(1L, 10);
+        engine.apply(2L, -60);
+        engine.apply(1L, 61);
+        int[] sum = new int[1];
+        engine.forEachDevice((deviceId, level) -> sum[0] += level);
+        System.out.println("[testForEachDeviceVisitsAllDevices] Soma dos níveis: " + sum[0]);
+        assertEquals(100, sum[0], "Levels 100% and 0% are visited");
+    }
+
+    @Test
+    public void testLevelMapGrowsAndRejectsOversizedCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new DeviceLevelMap(Integer.MAX_VALUE),
+                "Capacity would overflow");
+        assertThrows(IllegalArgumentException.class, () -> new FleetBatteryEngine(-1), "Negative size");
+
+        DeviceLevelMap map = new DeviceLevelMap();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(4);
+        for (int i = 0; i < 10_000; i++) {
+            long deviceId = i == 0 ? 0L : random.nextLong();
+            int level = random.nextInt(101);
+            map.put(deviceId, level);
+            expected.put(deviceId, level);
+        }
+        DeviceLevelMap copy = map.copy();
+        map.put(0L, 1);
+        System.out.println("[testLevelMapGrowsAndRejectsOversizedCapacity] Dispositivos: " + copy.size());
+        assertEquals(expected.size(), copy.size(), "Every device is kept across resizes");
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), copy.get(entry.getKey(), -1), "Device " + entry.getKey());
+        }
+        int[] visited = new int[1];
+        copy.forEach((deviceId, level) -> visited[0]++);
+        assertEquals(expected.size(), visited[0], "forEach visits every device, including id 0");
+    }
+}
@@ -0,0 +1,139 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.functions.rate.CompiledRateModel;
+import org.example.functions.rate.RateCurve;
+import org.example.functions.rate.Workload;
+import org.example.offheap.OffHeapEventBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.concurrent.ForkJoinPool;
+
+public class OffHeapEventBufferTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BatteryMonitor monitor;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+    }
+
+    @Test
+    public void testProblemExample() {
+        try (OffHeapEventBuffer events = OffHeapEventBuffer.allocate(4)) {
+            for (int event : new int[]{10, -20, 61, -15}) {
+                events.append(event);
+            }
+            int result = monitor.getBattery(events);
+            System.out.println("[testProblemExample] Resultado da bateria: " + result);
+            assertEquals(85, result, "Off-heap evaluation matches the problem example");
+        }
+    }
+
+    @Test
+    public void testSmallPagesMatchGetBattery() {
+        int[] array = randomEvents(new Random(26), 100_003, 40);
+        try (OffHeapEventBuffer events = OffHeapEventBuffer.allocate(array.length, 10)) {
+            events.append(array, 0, 7);
+            for (int i = 7; i < 2_000; i++) {
+                events.append(array[i]);
+            }
+            events.append(array, 2_000, array.length - 2_000);
+
+            assertEquals(98, events.pageCount(), "Events span many pages");
+            assertEquals(array.length, events.size(), "Every event appended");
+            for (int i = 0; i < array.length; i += 997) {
+                assertEquals(array[i], events.get(i), "Event " + i);
+            }
+            assertEquals(monitor.getBattery(array), monitor.getBattery(events), "Sequential matches");
+
+            ForkJoinPool pool = new ForkJoinPool(3);
+            try {
+                assertEquals(monitor.getBattery(array), monitor.getBatteryParallel(events, pool), "Parallel matches");
+                array[array.length - 1] = Integer.MAX_VALUE;
+                events.set(array.length - 1, Integer.MAX_VALUE);
+                assertEquals(monitor.getBattery(array), monitor.getBatteryParallel(events, pool),
+                        "Overflowing event matches");
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testNonLinearModel() {
+        BatteryMonitor curved = new BatteryMonitor(CompiledRateModel.forWorkload(
+                new RateCurve(new int[]{0, 80, 100}, new double[]{2.0, 0.25}), Workload.GAMING));
+        int[] array = randomEvents(new Random(27), 200_000, 30);
+        try (OffHeapEventBuffer events = OffHeapEventBuffer.allocate(array.length, 12)) {
+            events.append(array, 0, array.length);
+            assertEquals(curved.getBattery(array), curved.getBatteryParallel(events), "Falls back to the rate model");
+        }
+    }
+
+    @Test
+    public void testCapacityBeyondIntRangeIsLazy() {
+        long capacity = 3L * Integer.MAX_VALUE;
+        try (OffHeapEventBuffer events = OffHeapEventBuffer.allocate(capacity)) {
+            events.append(-60);
+            events.set(0, 30);
+            assertEquals(capacity, events.capacity(), "Capacity above Integer.MAX_VALUE");
+            assertEquals(1, events.pageCount(), "Only the first page is allocated");
+            assertEquals(80, monitor.getBattery(events), "50 + 30");
+            assertThrows(IndexOutOfBoundsException.class, () -> events.get(1));
+        }
+    }
+
+    @Test
+    public void testFullAndClosedBuffers() {
+        OffHeapEventBuffer events = OffHeapEventBuffer.allocate(2, 0);
+        events.append(new int[]{1, 2}, 0, 2);
+        assertThrows(IllegalStateException.class, () -> events.append(3));
+        events.close();
+        assertThrows(IllegalStateException.class, () -> events.append(3));
+        assertThrows(IllegalArgumentException.class, () -> OffHeapEventBuffer.allocate(-1));
+        assertThrows(IllegalArgumentException.class, () -> OffHeapEventBuffer.allocate(10, 29));
+    }
+
+    @Test
+    public void testBackingFileLeavesNothingBehind() throws IOException {
+        int[] array = randomEvents(new Random(27), 5_000, 40);
+        OffHeapEventBuffer events = OffHeapEventBuffer.allocate(array.length, 10, tempDir);
+        events.append(array, 0, array.length);
+        int result = monitor.getBattery(events);
+        System.out.println("[testBackingFileLeavesNothingBehind] Resultado da bateria: " + result);
+        assertEquals(monitor.getBattery(array), result, "Mapped pages hold the events");
+        assertEquals(0, fileCount(), "Backing file is unlinked while in use");
+
+        events.close();
+        events.close();
+        assertEquals(0, fileCount(), "Nothing is left after close");
+        assertThrows(IndexOutOfBoundsException.class, () -> events.get(0), "Closed buffer is empty");
+    }
+
+    private long fileCount() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.count();
+        }
+    }
+
+    private static int[] randomEvents(Random random, int length, int bound) {
+        int[] events = new int[length];
+        for (int i = 0; i < length; i++) {
+            events[i] = random.nextInt(2 * bound + 1) - bound;
+        }
+        return events;
+    }
+}
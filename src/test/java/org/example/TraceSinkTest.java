@@ -0,0 +1,64 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.utills.PrintUtils;
+import org.example.utills.TraceSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+public class TraceSinkTest {
+
+    private BatteryMonitor monitor;
+    private PrintStream originalOut;
+    private ByteArrayOutputStream captured;
+
+    @BeforeEach
+    public void setup() {
+        monitor = new BatteryMonitor();
+        originalOut = System.out;
+        captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Test
+    public void testDemonstrateProcessProducesSameText() throws IOException {
+        int[] events = {10, -20, 61, -15, 0, -200, Integer.MIN_VALUE, 5};
+        monitor.demonstrateProcess(events);
+        String expected = captured.toString(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream traced = new ByteArrayOutputStream();
+        monitor.demonstrateProcess(events, new TraceSink(Channels.newChannel(traced), 256));
+        String result = traced.toString(StandardCharsets.UTF_8);
+
+        originalOut.println("[testDemonstrateProcessProducesSameText] Saída:\n" + result);
+        assertEquals(expected, result, "Trace sink output equals PrintUtils output");
+    }
+
+    @Test
+    public void testFormattedArrayProducesSameText() throws IOException {
+        int[] array = {20, -10, 30, -25, 15, Integer.MAX_VALUE};
+        PrintUtils.printFormattedArray(array);
+        PrintUtils.printFormattedArray(new int[]{});
+        String expected = captured.toString(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream traced = new ByteArrayOutputStream();
+        try (TraceSink sink = new TraceSink(Channels.newChannel(traced))) {
+            sink.formattedArray(array);
+            sink.formattedArray(new int[]{});
+        }
+        assertEquals(expected, traced.toString(StandardCharsets.UTF_8), "Array formatting matches PrintUtils");
+    }
+}